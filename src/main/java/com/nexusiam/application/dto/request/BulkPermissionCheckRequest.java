@@ -0,0 +1,66 @@
+package com.nexusiam.application.dto.request;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkPermissionCheckRequest {
+
+    public static final int MAX_USERS = 100;
+
+    private Long userId;
+
+    @Size(max = MAX_USERS, message = "At most 100 users can be checked at once")
+    private List<Long> userIds;
+
+    @Valid
+    @NotEmpty(message = "At least one action must be specified")
+    @Size(max = 500, message = "At most 500 actions can be checked at once")
+    private List<ActionEntry> actions;
+
+    public Set<Long> distinctUserIds() {
+        Set<Long> distinct = new LinkedHashSet<>();
+        if (userId != null) {
+            distinct.add(userId);
+        }
+        if (userIds != null) {
+            userIds.stream().filter(Objects::nonNull).forEach(distinct::add);
+        }
+        return distinct;
+    }
+
+    @JsonIgnore
+    @AssertTrue(message = "At most 100 users can be checked at once")
+    public boolean isWithinUserLimit() {
+        return distinctUserIds().size() <= MAX_USERS;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ActionEntry {
+
+        @NotBlank(message = "HTTP method cannot be blank")
+        private String httpMethod;
+
+        @NotBlank(message = "API path cannot be blank")
+        private String apiPath;
+    }
+}
@@ -0,0 +1,21 @@
+package com.nexusiam.application.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkPermissionCheckResponse {
+
+    private Integer totalActions;
+
+    private Map<Long, String> decisions;
+
+    private Map<Long, Integer> allowedCounts;
+}
@@ -2,6 +2,7 @@ package com.nexusiam.application.service.api;
 
 import com.nexusiam.application.dto.request.ApiSourceRequest;
 import com.nexusiam.application.dto.response.ApiSourceResponse;
+import com.nexusiam.application.service.authorization.PermissionInvalidationBus;
 import com.nexusiam.core.domain.entity.ApiSource;
 import com.nexusiam.core.domain.repository.ApiSourceRepository;
 import lombok.RequiredArgsConstructor;
@@ -19,6 +20,7 @@ import java.util.stream.Collectors;
 public class ApiSourceManagementService {
 
     private final ApiSourceRepository apiSourceRepository;
+    private final PermissionInvalidationBus invalidationBus;
 
     @Transactional
     public ApiSourceResponse createApiSource(ApiSourceRequest request) {
@@ -169,6 +171,8 @@ public class ApiSourceManagementService {
         ApiSource updated = apiSourceRepository.save(apiSource);
         log.info("Updated API source with ID {}", updated.getId());
 
+        invalidationBus.publishApiSourceChanged(updated.getId());
+
         return mapToResponse(updated);
     }
 
@@ -184,6 +188,8 @@ public class ApiSourceManagementService {
 
         apiSourceRepository.deleteById(id);
         log.info("Deleted API source with ID {}", id);
+
+        invalidationBus.publishApiSourceChanged(id);
     }
 
     private ApiSourceResponse mapToResponse(ApiSource apiSource) {
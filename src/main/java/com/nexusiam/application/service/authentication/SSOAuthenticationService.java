@@ -7,6 +7,7 @@ import com.nexusiam.application.service.orchestrator.UserGroupOrchestrator;
 import com.nexusiam.application.service.session.PKCEService;
 import com.nexusiam.application.service.session.SessionLifecycleService;
 import com.nexusiam.application.service.session.SessionManagementService;
+import com.nexusiam.application.service.session.SessionStateCache;
 import com.nexusiam.application.service.strategy.TokenExchangeStrategy;
 import com.nexusiam.application.service.token.CustomTokenService;
 import com.nexusiam.application.service.token.JwksService;
@@ -71,6 +72,7 @@ public class SSOAuthenticationService implements SSOExchangeService {
     private final SessionLifecycleService sessionLifecycleService;
 
     private final PKCEService pkceService;
+    private final SessionStateCache sessionStateCache;
 
     @Override
     public Map<String, String> requestAuthCode(String state) {
@@ -225,6 +227,7 @@ public class SSOAuthenticationService implements SSOExchangeService {
             session.setLastActivityAt(Instant.now());
             sessionManagementService.storeUserActiveToken(profileId, customTokens.get("accessToken"), true);
             updateSessionWithCustomTokens(session, customTokens);
+            sessionStateCache.sessionUpdated(profileId, true, "ACTIVE");
 
             log.info("[RequestID: {}] Session reactivated for profileId: {}", requestId, profileId);
 
@@ -0,0 +1,245 @@
+package com.nexusiam.application.service.authorization;
+
+import com.nexusiam.core.domain.entity.ApiSource;
+import com.nexusiam.core.domain.repository.ApiSourceRepository;
+import com.nexusiam.infrastructure.config.security.PermissionConfig;
+import com.nexusiam.infrastructure.security.matcher.RouteMatcher;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntPredicate;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ApiSourceIndex {
+
+    private final ApiSourceRepository apiSourceRepository;
+    private final PermissionConfig permissionConfig;
+
+    private volatile Snapshot current;
+
+    private final Map<String, Snapshot> snapshotsByVersion = new ConcurrentHashMap<>();
+    private final Deque<String> versionHistory = new ArrayDeque<>();
+    private final AtomicLong lastMissRefreshMillis = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            log.warn("Failed to build API source index at startup, will retry on demand: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.permission.index-refresh-interval-ms:300000}")
+    public void scheduledRefresh() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            log.warn("Failed to refresh API source index, keeping version {}: {}",
+                    current != null ? current.getVersion() : null, e.getMessage());
+        }
+    }
+
+    public synchronized Snapshot refresh() {
+        List<ApiSource> apiSources = new ArrayList<>(apiSourceRepository.findAll());
+        apiSources.sort(Comparator.comparing(ApiSource::getId));
+
+        Snapshot built = new Snapshot(apiSources);
+        Snapshot existing = snapshotsByVersion.get(built.getVersion());
+        if (existing != null) {
+            current = existing;
+            return existing;
+        }
+
+        snapshotsByVersion.put(built.getVersion(), built);
+        versionHistory.addLast(built.getVersion());
+        while (versionHistory.size() > Math.max(1, permissionConfig.getIndexHistorySize())) {
+            snapshotsByVersion.remove(versionHistory.removeFirst());
+        }
+
+        current = built;
+        log.info("API source index refreshed to version {} with {} entries", built.getVersion(), built.size());
+        return built;
+    }
+
+    public Snapshot current() {
+        Snapshot snapshot = current;
+        return snapshot != null ? snapshot : refresh();
+    }
+
+    public Snapshot forVersion(String version) {
+        if (version == null) {
+            return null;
+        }
+
+        Snapshot snapshot = snapshotsByVersion.get(version);
+        if (snapshot != null) {
+            return snapshot;
+        }
+
+        log.debug("API source index version {} not known locally", version);
+        refreshOnMiss();
+        return snapshotsByVersion.get(version);
+    }
+
+    // Rebuilds at most once per miss-refresh interval; callers past the limit get the current snapshot
+    public Snapshot refreshOnMiss() {
+        long now = System.currentTimeMillis();
+        long last = lastMissRefreshMillis.get();
+        if (now - last >= permissionConfig.getIndexMissRefreshIntervalMs()
+                && lastMissRefreshMillis.compareAndSet(last, now)) {
+            try {
+                return refresh();
+            } catch (Exception e) {
+                log.warn("Failed to refresh API source index after a miss: {}", e.getMessage());
+            }
+        }
+        return current();
+    }
+
+    public static final class Snapshot {
+        private final String version;
+        private final String[] permissions;
+        private final long[] apiSourceIds;
+        private final String[] paths;
+        private final String[] methods;
+        private final String[] modules;
+        private final Map<Long, Integer> indexById;
+        private final Map<String, Integer> indexByPermission;
+        private final RouteMatcher catalog;
+
+        Snapshot(List<ApiSource> apiSources) {
+            int count = apiSources.size();
+            this.permissions = new String[count];
+            this.apiSourceIds = new long[count];
+            this.paths = new String[count];
+            this.methods = new String[count];
+            this.modules = new String[count];
+            Map<Long, Integer> byId = new HashMap<>();
+            Map<String, Integer> byPermission = new HashMap<>();
+            Map<String, String> interned = new HashMap<>();
+            RouteMatcher.Builder catalogBuilder = RouteMatcher.builder();
+
+            for (int i = 0; i < count; i++) {
+                ApiSource apiSource = apiSources.get(i);
+                String method = apiSource.getApiMethod().toUpperCase().intern();
+                String path = interned.computeIfAbsent(apiSource.getApiPath(), key -> key);
+                String permission = method + ":" + path;
+                permissions[i] = permission;
+                apiSourceIds[i] = apiSource.getId();
+                paths[i] = path;
+                methods[i] = method;
+                modules[i] = apiSource.getModule() != null
+                        ? interned.computeIfAbsent(apiSource.getModule(), key -> key) : null;
+                byId.put(apiSource.getId(), i);
+                byPermission.putIfAbsent(permission, i);
+                catalogBuilder.add(method, path, i);
+            }
+
+            this.indexById = Collections.unmodifiableMap(byId);
+            this.indexByPermission = Collections.unmodifiableMap(byPermission);
+            this.catalog = catalogBuilder.build();
+            this.version = computeVersion(apiSources);
+        }
+
+        public String getVersion() {
+            return version;
+        }
+
+        public int size() {
+            return permissions.length;
+        }
+
+        public int indexOf(Long apiSourceId) {
+            Integer index = indexById.get(apiSourceId);
+            return index != null ? index : -1;
+        }
+
+        public long getApiSourceId(int index) {
+            return apiSourceIds[index];
+        }
+
+        public String getApiPath(int index) {
+            return paths[index];
+        }
+
+        public String getApiMethod(int index) {
+            return methods[index];
+        }
+
+        public String getModule(int index) {
+            return modules[index];
+        }
+
+        public boolean matches(String httpMethod, String requestPath, IntPredicate granted) {
+            return catalog.matches(httpMethod, requestPath, granted);
+        }
+
+        public boolean matchesAnyMethod(String requestPath, IntPredicate granted) {
+            return catalog.matchesAnyMethod(requestPath, granted);
+        }
+
+        public String encode(Collection<Long> apiSourceIds) {
+            BitSet bits = new BitSet(permissions.length);
+            for (Long apiSourceId : apiSourceIds) {
+                Integer index = indexById.get(apiSourceId);
+                if (index == null) {
+                    return null;
+                }
+                bits.set(index);
+            }
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(bits.toByteArray());
+        }
+
+        public boolean hasPermission(BitSet bits, String apiPath, String httpMethod) {
+            Integer index = indexByPermission.get(httpMethod.toUpperCase() + ":" + apiPath);
+            return index != null && bits.get(index);
+        }
+
+        public List<String> decode(BitSet bits) {
+            List<String> result = new ArrayList<>(bits.cardinality());
+            for (int i = bits.nextSetBit(0); i >= 0 && i < permissions.length; i = bits.nextSetBit(i + 1)) {
+                result.add(permissions[i]);
+            }
+            return result;
+        }
+
+        private static String computeVersion(List<ApiSource> apiSources) {
+            try {
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                for (ApiSource apiSource : apiSources) {
+                    String entry = apiSource.getId() + "|" + apiSource.getApiMethod().toUpperCase()
+                            + "|" + apiSource.getApiPath() + "\n";
+                    digest.update(entry.getBytes(StandardCharsets.UTF_8));
+                }
+                byte[] hash = digest.digest();
+                return Base64.getUrlEncoder().withoutPadding().encodeToString(hash).substring(0, 12);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 not available", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.nexusiam.application.service.authorization;
+
+import com.nexusiam.infrastructure.config.security.PermissionConfig;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AuthorizationDecisionMemo {
+
+    private static final String METRIC_PREFIX = "iam.permission.decision.memo";
+
+    private final PermissionInvalidationBus invalidationBus;
+    private final PermissionConfig permissionConfig;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<Long, UserDecisions> decisionsByUser = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder deniedHits = new LongAdder();
+    private final LongAdder bypassed = new LongAdder();
+
+    @PostConstruct
+    public void registerMetrics() {
+        Gauge.builder(METRIC_PREFIX + ".users", decisionsByUser, Map::size)
+                .description("Number of users with memoized authorization decisions")
+                .register(meterRegistry);
+        FunctionCounter.builder(METRIC_PREFIX + ".hits", hits, LongAdder::sum)
+                .register(meterRegistry);
+        FunctionCounter.builder(METRIC_PREFIX + ".misses", misses, LongAdder::sum)
+                .register(meterRegistry);
+        FunctionCounter.builder(METRIC_PREFIX + ".denied.hits", deniedHits, LongAdder::sum)
+                .description("Denials answered from the memo without evaluating permissions")
+                .register(meterRegistry);
+        FunctionCounter.builder(METRIC_PREFIX + ".bypassed", bypassed, LongAdder::sum)
+                .description("Decisions evaluated directly because invalidations are not shared across replicas")
+                .register(meterRegistry);
+    }
+
+    public boolean decide(Long userId, String httpMethod, String normalizedPath, BooleanSupplier evaluator) {
+        if (userId == null) {
+            return evaluator.getAsBoolean();
+        }
+        if (!invalidationBus.isDistributed()) {
+            bypassed.increment();
+            return evaluator.getAsBoolean();
+        }
+
+        String key = httpMethod.toUpperCase() + " " + normalizedPath;
+        long userVersion = invalidationBus.getUserVersion(userId);
+        long catalogVersion = invalidationBus.getCatalogVersion();
+        long now = System.currentTimeMillis();
+
+        UserDecisions decisions = decisionsByUser.get(userId);
+        if (decisions == null || !decisions.isCurrent(userVersion, catalogVersion, now)) {
+            decisions = replace(userId, decisions, userVersion, catalogVersion, now);
+        }
+
+        Boolean memoized = decisions.get(key);
+        if (memoized != null) {
+            hits.increment();
+            if (!memoized) {
+                deniedHits.increment();
+            }
+            return memoized;
+        }
+
+        misses.increment();
+        boolean allowed = evaluator.getAsBoolean();
+        decisions.put(key, allowed, Math.max(1, permissionConfig.getDecisionMemoMaxEntriesPerUser()));
+        return allowed;
+    }
+
+    public void invalidateUser(Long userId) {
+        decisionsByUser.remove(userId);
+    }
+
+    public void clear() {
+        decisionsByUser.clear();
+    }
+
+    public static String normalizePath(String path) {
+        if (path == null || path.isEmpty()) {
+            return "/";
+        }
+
+        StringBuilder normalized = new StringBuilder(path.length());
+        char previous = 0;
+        for (int i = 0; i < path.length(); i++) {
+            char c = path.charAt(i);
+            if (c == ';' || c == '?' || c == '#') {
+                break;
+            }
+            if (c == '/' && previous == '/') {
+                continue;
+            }
+            normalized.append(c);
+            previous = c;
+        }
+
+        int length = normalized.length();
+        while (length > 1 && normalized.charAt(length - 1) == '/') {
+            length--;
+        }
+        normalized.setLength(length);
+        return normalized.length() == 0 ? "/" : normalized.toString();
+    }
+
+    private UserDecisions replace(Long userId, UserDecisions stale, long userVersion, long catalogVersion, long now) {
+        if (stale == null && decisionsByUser.size() >= permissionConfig.getDecisionMemoMaxUsers()) {
+            makeRoom();
+        }
+
+        UserDecisions fresh = new UserDecisions(userVersion, catalogVersion,
+                now + permissionConfig.getDecisionMemoTtlSeconds() * 1000L);
+        if (stale == null) {
+            UserDecisions existing = decisionsByUser.putIfAbsent(userId, fresh);
+            return existing != null && existing.isCurrent(userVersion, catalogVersion, now) ? existing : fresh;
+        }
+        decisionsByUser.replace(userId, stale, fresh);
+        return fresh;
+    }
+
+    private void makeRoom() {
+        long now = System.currentTimeMillis();
+        decisionsByUser.values().removeIf(decisions -> decisions.isExpired(now));
+
+        int maxUsers = permissionConfig.getDecisionMemoMaxUsers();
+        if (decisionsByUser.size() < maxUsers) {
+            return;
+        }
+
+        int toRemove = Math.max(1, maxUsers / 10);
+        Iterator<Long> iterator = decisionsByUser.keySet().iterator();
+        while (toRemove > 0 && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            toRemove--;
+        }
+
+        log.debug("Authorization decision memo full, evicted users to make room");
+    }
+
+    private static final class UserDecisions {
+        final long userVersion;
+        final long catalogVersion;
+        final long expiresAtMillis;
+        private final LinkedHashMap<String, Boolean> decisions = new LinkedHashMap<>(16, 0.75f, true);
+
+        UserDecisions(long userVersion, long catalogVersion, long expiresAtMillis) {
+            this.userVersion = userVersion;
+            this.catalogVersion = catalogVersion;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+
+        boolean isCurrent(long currentUserVersion, long currentCatalogVersion, long now) {
+            return userVersion == currentUserVersion && catalogVersion == currentCatalogVersion && !isExpired(now);
+        }
+
+        boolean isExpired(long now) {
+            return now >= expiresAtMillis;
+        }
+
+        synchronized Boolean get(String key) {
+            return decisions.get(key);
+        }
+
+        synchronized void put(String key, boolean allowed, int maxEntries) {
+            decisions.put(key, allowed);
+            if (decisions.size() > maxEntries) {
+                Iterator<String> eldest = decisions.keySet().iterator();
+                eldest.next();
+                eldest.remove();
+            }
+        }
+    }
+}
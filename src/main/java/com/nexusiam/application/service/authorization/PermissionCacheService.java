@@ -1,17 +1,28 @@
 package com.nexusiam.application.service.authorization;
 
-import com.nexusiam.core.domain.entity.UserApiMapping;
-import com.nexusiam.core.domain.entity.ApiSource;
-import com.nexusiam.core.domain.repository.UserApiMappingRepository;
-import com.nexusiam.core.domain.repository.ApiSourceRepository;
+import com.nexusiam.core.domain.repository.UserApiPermissionView;
+import com.nexusiam.infrastructure.config.security.PermissionConfig;
+import com.nexusiam.infrastructure.security.matcher.RouteMatcher;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import java.time.Duration;
-import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -19,13 +30,73 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class PermissionCacheService {
 
-    private final UserApiMappingRepository mappingRepository;
-    private final ApiSourceRepository apiSourceRepository;
+    private static final String METRIC_PREFIX = "iam.permission.cache";
 
-    private static final Duration CACHE_TTL = Duration.ofMinutes(15);
-    private static final int MAX_CACHE_SIZE = 10000;
+    private final UserPermissionLoader permissionLoader;
+    private final ApiSourceIndex apiSourceIndex;
+    private final PermissionConfig permissionConfig;
+    private final MeterRegistry meterRegistry;
 
     private final Map<Long, CachedUserPermissions> permissionCache = new ConcurrentHashMap<>();
+    private final Map<Long, CompletableFuture<CachedUserPermissions>> inFlightLoads = new ConcurrentHashMap<>();
+    private final AtomicLong invalidationSequence = new AtomicLong();
+    private final Map<Long, Long> invalidatedAt = new ConcurrentHashMap<>();
+    private final NavigableMap<Long, Integer> activeLoads = new TreeMap<>();
+    private volatile long clearedAt;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+
+    private TinyLfuPolicy<Long> policy;
+    private ExecutorService refreshExecutor;
+    private Timer loadTimer;
+
+    @PostConstruct
+    public void init() {
+        policy = new TinyLfuPolicy<>(permissionConfig.getCacheMaxSize());
+
+        AtomicInteger threadCount = new AtomicInteger();
+        refreshExecutor = Executors.newFixedThreadPool(Math.max(1, permissionConfig.getCacheRefreshThreads()), runnable -> {
+            Thread thread = new Thread(runnable, "permission-cache-refresh-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        loadTimer = Timer.builder(METRIC_PREFIX + ".load")
+                .description("Time taken to load a user's permissions from the database")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".size", permissionCache, Map::size)
+                .description("Number of users with cached permissions")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".hit.ratio", this, PermissionCacheService::getHitRatio)
+                .description("Share of permission lookups served from the cache")
+                .register(meterRegistry);
+        FunctionCounter.builder(METRIC_PREFIX + ".hits", hits, LongAdder::sum)
+                .register(meterRegistry);
+        FunctionCounter.builder(METRIC_PREFIX + ".misses", misses, LongAdder::sum)
+                .register(meterRegistry);
+        FunctionCounter.builder(METRIC_PREFIX + ".evictions", evictions, LongAdder::sum)
+                .register(meterRegistry);
+        FunctionCounter.builder(METRIC_PREFIX + ".refreshes", refreshes, LongAdder::sum)
+                .register(meterRegistry);
+        FunctionCounter.builder(METRIC_PREFIX + ".load.failures", loadFailures, LongAdder::sum)
+                .register(meterRegistry);
+
+        log.info("Permission cache initialized with max size: {}, TTL: {}s, refresh ahead: {}s",
+                policy.getMaximumSize(), permissionConfig.getCacheTtlSeconds(),
+                permissionConfig.getCacheRefreshAheadSeconds());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (refreshExecutor != null) {
+            refreshExecutor.shutdownNow();
+        }
+    }
 
     public boolean hasPermission(Long userId, String apiPath, String httpMethod) {
 
@@ -38,14 +109,12 @@ public class PermissionCacheService {
 
         CachedUserPermissions cached = getOrLoadUserPermissions(userId);
 
-        if (cached == null || cached.permissions.isEmpty()) {
+        if (cached == null || cached.grants.isEmpty()) {
             log.debug("No permissions found for user {}", userId);
             return false;
         }
 
-        String normalizedMethod = httpMethod.toUpperCase();
-        boolean hasPermission = cached.permissions.stream()
-                .anyMatch(p -> p.matches(apiPath, normalizedMethod));
+        boolean hasPermission = cached.snapshot.matches(httpMethod, apiPath, cached.grants::contains);
 
         log.debug("Permission check for user {} on {} {}: {}",
                 userId, httpMethod, apiPath, hasPermission ? "ALLOWED" : "DENIED");
@@ -53,16 +122,86 @@ public class PermissionCacheService {
         return hasPermission;
     }
 
+    public boolean hasAnyAccess(Long userId, String apiPath) {
+        if (userId == null) {
+            return true;
+        }
+
+        CachedUserPermissions cached = getOrLoadUserPermissions(userId);
+        return cached != null && cached.snapshot.matchesAnyMethod(apiPath, cached.grants::contains);
+    }
+
     public List<CachedPermission> getUserPermissions(Long userId) {
         if (userId == null) {
             return Collections.emptyList();
         }
         CachedUserPermissions cached = getOrLoadUserPermissions(userId);
-        return cached != null ? new ArrayList<>(cached.permissions) : Collections.emptyList();
+        return cached != null ? cached.toPermissions() : Collections.emptyList();
+    }
+
+    public Map<Long, BitSet> checkAll(Collection<Long> userIds, List<Action> actions) {
+        long now = System.currentTimeMillis();
+        Map<Long, CachedUserPermissions> resolved = new LinkedHashMap<>();
+        List<Long> missing = new ArrayList<>();
+
+        for (Long userId : new LinkedHashSet<>(userIds)) {
+            if (userId == null) {
+                continue;
+            }
+            CachedUserPermissions cached = permissionCache.get(userId);
+            if (cached != null && !cached.isExpired(now)) {
+                hits.increment();
+                policy.recordAccess(userId);
+                if (cached.isRefreshDue(now)) {
+                    refreshAsync(userId);
+                }
+                resolved.put(userId, cached);
+            } else {
+                misses.increment();
+                resolved.put(userId, null);
+                missing.add(userId);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            long started = beginLoad();
+            Timer.Sample sample = Timer.start(meterRegistry);
+            try {
+                permissionLoader.loadAll(missing).forEach((userId, permissions) ->
+                        resolved.put(userId, store(userId, toCached(permissions), started)));
+            } catch (Exception e) {
+                loadFailures.increment();
+                log.error("Failed to load permissions for {} users: {}", missing.size(), e.getMessage());
+            } finally {
+                sample.stop(loadTimer);
+                endLoad(started);
+            }
+        }
+
+        Map<Long, BitSet> decisions = new LinkedHashMap<>();
+        resolved.forEach((userId, cached) -> {
+            BitSet allowed = new BitSet(actions.size());
+            if (cached != null && !cached.grants.isEmpty()) {
+                for (int i = 0; i < actions.size(); i++) {
+                    Action action = actions.get(i);
+                    if (cached.snapshot.matches(action.getHttpMethod(), action.getApiPath(), cached.grants::contains)) {
+                        allowed.set(i);
+                    }
+                }
+            }
+            decisions.put(userId, allowed);
+        });
+
+        log.debug("Bulk permission check: {} users x {} actions, {} loaded from database",
+                decisions.size(), actions.size(), missing.size());
+        return decisions;
     }
 
     public void invalidateUser(Long userId) {
+        invalidatedAt.merge(userId, invalidationSequence.incrementAndGet(), Math::max);
+        inFlightLoads.remove(userId);
         permissionCache.remove(userId);
+        policy.remove(userId);
         log.info("Invalidated permission cache for user {}", userId);
     }
 
@@ -72,139 +211,360 @@ public class PermissionCacheService {
     }
 
     public void clearCache() {
+        clearedAt = invalidationSequence.incrementAndGet();
+        inFlightLoads.clear();
         int size = permissionCache.size();
         permissionCache.clear();
+        policy.clear();
         log.info("Cleared entire permission cache ({} entries)", size);
     }
 
+    public int applyApiSourceChange(Long apiSourceId, ApiSourceIndex.Snapshot fresh) {
+        int patched = 0;
+        for (Map.Entry<Long, CachedUserPermissions> entry : permissionCache.entrySet()) {
+            CachedUserPermissions cached = entry.getValue();
+            if (cached.snapshot == fresh || !cached.holds(apiSourceId)) {
+                continue;
+            }
+
+            if (permissionCache.replace(entry.getKey(), cached, cached.rebase(fresh))) {
+                patched++;
+            }
+        }
+
+        log.info("API source {} changed, re-based {} of {} cached users onto index version {}",
+                apiSourceId, patched, permissionCache.size(), fresh.getVersion());
+        return patched;
+    }
+
     public Map<String, Object> getCacheStats() {
+        long now = System.currentTimeMillis();
         int totalEntries = permissionCache.size();
         long expiredEntries = permissionCache.values().stream()
-                .filter(CachedUserPermissions::isExpired)
+                .filter(cached -> cached.isExpired(now))
                 .count();
 
-        return Map.of(
-                "totalCachedUsers", totalEntries,
-                "expiredEntries", expiredEntries,
-                "activeEntries", totalEntries - expiredEntries,
-                "cacheTTL", CACHE_TTL.toMinutes() + " minutes",
-                "maxCacheSize", MAX_CACHE_SIZE
-        );
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("totalCachedUsers", totalEntries);
+        stats.put("expiredEntries", expiredEntries);
+        stats.put("activeEntries", totalEntries - expiredEntries);
+        stats.put("cacheTTL", permissionConfig.getCacheTtlSeconds() + " seconds");
+        stats.put("refreshAhead", permissionConfig.getCacheRefreshAheadSeconds() + " seconds");
+        stats.put("maxCacheSize", policy.getMaximumSize());
+        stats.put("hits", hits.sum());
+        stats.put("misses", misses.sum());
+        stats.put("hitRatio", getHitRatio());
+        stats.put("evictions", evictions.sum());
+        stats.put("refreshes", refreshes.sum());
+        stats.put("loadFailures", loadFailures.sum());
+        stats.put("inFlightLoads", inFlightLoads.size());
+        stats.put("pendingInvalidations", invalidatedAt.size());
+        stats.put("estimatedGrantBytes", permissionCache.values().stream()
+                .mapToLong(cached -> cached.grants.estimatedBytes())
+                .sum());
+        return stats;
     }
 
     public void preloadUsers(List<Long> userIds) {
         log.info("Preloading permissions for {} users", userIds.size());
-        userIds.forEach(this::getOrLoadUserPermissions);
-        log.info("Preload complete");
+
+        long now = System.currentTimeMillis();
+        List<Long> missing = userIds.stream()
+                .filter(Objects::nonNull)
+                .filter(userId -> {
+                    CachedUserPermissions cached = permissionCache.get(userId);
+                    return cached == null || cached.isExpired(now);
+                })
+                .distinct()
+                .collect(Collectors.toList());
+
+        if (missing.isEmpty()) {
+            log.info("Preload complete, all users already cached");
+            return;
+        }
+
+        long started = beginLoad();
+        try {
+            Map<Long, UserPermissionLoader.UserPermissions> loaded = permissionLoader.loadAll(missing);
+            loaded.forEach((userId, permissions) -> store(userId, toCached(permissions), started));
+            log.info("Preload complete ({} users loaded)", loaded.size());
+        } catch (Exception e) {
+            log.error("Failed to preload permissions for {} users: {}", missing.size(), e.getMessage());
+        } finally {
+            endLoad(started);
+        }
     }
 
-    private CachedUserPermissions getOrLoadUserPermissions(Long userId) {
+    @Scheduled(fixedDelayString = "${app.permission.cache-purge-interval-ms:60000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        int removed = 0;
+
+        Iterator<Map.Entry<Long, CachedUserPermissions>> iterator = permissionCache.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Long, CachedUserPermissions> entry = iterator.next();
+            if (entry.getValue().isExpired(now)) {
+                iterator.remove();
+                policy.remove(entry.getKey());
+                removed++;
+            }
+        }
 
+        if (removed > 0) {
+            evictions.add(removed);
+            log.debug("Purged {} expired entries from permission cache", removed);
+        }
+
+        long oldestLoad;
+        synchronized (activeLoads) {
+            oldestLoad = activeLoads.isEmpty() ? invalidationSequence.get() : activeLoads.firstKey();
+        }
+        invalidatedAt.values().removeIf(sequence -> sequence <= oldestLoad);
+    }
+
+    private CachedUserPermissions getOrLoadUserPermissions(Long userId) {
+        long now = System.currentTimeMillis();
         CachedUserPermissions cached = permissionCache.get(userId);
 
-        if (cached != null && !cached.isExpired()) {
+        if (cached != null && !cached.isExpired(now)) {
             log.trace("Cache HIT for user {}", userId);
+            hits.increment();
+            policy.recordAccess(userId);
+            if (cached.isRefreshDue(now)) {
+                refreshAsync(userId);
+            }
             return cached;
         }
 
         log.debug("Cache MISS for user {} - loading from database", userId);
+        misses.increment();
 
-        if (permissionCache.size() >= MAX_CACHE_SIZE) {
-            evictOldestEntries();
+        CompletableFuture<CachedUserPermissions> created = new CompletableFuture<>();
+        CompletableFuture<CachedUserPermissions> existing = inFlightLoads.putIfAbsent(userId, created);
+        if (existing != null) {
+            log.trace("Joining in-flight permission load for user {}", userId);
+            return existing.join();
         }
 
-        return loadAndCachePermissions(userId);
+        load(userId, created);
+        return created.join();
     }
 
-    private CachedUserPermissions loadAndCachePermissions(Long userId) {
+    private void refreshAsync(Long userId) {
+        CompletableFuture<CachedUserPermissions> created = new CompletableFuture<>();
+        if (inFlightLoads.putIfAbsent(userId, created) != null) {
+            return;
+        }
+
+        try {
+            refreshExecutor.execute(() -> {
+                refreshes.increment();
+                load(userId, created);
+            });
+        } catch (RejectedExecutionException e) {
+            inFlightLoads.remove(userId, created);
+            created.complete(null);
+        }
+    }
+
+    private void load(Long userId, CompletableFuture<CachedUserPermissions> future) {
+        long started = beginLoad();
+        Timer.Sample sample = Timer.start(meterRegistry);
         try {
+            CachedUserPermissions cached = toCached(permissionLoader.load(userId));
+            if (inFlightLoads.remove(userId, future)) {
+                cached = store(userId, cached, started);
+            }
+            future.complete(cached);
+        } catch (Exception e) {
+            inFlightLoads.remove(userId, future);
+            loadFailures.increment();
+            log.error("Failed to load permissions for user {}: {}", userId, e.getMessage());
+            future.complete(null);
+        } finally {
+            sample.stop(loadTimer);
+            endLoad(started);
+        }
+    }
 
-            List<UserApiMapping> dbMappings =
-                    mappingRepository.findUserAccessibleApisWithDetails(userId);
+    private long beginLoad() {
+        synchronized (activeLoads) {
+            long started = invalidationSequence.get();
+            activeLoads.merge(started, 1, Integer::sum);
+            return started;
+        }
+    }
 
-            Map<String, Set<String>> pathToMethodsMap = new HashMap<>();
-            Map<String, String> pathToModuleMap = new HashMap<>();
+    private void endLoad(long started) {
+        synchronized (activeLoads) {
+            activeLoads.computeIfPresent(started, (sequence, count) -> count == 1 ? null : count - 1);
+        }
+    }
 
-            for (UserApiMapping mapping : dbMappings) {
-                ApiSource apiSource = apiSourceRepository.findById(mapping.getApiSourceId()).orElse(null);
-                if (apiSource == null) {
-                    continue;
-                }
+    private boolean isInvalidatedSince(Long userId, long started) {
+        return clearedAt > started || invalidatedAt.getOrDefault(userId, 0L) > started;
+    }
 
-                String apiPath = apiSource.getApiPath();
-                String apiMethod = apiSource.getApiMethod();
-                String module = apiSource.getModule();
+    private CachedUserPermissions store(Long userId, CachedUserPermissions loaded, long started) {
+        ApiSourceIndex.Snapshot current = apiSourceIndex.current();
+        CachedUserPermissions cached = loaded.snapshot == current ? loaded : loaded.rebase(current);
 
-                pathToMethodsMap.computeIfAbsent(apiPath, k -> new HashSet<>()).add(apiMethod);
-                pathToModuleMap.putIfAbsent(apiPath, module);
+        boolean[] inserted = {false};
+        boolean[] stale = {false};
+        permissionCache.compute(userId, (key, previous) -> {
+            if (isInvalidatedSince(key, started)) {
+                stale[0] = true;
+                return previous;
             }
+            inserted[0] = previous == null;
+            return cached;
+        });
 
-            List<CachedPermission> permissions = pathToMethodsMap.entrySet().stream()
-                    .map(entry -> new CachedPermission(
-                            entry.getKey(),
-                            new ArrayList<>(entry.getValue()),
-                            pathToModuleMap.get(entry.getKey())
-                    ))
-                    .collect(Collectors.toList());
+        if (stale[0]) {
+            log.debug("Discarded permissions for user {} loaded before an invalidation", userId);
+            return cached;
+        }
+        if (inserted[0]) {
+            for (Long victim : policy.recordInsert(userId)) {
+                if (permissionCache.remove(victim) != null) {
+                    evictions.increment();
+                }
+            }
+        }
 
-            CachedUserPermissions cached = new CachedUserPermissions(permissions);
-            permissionCache.put(userId, cached);
+        log.debug("Cached {} permissions for user {}", cached.grants.size(), userId);
+        return cached;
+    }
 
-            log.debug("Cached {} permissions for user {}", permissions.size(), userId);
-            return cached;
+    private CachedUserPermissions toCached(UserPermissionLoader.UserPermissions loaded) {
+        List<UserApiPermissionView> entries = loaded.getEntries();
+        ApiSourceIndex.Snapshot snapshot = apiSourceIndex.current();
+        int[] ids = intern(snapshot, entries);
+
+        boolean unresolved = false;
+        if (Arrays.stream(ids).anyMatch(id -> id < 0)) {
+            snapshot = apiSourceIndex.refreshOnMiss();
+            ids = intern(snapshot, entries);
+            long unknown = Arrays.stream(ids).filter(id -> id < 0).count();
+            if (unknown > 0) {
+                log.warn("{} permissions for user {} reference API sources missing from index version {}",
+                        unknown, loaded.getUserId(), snapshot.getVersion());
+                unresolved = true;
+            }
+        }
 
-        } catch (Exception e) {
-            log.error("Failed to load permissions for user {}: {}", userId, e.getMessage());
-            return null;
+        // Entries missing grants are refreshed on their next hit instead of waiting out the TTL
+        long ttlMillis = permissionConfig.getCacheTtlSeconds() * 1000L;
+        return new CachedUserPermissions(snapshot, PermissionGrants.of(ids), ttlMillis,
+                unresolved ? ttlMillis : permissionConfig.getCacheRefreshAheadSeconds() * 1000L);
+    }
+
+    private static int[] intern(ApiSourceIndex.Snapshot snapshot, List<UserApiPermissionView> entries) {
+        int[] ids = new int[entries.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = snapshot.indexOf(entries.get(i).getApiSourceId());
         }
+        return ids;
     }
 
-    private void evictOldestEntries() {
-        log.warn("Cache size limit reached, evicting oldest entries");
+    private double getHitRatio() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
 
-        List<Map.Entry<Long, CachedUserPermissions>> entries =
-                new ArrayList<>(permissionCache.entrySet());
+    private static class CachedUserPermissions {
+        final ApiSourceIndex.Snapshot snapshot;
+        final PermissionGrants grants;
+        final long expiresAtMillis;
+        final long refreshAtMillis;
+
+        CachedUserPermissions(ApiSourceIndex.Snapshot snapshot, PermissionGrants grants,
+                              long ttlMillis, long refreshAheadMillis) {
+            this.snapshot = snapshot;
+            this.grants = grants;
+            long now = System.currentTimeMillis();
+            this.expiresAtMillis = now + ttlMillis;
+            this.refreshAtMillis = expiresAtMillis - Math.min(refreshAheadMillis, ttlMillis);
+        }
 
-        entries.sort(Comparator.comparing(e -> e.getValue().cachedAt));
+        private CachedUserPermissions(ApiSourceIndex.Snapshot snapshot, PermissionGrants grants,
+                                      CachedUserPermissions previous) {
+            this.snapshot = snapshot;
+            this.grants = grants;
+            this.expiresAtMillis = previous.expiresAtMillis;
+            this.refreshAtMillis = previous.refreshAtMillis;
+        }
 
-        int toRemove = (int) (entries.size() * 0.2);
-        for (int i = 0; i < toRemove; i++) {
-            permissionCache.remove(entries.get(i).getKey());
+        boolean holds(Long apiSourceId) {
+            return grants.contains(snapshot.indexOf(apiSourceId));
         }
 
-        log.info("Evicted {} old cache entries", toRemove);
-    }
+        CachedUserPermissions rebase(ApiSourceIndex.Snapshot fresh) {
+            PermissionGrants rebased = grants.remap(id -> fresh.indexOf(snapshot.getApiSourceId(id)));
+            return new CachedUserPermissions(fresh, rebased, this);
+        }
 
-    private static class CachedUserPermissions {
-        final List<CachedPermission> permissions;
-        final Instant cachedAt;
-        final Instant expiresAt;
+        boolean isExpired(long nowMillis) {
+            return nowMillis >= expiresAtMillis;
+        }
 
-        CachedUserPermissions(List<CachedPermission> permissions) {
-            this.permissions = permissions;
-            this.cachedAt = Instant.now();
-            this.expiresAt = cachedAt.plus(CACHE_TTL);
+        boolean isRefreshDue(long nowMillis) {
+            return nowMillis >= refreshAtMillis;
         }
 
-        boolean isExpired() {
-            return Instant.now().isAfter(expiresAt);
+        List<CachedPermission> toPermissions() {
+            Map<String, List<String>> pathToMethodsMap = new LinkedHashMap<>();
+            Map<String, String> pathToModuleMap = new HashMap<>();
+
+            grants.forEach(id -> {
+                String apiPath = snapshot.getApiPath(id);
+                pathToMethodsMap.computeIfAbsent(apiPath, k -> new ArrayList<>()).add(snapshot.getApiMethod(id));
+                pathToModuleMap.putIfAbsent(apiPath, snapshot.getModule(id));
+            });
+
+            return pathToMethodsMap.entrySet().stream()
+                    .map(entry -> new CachedPermission(
+                            entry.getKey(),
+                            entry.getValue(),
+                            pathToModuleMap.get(entry.getKey())
+                    ))
+                    .collect(Collectors.toList());
         }
     }
 
+    public static class Action {
+        private final String httpMethod;
+        private final String apiPath;
+
+        public Action(String httpMethod, String apiPath) {
+            this.httpMethod = httpMethod;
+            this.apiPath = apiPath;
+        }
+
+        public String getHttpMethod() { return httpMethod; }
+        public String getApiPath() { return apiPath; }
+    }
+
     public static class CachedPermission {
         private final String apiPath;
         private final Set<String> allowedMethods;
         private final String module;
+        private final RouteMatcher matcher;
 
         public CachedPermission(String apiPath, List<String> allowedMethods, String module) {
             this.apiPath = apiPath;
             this.allowedMethods = new HashSet<>(allowedMethods);
             this.module = module;
+            RouteMatcher.Builder builder = RouteMatcher.builder();
+            for (String method : this.allowedMethods) {
+                builder.add(method, apiPath);
+            }
+            this.matcher = builder.build();
         }
 
         public boolean matches(String requestPath, String requestMethod) {
-            return this.apiPath.equals(requestPath)
-                    && this.allowedMethods.contains(requestMethod.toUpperCase());
+            return matcher.matches(requestMethod, requestPath);
         }
 
         public String getApiPath() { return apiPath; }
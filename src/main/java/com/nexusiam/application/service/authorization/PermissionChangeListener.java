@@ -0,0 +1,10 @@
+package com.nexusiam.application.service.authorization;
+
+public interface PermissionChangeListener {
+
+    void onUserChanged(Long userId);
+
+    void onApiSourceChanged(Long apiSourceId);
+
+    void onAllChanged();
+}
@@ -0,0 +1,99 @@
+package com.nexusiam.application.service.authorization;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.function.IntUnaryOperator;
+
+final class PermissionGrants {
+
+    private static final PermissionGrants EMPTY = new PermissionGrants(new int[0], null, 0);
+
+    // 64-bit HotSpot with compressed oops: 12-byte object header, 16-byte array header, 8-byte alignment
+    private static final int OBJECT_BYTES = 24;
+    private static final int ARRAY_HEADER_BYTES = 16;
+
+    private final int[] sortedIds;
+    private final long[] words;
+    private final int size;
+
+    private PermissionGrants(int[] sortedIds, long[] words, int size) {
+        this.sortedIds = sortedIds;
+        this.words = words;
+        this.size = size;
+    }
+
+    static PermissionGrants empty() {
+        return EMPTY;
+    }
+
+    static PermissionGrants of(int[] ids) {
+        int[] sorted = Arrays.stream(ids).filter(id -> id >= 0).sorted().distinct().toArray();
+        if (sorted.length == 0) {
+            return EMPTY;
+        }
+
+        int wordCount = (sorted[sorted.length - 1] >>> 6) + 1;
+        if (wordCount * 2 <= sorted.length) {
+            long[] words = new long[wordCount];
+            for (int id : sorted) {
+                words[id >>> 6] |= 1L << id;
+            }
+            return new PermissionGrants(null, words, sorted.length);
+        }
+        return new PermissionGrants(sorted, null, sorted.length);
+    }
+
+    PermissionGrants remap(IntUnaryOperator mapping) {
+        int[] remapped = new int[size];
+        int[] cursor = {0};
+        forEach(id -> remapped[cursor[0]++] = mapping.applyAsInt(id));
+        return of(remapped);
+    }
+
+    boolean contains(int id) {
+        if (id < 0) {
+            return false;
+        }
+        if (words != null) {
+            int word = id >>> 6;
+            return word < words.length && (words[word] & (1L << id)) != 0;
+        }
+        return Arrays.binarySearch(sortedIds, id) >= 0;
+    }
+
+    void forEach(IntConsumer action) {
+        if (words != null) {
+            for (int word = 0; word < words.length; word++) {
+                long bits = words[word];
+                while (bits != 0) {
+                    action.accept((word << 6) + Long.numberOfTrailingZeros(bits));
+                    bits &= bits - 1;
+                }
+            }
+            return;
+        }
+        for (int id : sortedIds) {
+            action.accept(id);
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    long estimatedBytes() {
+        if (this == EMPTY) {
+            return 0;
+        }
+        long payload = words != null ? (long) words.length * Long.BYTES : (long) sortedIds.length * Integer.BYTES;
+        return OBJECT_BYTES + align(ARRAY_HEADER_BYTES + payload);
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+}
@@ -0,0 +1,267 @@
+package com.nexusiam.application.service.authorization;
+
+import com.nexusiam.infrastructure.config.security.PermissionConfig;
+import com.nexusiam.infrastructure.messaging.AfterCommit;
+import com.nexusiam.infrastructure.messaging.ClusterBroadcaster;
+import com.nexusiam.infrastructure.util.JwtTokenUtil;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+@Slf4j
+@Component
+public class PermissionInvalidationBus implements ClusterBroadcaster.Listener {
+
+    private static final String TOPIC = "permission";
+
+    public enum Scope { USER, API_SOURCE, ALL }
+
+    private final PermissionCacheService cacheService;
+    private final ApiSourceIndex apiSourceIndex;
+    private final PermissionConfig permissionConfig;
+    private final ClusterBroadcaster broadcaster;
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicLong catalogVersion = new AtomicLong();
+    private final AtomicLong completeSince = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong catalogChangedAt = new AtomicLong();
+    private final Map<Long, Long> userVersions = new ConcurrentHashMap<>();
+    private final List<PermissionChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+    private final LongAdder gaps = new LongAdder();
+    private final LongAdder currentTokens = new LongAdder();
+    private final LongAdder staleTokens = new LongAdder();
+
+    public PermissionInvalidationBus(PermissionCacheService cacheService,
+                                     ApiSourceIndex apiSourceIndex,
+                                     PermissionConfig permissionConfig,
+                                     ClusterBroadcaster broadcaster,
+                                     MeterRegistry meterRegistry) {
+        this.cacheService = cacheService;
+        this.apiSourceIndex = apiSourceIndex;
+        this.permissionConfig = permissionConfig;
+        this.broadcaster = broadcaster;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void start() {
+        FunctionCounter.builder("iam.permission.invalidation.gaps", gaps, LongAdder::sum)
+                .description("Detected missed invalidations that forced a full local cache clear")
+                .register(meterRegistry);
+        FunctionCounter.builder("iam.permission.token.version.current", currentTokens, LongAdder::sum)
+                .description("Token permission snapshots confirmed current, denials answered without a lookup")
+                .register(meterRegistry);
+        FunctionCounter.builder("iam.permission.token.version.stale", staleTokens, LongAdder::sum)
+                .register(meterRegistry);
+
+        broadcaster.register(TOPIC, this);
+        if (broadcaster.isActive()) {
+            completeSince.set(broadcaster.nextVersion());
+        }
+    }
+
+    public void addListener(PermissionChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    public void publishUserChanged(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        AfterCommit.run(() -> {
+            long version = broadcaster.nextVersion();
+            cacheService.invalidateUser(userId);
+            userVersions.merge(userId, version, Math::max);
+            notifyListeners(Scope.USER, userId);
+            send(Scope.USER, userId, version);
+        });
+    }
+
+    public void publishUsersChanged(Collection<Long> userIds) {
+        userIds.forEach(this::publishUserChanged);
+    }
+
+    public void publishApiSourceChanged(Long apiSourceId) {
+        AfterCommit.run(() -> {
+            long version = broadcaster.nextVersion();
+            applyApiSourceChange(apiSourceId);
+            catalogChangedAt.accumulateAndGet(version, Math::max);
+            notifyListeners(Scope.API_SOURCE, apiSourceId);
+            send(Scope.API_SOURCE, apiSourceId, version);
+        });
+    }
+
+    public void publishAll() {
+        AfterCommit.run(() -> {
+            long version = broadcaster.nextVersion();
+            clearAll();
+            catalogChangedAt.accumulateAndGet(version, Math::max);
+            notifyListeners(Scope.ALL, null);
+            send(Scope.ALL, null, version);
+        });
+    }
+
+    public long getUserVersion(Long userId) {
+        return userId == null ? 0L : userVersions.getOrDefault(userId, 0L);
+    }
+
+    public long getCurrentVersion() {
+        return broadcaster.currentVersion();
+    }
+
+    public long getCatalogVersion() {
+        return catalogVersion.get();
+    }
+
+    public long issueVersion() {
+        return broadcaster.nextVersion();
+    }
+
+    public boolean isDistributed() {
+        return broadcaster.isActive();
+    }
+
+    public boolean isTokenVersionCurrent(Long userId, long permissionVersion, long permissionAsOf) {
+        long skew = permissionConfig.getTokenVersionSkewMs() * 1000;
+        long horizon = Math.max(completeSince.get(), catalogChangedAt.get());
+        boolean current = userId != null
+                && broadcaster.isActive()
+                && horizon != Long.MAX_VALUE
+                && permissionAsOf >= horizon + skew
+                && getUserVersion(userId) == permissionVersion;
+
+        if (current) {
+            currentTokens.increment();
+        } else {
+            staleTokens.increment();
+        }
+        return current;
+    }
+
+    // Once every token stamped before a user's last change has expired, the stamp no longer needs comparing:
+    // later tokens read 0 for that user and agree with getUserVersion again
+    @Scheduled(fixedDelayString = "${app.permission.cache-purge-interval-ms:60000}")
+    public void purgeUserVersions() {
+        long retentionMs = JwtTokenUtil.ACCESS_TOKEN_VALIDITY_SECONDS * 1000 + permissionConfig.getTokenVersionSkewMs();
+        long cutoff = (System.currentTimeMillis() - retentionMs) * 1000;
+
+        int before = userVersions.size();
+        userVersions.values().removeIf(version -> version < cutoff);
+        int removed = before - userVersions.size();
+        if (removed > 0) {
+            log.debug("Purged {} user permission versions older than {} ms", removed, retentionMs);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>(broadcaster.getStats());
+        stats.put("gaps", gaps.sum());
+        stats.put("trackedUserVersions", userVersions.size());
+        stats.put("completeSince", completeSince.get() == Long.MAX_VALUE ? null : completeSince.get());
+        return stats;
+    }
+
+    @Override
+    public void onMessage(long version, String body) {
+        int separator = body.indexOf('|');
+        Scope scope;
+        Long id;
+        try {
+            scope = Scope.valueOf(separator < 0 ? body : body.substring(0, separator));
+            String value = separator < 0 ? "" : body.substring(separator + 1);
+            id = value.isEmpty() ? null : Long.valueOf(value);
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring malformed permission invalidation: {}", body);
+            return;
+        }
+
+        switch (scope) {
+            case USER -> {
+                cacheService.invalidateUser(id);
+                userVersions.merge(id, version, Math::max);
+                notifyListeners(Scope.USER, id);
+            }
+            case API_SOURCE -> {
+                applyApiSourceChange(id);
+                catalogChangedAt.accumulateAndGet(version, Math::max);
+                notifyListeners(Scope.API_SOURCE, id);
+            }
+            case ALL -> {
+                clearAll();
+                catalogChangedAt.accumulateAndGet(version, Math::max);
+                notifyListeners(Scope.ALL, null);
+            }
+        }
+    }
+
+    @Override
+    public void onResync() {
+        log.warn("Permission invalidations may have been missed, clearing local cache");
+        onMissedMessages();
+    }
+
+    private void onMissedMessages() {
+        gaps.increment();
+        clearAll();
+        completeSince.set(broadcaster.nextVersion());
+        notifyListeners(Scope.ALL, null);
+    }
+
+    private void notifyListeners(Scope scope, Long id) {
+        for (PermissionChangeListener listener : listeners) {
+            try {
+                switch (scope) {
+                    case USER -> listener.onUserChanged(id);
+                    case API_SOURCE -> {
+                        if (id != null) {
+                            listener.onApiSourceChanged(id);
+                        } else {
+                            listener.onAllChanged();
+                        }
+                    }
+                    case ALL -> listener.onAllChanged();
+                }
+            } catch (Exception e) {
+                log.error("Permission change listener failed on {} {}: {}", scope, id, e.getMessage());
+            }
+        }
+    }
+
+    private void clearAll() {
+        cacheService.clearCache();
+        catalogVersion.incrementAndGet();
+    }
+
+    private void applyApiSourceChange(Long apiSourceId) {
+        if (apiSourceId == null) {
+            clearAll();
+            return;
+        }
+
+        try {
+            cacheService.applyApiSourceChange(apiSourceId, apiSourceIndex.refresh());
+            catalogVersion.incrementAndGet();
+        } catch (Exception e) {
+            log.warn("Failed to re-base cached permissions after change to API source {}, clearing cache: {}",
+                    apiSourceId, e.getMessage());
+            clearAll();
+        }
+    }
+
+    private void send(Scope scope, Long id, long version) {
+        broadcaster.publish(TOPIC, version, scope.name() + "|" + (id != null ? id : ""));
+    }
+}
@@ -0,0 +1,91 @@
+package com.nexusiam.application.service.authorization;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+public final class PolicySnapshotCodec {
+
+    public static final int MAGIC = 0x49414D50;
+    public static final int FORMAT_VERSION = 2;
+    public static final int KIND_FULL = 0;
+    public static final int KIND_DELTA = 1;
+
+    private PolicySnapshotCodec() {
+    }
+
+    public static byte[] encode(int kind, long version, long baseVersion,
+                                Map<Long, Source> sources, Collection<Long> removedSources,
+                                Map<Long, long[]> grants) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(bytes))) {
+            out.writeInt(MAGIC);
+            out.writeByte(FORMAT_VERSION);
+            out.writeByte(kind);
+            out.writeLong(version);
+            out.writeLong(baseVersion);
+
+            out.writeInt(sources.size());
+            for (Map.Entry<Long, Source> entry : sources.entrySet()) {
+                Source source = entry.getValue();
+                out.writeLong(entry.getKey());
+                out.writeUTF(source.getApiMethod());
+                out.writeUTF(source.getApiPath());
+                out.writeUTF(source.getModule() != null ? source.getModule() : "");
+            }
+
+            out.writeInt(removedSources.size());
+            for (Long id : removedSources) {
+                out.writeLong(id);
+            }
+
+            out.writeInt(grants.size());
+            for (Map.Entry<Long, long[]> entry : grants.entrySet()) {
+                long[] ids = entry.getValue();
+                out.writeLong(entry.getKey());
+                writeVarLong(out, ids.length);
+                long previous = 0;
+                for (long id : ids) {
+                    writeVarLong(out, id - previous);
+                    previous = id;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to encode policy snapshot", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    public static class Source {
+        private final String apiMethod;
+        private final String apiPath;
+        private final String module;
+
+        public Source(String apiMethod, String apiPath, String module) {
+            this.apiMethod = apiMethod;
+            this.apiPath = apiPath;
+            this.module = module;
+        }
+
+        public String getApiMethod() { return apiMethod; }
+        public String getApiPath() { return apiPath; }
+        public String getModule() { return module; }
+
+        boolean sameAs(String method, String path, String otherModule) {
+            return apiMethod.equals(method) && apiPath.equals(path)
+                    && (module == null ? otherModule == null : module.equals(otherModule));
+        }
+    }
+}
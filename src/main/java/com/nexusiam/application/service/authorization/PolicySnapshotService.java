@@ -0,0 +1,445 @@
+package com.nexusiam.application.service.authorization;
+
+import com.nexusiam.core.domain.entity.ApiSource;
+import com.nexusiam.core.domain.repository.ApiSourceRepository;
+import com.nexusiam.core.domain.repository.UserApiMappingRepository;
+import com.nexusiam.core.domain.repository.UserApiPermissionView;
+import com.nexusiam.infrastructure.config.security.PermissionConfig;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PolicySnapshotService implements PermissionChangeListener {
+
+    private static final String METRIC_PREFIX = "iam.permission.snapshot";
+
+    private final UserApiMappingRepository mappingRepository;
+    private final ApiSourceRepository apiSourceRepository;
+    private final UserPermissionLoader permissionLoader;
+    private final PermissionInvalidationBus invalidationBus;
+    private final PermissionConfig permissionConfig;
+    private final MeterRegistry meterRegistry;
+
+    private final Set<Long> pendingUsers = ConcurrentHashMap.newKeySet();
+    private final Set<Long> pendingSources = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean pendingRebuild = new AtomicBoolean(true);
+    private final Object refreshLock = new Object();
+    private volatile boolean built;
+
+    private final Map<Long, PolicySnapshotCodec.Source> sources = new HashMap<>();
+    private final Map<Long, long[]> grants = new HashMap<>();
+    private final Deque<ChangeRecord> history = new ArrayDeque<>();
+    private long historyBase;
+    private long digest;
+    private volatile long version;
+    private volatile int userCount;
+    private byte[] fullSnapshot;
+
+    private final LongAdder fullExports = new LongAdder();
+    private final LongAdder deltaExports = new LongAdder();
+    private final LongAdder rebuilds = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        invalidationBus.addListener(this);
+
+        Gauge.builder(METRIC_PREFIX + ".version", this, PolicySnapshotService::currentVersion)
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".users", this, PolicySnapshotService::currentUserCount)
+                .register(meterRegistry);
+        FunctionCounter.builder(METRIC_PREFIX + ".exports.full", fullExports, LongAdder::sum)
+                .register(meterRegistry);
+        FunctionCounter.builder(METRIC_PREFIX + ".exports.delta", deltaExports, LongAdder::sum)
+                .register(meterRegistry);
+        FunctionCounter.builder(METRIC_PREFIX + ".rebuilds", rebuilds, LongAdder::sum)
+                .description("Full rebuilds of the policy snapshot from the database")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void onUserChanged(Long userId) {
+        if (userId != null) {
+            pendingUsers.add(userId);
+        }
+    }
+
+    @Override
+    public void onApiSourceChanged(Long apiSourceId) {
+        if (apiSourceId != null) {
+            pendingSources.add(apiSourceId);
+        }
+    }
+
+    @Override
+    public void onAllChanged() {
+        pendingRebuild.set(true);
+    }
+
+    public String getCurrentTag() {
+        ensureBuilt();
+        synchronized (this) {
+            return tag(digest);
+        }
+    }
+
+    public Export export(String sinceTag) {
+        ensureBuilt();
+        synchronized (this) {
+            Long since = parseTag(sinceTag);
+            if (since != null && since == digest) {
+                return new Export(tag(digest), null, null);
+            }
+
+            List<ChangeRecord> changes = changesSince(since);
+            if (changes != null) {
+                deltaExports.increment();
+                return new Export(tag(digest), tag(since), buildDelta(since, changes));
+            }
+
+            if (fullSnapshot == null) {
+                fullSnapshot = PolicySnapshotCodec.encode(PolicySnapshotCodec.KIND_FULL, digest, 0L,
+                        sources, List.of(), grants);
+                log.info("Encoded policy snapshot {} ({} API sources, {} users, {} bytes)",
+                        tag(digest), sources.size(), grants.size(), fullSnapshot.length);
+            }
+            fullExports.increment();
+            return new Export(tag(digest), null, fullSnapshot);
+        }
+    }
+
+    // Database work runs here, off the request path; exports keep serving the last published snapshot
+    @Scheduled(fixedDelayString = "${app.permission.snapshot-refresh-interval-ms:1000}")
+    public void refresh() {
+        synchronized (refreshLock) {
+            if (pendingRebuild.getAndSet(false)) {
+                pendingUsers.clear();
+                pendingSources.clear();
+                rebuild();
+            } else if (built) {
+                applyPending();
+            }
+        }
+    }
+
+    private void ensureBuilt() {
+        if (built) {
+            return;
+        }
+        // Nothing to serve yet, so the very first caller waits for the initial build
+        refresh();
+        if (!built) {
+            throw new IllegalStateException("Policy snapshot is not available yet");
+        }
+    }
+
+    private List<ChangeRecord> changesSince(Long since) {
+        if (since == null || history.isEmpty()) {
+            return null;
+        }
+
+        List<ChangeRecord> changes = new ArrayList<>();
+        boolean found = since == historyBase;
+        for (ChangeRecord record : history) {
+            if (found) {
+                changes.add(record);
+            } else if (record.digest == since) {
+                found = true;
+            }
+        }
+        return found && !changes.isEmpty() ? changes : null;
+    }
+
+    private byte[] buildDelta(long since, List<ChangeRecord> changes) {
+        Set<Long> changedUsers = new LinkedHashSet<>();
+        Set<Long> changedSources = new LinkedHashSet<>();
+        for (ChangeRecord record : changes) {
+            changedUsers.addAll(record.users);
+            changedSources.addAll(record.sources);
+        }
+
+        Map<Long, PolicySnapshotCodec.Source> upserted = new LinkedHashMap<>();
+        List<Long> removed = new ArrayList<>();
+        for (Long id : changedSources) {
+            PolicySnapshotCodec.Source source = sources.get(id);
+            if (source != null) {
+                upserted.put(id, source);
+            } else {
+                removed.add(id);
+            }
+        }
+
+        Map<Long, long[]> userGrants = new LinkedHashMap<>();
+        for (Long userId : changedUsers) {
+            userGrants.put(userId, grants.getOrDefault(userId, new long[0]));
+        }
+
+        return PolicySnapshotCodec.encode(PolicySnapshotCodec.KIND_DELTA, digest, since,
+                upserted, removed, userGrants);
+    }
+
+    private void applyPending() {
+        Set<Long> sourceIds = drain(pendingSources);
+        Set<Long> userIds = drain(pendingUsers);
+        if (sourceIds.isEmpty() && userIds.isEmpty()) {
+            return;
+        }
+
+        try {
+            List<ApiSource> changedRows = sourceIds.isEmpty() ? List.of() : apiSourceRepository.findAllById(sourceIds);
+            if (!sourceIds.isEmpty()) {
+                // Only this thread writes grants, so the holders can be read without the export lock
+                long[] changed = sourceIds.stream().mapToLong(Long::longValue).sorted().toArray();
+                grants.forEach((userId, ids) -> {
+                    for (long id : changed) {
+                        if (Arrays.binarySearch(ids, id) >= 0) {
+                            userIds.add(userId);
+                            return;
+                        }
+                    }
+                });
+            }
+            Map<Long, UserPermissionLoader.UserPermissions> loaded = permissionLoader.loadAll(userIds);
+
+            synchronized (this) {
+                Set<Long> changedSources = new LinkedHashSet<>(sourceIds);
+                Set<Long> missing = new LinkedHashSet<>(sourceIds);
+                for (ApiSource source : changedRows) {
+                    missing.remove(source.getId());
+                    putSource(source.getId(), new PolicySnapshotCodec.Source(
+                            source.getApiMethod(), source.getApiPath(), source.getModule()));
+                }
+                missing.forEach(this::removeSource);
+
+                loaded.forEach((userId, permissions) -> {
+                    long[] ids = register(permissions.getEntries(), changedSources);
+                    if (ids.length == 0) {
+                        removeGrants(userId);
+                    } else {
+                        putGrants(userId, ids);
+                    }
+                });
+
+                version++;
+                userCount = grants.size();
+                fullSnapshot = null;
+                history.addLast(new ChangeRecord(digest, userIds, changedSources));
+                while (history.size() > Math.max(1, permissionConfig.getSnapshotHistorySize())) {
+                    historyBase = history.removeFirst().digest;
+                }
+                log.debug("Policy snapshot advanced to {} ({} users, {} API sources changed)",
+                        tag(digest), userIds.size(), changedSources.size());
+            }
+        } catch (Exception e) {
+            log.error("Failed to apply incremental policy changes, scheduling full rebuild: {}", e.getMessage());
+            pendingRebuild.set(true);
+        }
+    }
+
+    private void rebuild() {
+        try {
+            Map<Long, PolicySnapshotCodec.Source> freshSources = new HashMap<>();
+            for (ApiSource source : apiSourceRepository.findAll()) {
+                freshSources.put(source.getId(), new PolicySnapshotCodec.Source(
+                        source.getApiMethod(), source.getApiPath(), source.getModule()));
+            }
+
+            Map<Long, List<Long>> rowsByUser = new HashMap<>();
+            for (UserApiPermissionView row : mappingRepository.findAllEffectivePermissions()) {
+                rowsByUser.computeIfAbsent(row.getUserId(), k -> new ArrayList<>()).add(row.getApiSourceId());
+            }
+
+            synchronized (this) {
+                sources.clear();
+                grants.clear();
+                digest = 0L;
+                freshSources.forEach(this::putSource);
+                rowsByUser.forEach((userId, ids) -> putGrants(userId, toSortedIds(ids)));
+
+                version++;
+                userCount = grants.size();
+                fullSnapshot = null;
+                history.clear();
+                historyBase = digest;
+                built = true;
+                log.info("Rebuilt policy snapshot {} ({} API sources, {} users)", tag(digest), sources.size(), grants.size());
+            }
+            rebuilds.increment();
+        } catch (Exception e) {
+            log.error("Failed to build policy snapshot, serving the previous one: {}", e.getMessage());
+            pendingRebuild.set(true);
+        }
+    }
+
+    private long[] register(List<UserApiPermissionView> rows, Set<Long> changedSources) {
+        List<Long> ids = new ArrayList<>(rows.size());
+        for (UserApiPermissionView row : rows) {
+            Long id = row.getApiSourceId();
+            PolicySnapshotCodec.Source known = sources.get(id);
+            if (known == null || !known.sameAs(row.getApiMethod(), row.getApiPath(), row.getModule())) {
+                putSource(id, new PolicySnapshotCodec.Source(row.getApiMethod(), row.getApiPath(), row.getModule()));
+                changedSources.add(id);
+            }
+            ids.add(id);
+        }
+        return toSortedIds(ids);
+    }
+
+    private void putSource(Long id, PolicySnapshotCodec.Source source) {
+        PolicySnapshotCodec.Source previous = sources.put(id, source);
+        if (previous != null) {
+            digest ^= hash(id, previous);
+        }
+        digest ^= hash(id, source);
+    }
+
+    private void removeSource(Long id) {
+        PolicySnapshotCodec.Source previous = sources.remove(id);
+        if (previous != null) {
+            digest ^= hash(id, previous);
+        }
+    }
+
+    private void putGrants(Long userId, long[] ids) {
+        long[] previous = grants.put(userId, ids);
+        if (previous != null) {
+            digest ^= hash(userId, previous);
+        }
+        digest ^= hash(userId, ids);
+    }
+
+    private void removeGrants(Long userId) {
+        long[] previous = grants.remove(userId);
+        if (previous != null) {
+            digest ^= hash(userId, previous);
+        }
+    }
+
+    private static long hash(Long id, PolicySnapshotCodec.Source source) {
+        long h = mix(id);
+        h = hash(h, source.getApiMethod());
+        h = hash(h, source.getApiPath());
+        return mix(hash(h, source.getModule()));
+    }
+
+    private static long hash(Long userId, long[] ids) {
+        long h = mix(~userId);
+        for (long id : ids) {
+            h = mix(h ^ id);
+        }
+        return mix(h ^ ids.length);
+    }
+
+    private static long hash(long h, String value) {
+        if (value == null) {
+            return mix(h);
+        }
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h = (h ^ (b & 0xFF)) * 0x100000001B3L;
+        }
+        return mix(h ^ value.length());
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return z ^ (z >>> 33);
+    }
+
+    private static long[] toSortedIds(List<Long> ids) {
+        return ids.stream().mapToLong(Long::longValue).sorted().distinct().toArray();
+    }
+
+    private static Set<Long> drain(Set<Long> pending) {
+        Set<Long> drained = new LinkedHashSet<>();
+        for (Long id : pending) {
+            if (pending.remove(id)) {
+                drained.add(id);
+            }
+        }
+        return drained;
+    }
+
+    private static String tag(long snapshotDigest) {
+        return String.format("%016x", snapshotDigest);
+    }
+
+    private static Long parseTag(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        if (trimmed.startsWith("W/")) {
+            trimmed = trimmed.substring(2);
+        }
+        trimmed = trimmed.replace("\"", "");
+        if (trimmed.length() != 16) {
+            return null;
+        }
+        try {
+            return Long.parseUnsignedLong(trimmed, 16);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private double currentVersion() {
+        return version;
+    }
+
+    private double currentUserCount() {
+        return userCount;
+    }
+
+    private static final class ChangeRecord {
+        final long digest;
+        final Set<Long> users;
+        final Set<Long> sources;
+
+        ChangeRecord(long digest, Set<Long> users, Set<Long> sources) {
+            this.digest = digest;
+            this.users = users;
+            this.sources = sources;
+        }
+    }
+
+    public static class Export {
+        private final String tag;
+        private final String baseTag;
+        private final byte[] body;
+
+        Export(String tag, String baseTag, byte[] body) {
+            this.tag = tag;
+            this.baseTag = baseTag;
+            this.body = body;
+        }
+
+        public String getTag() { return tag; }
+        public String getBaseTag() { return baseTag; }
+        public byte[] getBody() { return body; }
+        public boolean isNotModified() { return body == null; }
+        public boolean isDelta() { return baseTag != null; }
+    }
+}
@@ -3,6 +3,7 @@ package com.nexusiam.application.service.authorization;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.nexusiam.application.service.mapper.UserGroupDataMapper;
 import com.nexusiam.application.service.session.SessionManagementService;
+import com.nexusiam.application.service.session.SessionStateCache;
 import com.nexusiam.application.service.token.CustomTokenService;
 import com.nexusiam.application.service.user.RegistrationService;
 import com.nexusiam.application.service.user.UserRoleMappingService;
@@ -37,6 +38,7 @@ public class RoleSwitchService {
     private final UserRoleMappingService userRoleMappingService;
     private final UserGroupDataMapper userGroupDataMapper;
     private final RegistrationService registrationService;
+    private final SessionStateCache sessionStateCache;
 
     @Transactional
     public RoleSwitchResponse switchRole(String currentAccessToken, String newRole) {
@@ -148,6 +150,7 @@ public class RoleSwitchService {
         session.setTokenStatus("ACTIVE");
         session.setLastActivityAt(Instant.now());
         sessionRepository.save(session);
+        sessionStateCache.sessionUpdated(session.getProfileId(), true, "ACTIVE");
 
         log.info("Session updated for role switch to '{}'. Session remains active.", newRole);
     }
@@ -0,0 +1,222 @@
+package com.nexusiam.application.service.authorization;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+final class TinyLfuPolicy<K> {
+
+    private static final double WINDOW_RATIO = 0.01;
+    private static final double PROTECTED_RATIO = 0.80;
+
+    private final int maximumSize;
+    private final int windowMaximum;
+    private final int protectedMaximum;
+
+    private final LinkedHashSet<K> window = new LinkedHashSet<>();
+    private final LinkedHashSet<K> probation = new LinkedHashSet<>();
+    private final LinkedHashSet<K> protectedSegment = new LinkedHashSet<>();
+    private final FrequencySketch sketch;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    TinyLfuPolicy(int maximumSize) {
+        this.maximumSize = Math.max(1, maximumSize);
+        this.windowMaximum = Math.max(1, (int) (this.maximumSize * WINDOW_RATIO));
+        this.protectedMaximum = Math.max(1, (int) ((this.maximumSize - windowMaximum) * PROTECTED_RATIO));
+        this.sketch = new FrequencySketch(this.maximumSize);
+    }
+
+    int getMaximumSize() {
+        return maximumSize;
+    }
+
+    void recordAccess(K key) {
+        if (!lock.tryLock()) {
+            return;
+        }
+        try {
+            sketch.increment(key);
+            onHit(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    List<K> recordInsert(K key) {
+        lock.lock();
+        try {
+            sketch.increment(key);
+            if (window.contains(key) || probation.contains(key) || protectedSegment.contains(key)) {
+                onHit(key);
+                return List.of();
+            }
+
+            window.add(key);
+            List<K> evicted = new ArrayList<>(1);
+            while (window.size() > windowMaximum) {
+                K candidate = pollFirst(window);
+                probation.add(candidate);
+                if (size() > maximumSize) {
+                    evicted.add(evictOne(candidate));
+                }
+            }
+            while (size() > maximumSize) {
+                evicted.add(evictOne(null));
+            }
+            return evicted;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void remove(K key) {
+        lock.lock();
+        try {
+            if (!window.remove(key) && !probation.remove(key)) {
+                protectedSegment.remove(key);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void clear() {
+        lock.lock();
+        try {
+            window.clear();
+            probation.clear();
+            protectedSegment.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int frequency(K key) {
+        lock.lock();
+        try {
+            return sketch.frequency(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int size() {
+        return window.size() + probation.size() + protectedSegment.size();
+    }
+
+    private void onHit(K key) {
+        if (window.remove(key)) {
+            window.add(key);
+        } else if (probation.remove(key)) {
+            protectedSegment.add(key);
+            if (protectedSegment.size() > protectedMaximum) {
+                probation.add(pollFirst(protectedSegment));
+            }
+        } else if (protectedSegment.remove(key)) {
+            protectedSegment.add(key);
+        }
+    }
+
+    private K evictOne(K candidate) {
+        K victim = firstOf(probation);
+        if (victim == null || victim.equals(candidate)) {
+            victim = firstOf(protectedSegment);
+        }
+        if (victim == null) {
+            victim = firstOf(window);
+        }
+
+        K evicted = victim;
+        if (candidate != null && !candidate.equals(victim)
+                && sketch.frequency(candidate) <= sketch.frequency(victim)) {
+            evicted = candidate;
+        }
+
+        if (!probation.remove(evicted) && !protectedSegment.remove(evicted)) {
+            window.remove(evicted);
+        }
+        return evicted;
+    }
+
+    private static <K> K firstOf(LinkedHashSet<K> segment) {
+        Iterator<K> iterator = segment.iterator();
+        return iterator.hasNext() ? iterator.next() : null;
+    }
+
+    private static <K> K pollFirst(LinkedHashSet<K> segment) {
+        Iterator<K> iterator = segment.iterator();
+        K first = iterator.next();
+        iterator.remove();
+        return first;
+    }
+
+    static final class FrequencySketch {
+        private static final long[] SEEDS = {
+                0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+        };
+        private static final long RESET_MASK = 0x7777777777777777L;
+
+        private final long[] table;
+        private final int tableMask;
+        private final int sampleSize;
+        private int additions;
+
+        FrequencySketch(int maximumSize) {
+            int capacity = Integer.highestOneBit(Math.max(2, maximumSize) - 1) << 1;
+            this.table = new long[capacity];
+            this.tableMask = capacity - 1;
+            this.sampleSize = 10 * Math.max(1, maximumSize);
+        }
+
+        int frequency(Object key) {
+            int hash = spread(key.hashCode());
+            int frequency = Integer.MAX_VALUE;
+            for (int i = 0; i < SEEDS.length; i++) {
+                frequency = Math.min(frequency, (int) ((table[indexOf(hash, i)] >>> offsetOf(hash, i)) & 0xfL));
+            }
+            return frequency;
+        }
+
+        void increment(Object key) {
+            int hash = spread(key.hashCode());
+            boolean added = false;
+            for (int i = 0; i < SEEDS.length; i++) {
+                int index = indexOf(hash, i);
+                int offset = offsetOf(hash, i);
+                if (((table[index] >>> offset) & 0xfL) != 0xfL) {
+                    table[index] += 1L << offset;
+                    added = true;
+                }
+            }
+
+            if (added && ++additions >= sampleSize) {
+                reset();
+            }
+        }
+
+        private void reset() {
+            for (int i = 0; i < table.length; i++) {
+                table[i] = (table[i] >>> 1) & RESET_MASK;
+            }
+            additions >>>= 1;
+        }
+
+        private int indexOf(int hash, int depth) {
+            long h = (hash + SEEDS[depth]) * SEEDS[depth];
+            h += h >>> 32;
+            return (int) h & tableMask;
+        }
+
+        private int offsetOf(int hash, int depth) {
+            return (((hash >>> (depth << 3)) & 3) << 2) + (depth << 4);
+        }
+
+        private static int spread(int x) {
+            x = ((x >>> 16) ^ x) * 0x45d9f3b;
+            x = ((x >>> 16) ^ x) * 0x45d9f3b;
+            return (x >>> 16) ^ x;
+        }
+    }
+}
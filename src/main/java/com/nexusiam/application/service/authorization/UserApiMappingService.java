@@ -1,8 +1,10 @@
 package com.nexusiam.application.service.authorization;
 
+import com.nexusiam.application.dto.request.BulkPermissionCheckRequest;
 import com.nexusiam.application.dto.request.BulkUserApiMappingRequest;
 import com.nexusiam.application.dto.request.PermissionCheckRequest;
 import com.nexusiam.application.dto.request.UserApiMappingRequest;
+import com.nexusiam.application.dto.response.BulkPermissionCheckResponse;
 import com.nexusiam.application.dto.response.PermissionCheckResponse;
 import com.nexusiam.application.dto.response.UserAccessibleApisResponse;
 import com.nexusiam.application.dto.response.UserApiMappingResponse;
@@ -18,8 +20,12 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -30,7 +36,8 @@ public class UserApiMappingService {
     private final UserApiMappingRepository mappingRepository;
     private final InternalUserRepository userRepository;
     private final ApiSourceRepository apiSourceRepository;
-    private final PermissionCacheService cacheService;
+    private final PermissionInvalidationBus invalidationBus;
+    private final PermissionCacheService permissionCacheService;
 
     @Transactional
     public UserApiMappingResponse createMapping(UserApiMappingRequest request) {
@@ -65,7 +72,7 @@ public class UserApiMappingService {
         UserApiMapping saved = mappingRepository.save(mapping);
         log.info("Created mapping with ID {} for user {}", saved.getId(), saved.getUserId());
 
-        cacheService.invalidateUser(saved.getUserId());
+        invalidationBus.publishUserChanged(saved.getUserId());
 
         return mapToResponse(saved, user, apiSource);
     }
@@ -117,7 +124,7 @@ public class UserApiMappingService {
                 responses.size(), request.getApiSourceIds().size(), request.getUserId());
 
         if (!responses.isEmpty()) {
-            cacheService.invalidateUser(request.getUserId());
+            invalidationBus.publishUserChanged(request.getUserId());
         }
 
         return responses;
@@ -221,7 +228,7 @@ public class UserApiMappingService {
         UserApiMapping updated = mappingRepository.save(mapping);
         log.info("Updated mapping with ID {}", updated.getId());
 
-        cacheService.invalidateUser(updated.getUserId());
+        invalidationBus.publishUserChanged(updated.getUserId());
 
         InternalUser user = userRepository.findById(Objects.requireNonNull(mapping.getUserId())).orElse(null);
         ApiSource apiSource = apiSourceRepository.findById(Objects.requireNonNull(mapping.getApiSourceId())).orElse(null);
@@ -238,7 +245,7 @@ public class UserApiMappingService {
         mapping.setIsActive(isActive);
         UserApiMapping updated = mappingRepository.save(mapping);
 
-        cacheService.invalidateUser(updated.getUserId());
+        invalidationBus.publishUserChanged(updated.getUserId());
 
         InternalUser user = userRepository.findById(Objects.requireNonNull(mapping.getUserId())).orElse(null);
         ApiSource apiSource = apiSourceRepository.findById(Objects.requireNonNull(mapping.getApiSourceId())).orElse(null);
@@ -256,7 +263,7 @@ public class UserApiMappingService {
         mappingRepository.deleteById(mappingId);
         log.info("Deleted mapping with ID {}", mappingId);
 
-        cacheService.invalidateUser(userId);
+        invalidationBus.publishUserChanged(userId);
     }
 
     @Transactional
@@ -266,7 +273,7 @@ public class UserApiMappingService {
         mappingRepository.deleteByUserId(userId);
         log.info("Deleted all mappings for user {}", userId);
 
-        cacheService.invalidateUser(userId);
+        invalidationBus.publishUserChanged(userId);
     }
 
     @Transactional(readOnly = true)
@@ -283,11 +290,7 @@ public class UserApiMappingService {
             );
         }
 
-        boolean hasPermission = mappingRepository.hasPermission(
-                request.getUserId(),
-                request.getApiPath(),
-                request.getHttpMethod().toUpperCase()
-        );
+        boolean hasPermission = hasPermission(request.getUserId(), request.getApiPath(), request.getHttpMethod());
 
         if (hasPermission) {
             return PermissionCheckResponse.allowed(
@@ -305,9 +308,50 @@ public class UserApiMappingService {
         }
     }
 
-    @Transactional(readOnly = true)
+    public BulkPermissionCheckResponse checkPermissions(BulkPermissionCheckRequest request) {
+        Set<Long> userIds = request.distinctUserIds();
+        if (userIds.isEmpty()) {
+            throw new RuntimeException("At least one user ID must be specified");
+        }
+        if (userIds.size() > BulkPermissionCheckRequest.MAX_USERS) {
+            throw new RuntimeException("At most " + BulkPermissionCheckRequest.MAX_USERS + " users can be checked at once");
+        }
+
+        List<PermissionCacheService.Action> actions = request.getActions().stream()
+                .map(action -> toAction(action.getHttpMethod(), action.getApiPath()))
+                .collect(Collectors.toList());
+
+        log.debug("Bulk permission check for {} users x {} actions", userIds.size(), actions.size());
+
+        Map<Long, BitSet> allowed = permissionCacheService.checkAll(userIds, actions);
+
+        Map<Long, String> decisions = new LinkedHashMap<>();
+        Map<Long, Integer> allowedCounts = new LinkedHashMap<>();
+        allowed.forEach((userId, bits) -> {
+            StringBuilder vector = new StringBuilder(actions.size());
+            for (int i = 0; i < actions.size(); i++) {
+                vector.append(bits.get(i) ? '1' : '0');
+            }
+            decisions.put(userId, vector.toString());
+            allowedCounts.put(userId, bits.cardinality());
+        });
+
+        return BulkPermissionCheckResponse.builder()
+                .totalActions(actions.size())
+                .decisions(decisions)
+                .allowedCounts(allowedCounts)
+                .build();
+    }
+
+    // Single and bulk checks share the cached evaluation so they can never disagree
     public boolean hasPermission(Long userId, String apiPath, String httpMethod) {
-        return mappingRepository.hasPermission(userId, apiPath, httpMethod.toUpperCase());
+        BitSet allowed = permissionCacheService.checkAll(List.of(userId), List.of(toAction(httpMethod, apiPath)))
+                .get(userId);
+        return allowed != null && allowed.get(0);
+    }
+
+    private static PermissionCacheService.Action toAction(String httpMethod, String apiPath) {
+        return new PermissionCacheService.Action(httpMethod.toUpperCase(), AuthorizationDecisionMemo.normalizePath(apiPath));
     }
 
     private UserApiMappingResponse mapToResponse(UserApiMapping mapping, InternalUser user, ApiSource apiSource) {
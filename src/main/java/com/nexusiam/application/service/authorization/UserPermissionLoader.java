@@ -0,0 +1,123 @@
+package com.nexusiam.application.service.authorization;
+
+import com.nexusiam.core.domain.repository.UserApiMappingRepository;
+import com.nexusiam.core.domain.repository.UserApiPermissionView;
+import com.nexusiam.infrastructure.config.security.PermissionConfig;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserPermissionLoader {
+
+    private final UserApiMappingRepository mappingRepository;
+    private final PermissionConfig permissionConfig;
+
+    @Transactional(readOnly = true)
+    public UserPermissions load(Long userId) {
+        if (userId == null) {
+            return UserPermissions.empty(null);
+        }
+
+        List<UserApiPermissionView> rows = mappingRepository.findEffectivePermissions(userId);
+        log.debug("Loaded {} effective permissions for user {}", rows.size(), userId);
+        return UserPermissions.of(userId, rows);
+    }
+
+    @Transactional(readOnly = true)
+    public Map<Long, UserPermissions> loadAll(Collection<Long> userIds) {
+        if (userIds == null || userIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(userIds));
+        distinctIds.remove(null);
+        int batchSize = Math.max(1, permissionConfig.getLoaderBatchSize());
+
+        Map<Long, List<UserApiPermissionView>> rowsByUser = new HashMap<>();
+        for (int from = 0; from < distinctIds.size(); from += batchSize) {
+            List<Long> batch = distinctIds.subList(from, Math.min(from + batchSize, distinctIds.size()));
+            for (UserApiPermissionView row : mappingRepository.findEffectivePermissionsForUsers(batch)) {
+                rowsByUser.computeIfAbsent(row.getUserId(), k -> new ArrayList<>()).add(row);
+            }
+        }
+
+        Map<Long, UserPermissions> result = new LinkedHashMap<>();
+        for (Long userId : distinctIds) {
+            result.put(userId, UserPermissions.of(userId, rowsByUser.getOrDefault(userId, List.of())));
+        }
+
+        log.debug("Loaded effective permissions for {} users in {} batches",
+                distinctIds.size(), (distinctIds.size() + batchSize - 1) / batchSize);
+        return result;
+    }
+
+    public static final class UserPermissions {
+        private final Long userId;
+        private final List<UserApiPermissionView> entries;
+
+        private UserPermissions(Long userId, List<UserApiPermissionView> entries) {
+            this.userId = userId;
+            this.entries = entries;
+        }
+
+        static UserPermissions of(Long userId, List<UserApiPermissionView> rows) {
+            return new UserPermissions(userId, List.copyOf(rows));
+        }
+
+        static UserPermissions empty(Long userId) {
+            return new UserPermissions(userId, List.of());
+        }
+
+        public Long getUserId() {
+            return userId;
+        }
+
+        public List<UserApiPermissionView> getEntries() {
+            return entries;
+        }
+
+        public boolean isEmpty() {
+            return entries.isEmpty();
+        }
+
+        public List<Long> getApiSourceIds() {
+            Set<Long> ids = new LinkedHashSet<>();
+            for (UserApiPermissionView entry : entries) {
+                ids.add(entry.getApiSourceId());
+            }
+            return new ArrayList<>(ids);
+        }
+
+        public List<String> getCompactPermissions() {
+            List<String> compact = new ArrayList<>(entries.size());
+            for (UserApiPermissionView entry : entries) {
+                compact.add(entry.getApiMethod().toUpperCase() + ":" + entry.getApiPath());
+            }
+            return compact;
+        }
+
+        public List<String> getApiPaths() {
+            Set<String> paths = new LinkedHashSet<>();
+            for (UserApiPermissionView entry : entries) {
+                paths.add(entry.getApiPath());
+            }
+            return new ArrayList<>(paths);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.nexusiam.application.service.session;
 import com.nexusiam.shared.constants.SSOConstants;
 import com.nexusiam.core.domain.entity.SSOUserSession;
 import com.nexusiam.core.domain.repository.SSOUserSessionRepository;
+import com.nexusiam.infrastructure.redis.RedisAvailability;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.redis.core.RedisTemplate;
@@ -25,9 +26,11 @@ public class PKCEService {
     private RedisTemplate<String, String> redisTemplate;
 
     private final SSOUserSessionRepository sessionRepo;
+    private final RedisAvailability redisAvailability;
 
-    public PKCEService(SSOUserSessionRepository sessionRepo) {
+    public PKCEService(SSOUserSessionRepository sessionRepo, RedisAvailability redisAvailability) {
         this.sessionRepo = sessionRepo;
+        this.redisAvailability = redisAvailability;
     }
 
     public String generateCodeVerifier() {
@@ -81,9 +84,11 @@ public class PKCEService {
                 SSOConstants.PKCE_EXPIRY_SECONDS,
                 TimeUnit.SECONDS
             );
+            redisAvailability.recordSuccess();
             log.debug("✓ PKCE verifier stored in Redis for state: {}", state);
             return true;
         } catch (Exception e) {
+            redisAvailability.recordFailure(e);
             log.warn("Failed to store PKCE in Redis: {}", e.getMessage());
             return false;
         }
@@ -167,8 +172,11 @@ public class PKCEService {
 
         try {
             String key = SSOConstants.PKCE_PREFIX + state;
-            return redisTemplate.opsForValue().get(key);
+            String codeVerifier = redisTemplate.opsForValue().get(key);
+            redisAvailability.recordSuccess();
+            return codeVerifier;
         } catch (Exception e) {
+            redisAvailability.recordFailure(e);
             log.warn("Failed to retrieve PKCE from Redis: {}", e.getMessage());
             return null;
         }
@@ -218,11 +226,13 @@ public class PKCEService {
         try {
             String key = SSOConstants.PKCE_PREFIX + state;
             Boolean deleted = redisTemplate.delete(key);
+            redisAvailability.recordSuccess();
 
             if (Boolean.TRUE.equals(deleted)) {
                 log.debug("✓ Deleted PKCE verifier from Redis for state: {}", state);
             }
         } catch (Exception e) {
+            redisAvailability.recordFailure(e);
             log.warn("Failed to delete PKCE from Redis: {}", e.getMessage());
         }
     }
@@ -246,16 +256,10 @@ public class PKCEService {
     }
 
     private boolean isRedisAvailable() {
-        if (redisTemplate == null) {
-            log.debug("RedisTemplate is null - Redis is disabled");
-            return false;
-        }
-        try {
-            redisTemplate.hasKey(SSOConstants.HEALTH_CHECK_KEY);
+        if (redisAvailability.isAvailable()) {
             return true;
-        } catch (Exception e) {
-            log.debug("Redis health check failed: {}", e.getMessage());
-            return false;
         }
+        redisAvailability.recordFallback("pkce");
+        return false;
     }
 }
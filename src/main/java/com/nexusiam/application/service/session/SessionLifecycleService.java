@@ -16,6 +16,7 @@ import java.util.List;
 public class SessionLifecycleService {
 
     private final SSOUserSessionRepository sessionRepo;
+    private final SessionStateCache sessionStateCache;
 
     public void handleConcurrentSessions(String profileId) {
         List<SSOUserSession> existingSessions = sessionRepo.findAllByProfileId(profileId);
@@ -50,6 +51,7 @@ public class SessionLifecycleService {
             SSOUserSession oldSession = sessions.get(i);
             oldSession.setIsActive(false);
             sessionRepo.save(oldSession);
+            sessionStateCache.sessionChanged(oldSession.getProfileId());
             log.debug("Deactivated old session for profileId: {}", oldSession.getProfileId());
         }
     }
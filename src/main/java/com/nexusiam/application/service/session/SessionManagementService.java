@@ -1,7 +1,10 @@
 package com.nexusiam.application.service.session;
 
 import com.nexusiam.application.service.token.CustomTokenService;
+import com.nexusiam.application.service.token.TokenRevocationService;
+import com.nexusiam.infrastructure.redis.RedisAvailability;
 import com.nexusiam.infrastructure.util.JwtTokenUtil;
+import com.nexusiam.infrastructure.util.ParsedInternalToken;
 import com.nexusiam.core.domain.entity.SSOUserSession;
 import com.nexusiam.core.domain.entity.InternalUser;
 import com.nexusiam.core.domain.repository.SSOUserSessionRepository;
@@ -29,21 +32,29 @@ public class SessionManagementService {
     private final RedisTemplate<String, String> redisTemplate;
     private final CustomTokenService customTokenService;
     private final JwtTokenUtil jwtTokenUtil;
+    private final RedisAvailability redisAvailability;
+    private final SessionStateCache sessionStateCache;
+    private final TokenRevocationService tokenRevocationService;
 
     private static final String DEVICE_TRACKING_PREFIX = "device:";
-    private static final String INVALIDATED_TOKEN_PREFIX = "invalidated:";
 
     public SessionManagementService(
             SSOUserSessionRepository ssoSessionRepo,
             InternalUserRepository userRepo,
             @Autowired(required = false) RedisTemplate<String, String> redisTemplate,
             CustomTokenService customTokenService,
-            JwtTokenUtil jwtTokenUtil) {
+            JwtTokenUtil jwtTokenUtil,
+            RedisAvailability redisAvailability,
+            SessionStateCache sessionStateCache,
+            TokenRevocationService tokenRevocationService) {
         this.ssoSessionRepo = ssoSessionRepo;
         this.userRepo = userRepo;
         this.redisTemplate = redisTemplate;
         this.customTokenService = customTokenService;
         this.jwtTokenUtil = jwtTokenUtil;
+        this.redisAvailability = redisAvailability;
+        this.sessionStateCache = sessionStateCache;
+        this.tokenRevocationService = tokenRevocationService;
 
         if (redisTemplate == null) {
             log.warn("Redis is not configured. Application will use database-only mode for session management.");
@@ -53,16 +64,11 @@ public class SessionManagementService {
     }
 
     private boolean isRedisAvailable() {
-        if (redisTemplate == null) {
-            return false;
-        }
-        try {
-            redisTemplate.hasKey("health:check");
+        if (redisAvailability.isAvailable()) {
             return true;
-        } catch (Exception e) {
-            log.warn("Redis is not available: {}", e.getMessage());
-            return false;
         }
+        redisAvailability.recordFallback("session");
+        return false;
     }
 
     private void setDeviceFingerprint(String key, String value, long timeout, TimeUnit unit,
@@ -76,9 +82,11 @@ public class SessionManagementService {
         if (isRedisAvailable()) {
             try {
                 redisTemplate.opsForValue().set(key, value, timeout, unit);
+                redisAvailability.recordSuccess();
                 redisSuccess = true;
                 log.debug("Device fingerprint stored in Redis: {}", key);
             } catch (Exception e) {
+                redisAvailability.recordFailure(e);
                 log.warn("Failed to store in Redis, using database fallback: {}", e.getMessage());
             }
         }
@@ -117,11 +125,13 @@ public class SessionManagementService {
         if (isRedisAvailable()) {
             try {
                 String value = redisTemplate.opsForValue().get(key);
+                redisAvailability.recordSuccess();
                 if (value != null) {
                     log.debug("Device fingerprint retrieved from Redis for: {}", identifier);
                     return value;
                 }
             } catch (Exception e) {
+                redisAvailability.recordFailure(e);
                 log.warn("Failed to read from Redis, using database fallback: {}", e.getMessage());
             }
         }
@@ -160,8 +170,10 @@ public class SessionManagementService {
         if (isRedisAvailable()) {
             try {
                 redisTemplate.delete(key);
+                redisAvailability.recordSuccess();
                 log.debug("Device fingerprint deleted from Redis for: {}", identifier);
             } catch (Exception e) {
+                redisAvailability.recordFailure(e);
                 log.warn("Failed to delete from Redis: {}", e.getMessage());
             }
         }
@@ -194,6 +206,7 @@ public class SessionManagementService {
         }
 
         invalidateExistingSSOSessions(profileId);
+        sessionStateCache.sessionChanged(profileId);
 
         String deviceKey = DEVICE_TRACKING_PREFIX + profileId;
         String combinedFingerprint = deviceFingerprint + ":" + browserFingerprint;
@@ -299,29 +312,12 @@ public class SessionManagementService {
             JWTClaimsSet claims = customTokenService.validateAndParseToken(accessToken);
             String profileId = claims.getSubject();
 
-            if (isTokenInvalidated(accessToken)) {
+            if (isTokenInvalidated(accessToken, claims.getJWTID())) {
                 log.warn("❌ Token has been explicitly blacklisted for profileId: {}", profileId);
                 return false;
             }
 
-            Optional<SSOUserSession> sessionOpt = ssoSessionRepo.findByProfileId(profileId);
-
-            if (sessionOpt.isEmpty()) {
-
-                return true;
-            }
-
-            SSOUserSession session = sessionOpt.get();
-
-            if (!Boolean.TRUE.equals(session.getIsActive())) {
-                return false;
-            }
-
-            if (!"ACTIVE".equals(session.getTokenStatus())) {
-                return false;
-            }
-
-            return true;
+            return sessionStateCache.isSessionValid(profileId);
 
         } catch (Exception e) {
             return false;
@@ -330,14 +326,15 @@ public class SessionManagementService {
 
     public boolean validateInternalSession(String accessToken) {
         try {
-            if (!jwtTokenUtil.isTokenValid(accessToken) || !jwtTokenUtil.isAccessToken(accessToken)) {
+            ParsedInternalToken parsedToken = jwtTokenUtil.resolve(accessToken);
+            if (parsedToken == null || !parsedToken.isValid() || !parsedToken.isAccessToken()) {
                 log.warn("Invalid or non-access token provided");
                 return false;
             }
 
-            String email = jwtTokenUtil.extractEmail(accessToken);
+            String email = parsedToken.getEmail();
 
-            if (isTokenInvalidated(accessToken)) {
+            if (isTokenInvalidated(accessToken, parsedToken.getClaims().getId())) {
                 log.warn("Token has been explicitly invalidated for email: {}", email);
                 return false;
             }
@@ -373,6 +370,7 @@ public class SessionManagementService {
                 session.setIsActive(false);
                 session.setTokenStatus("INVALIDATED");
                 ssoSessionRepo.save(session);
+                sessionStateCache.sessionUpdated(profileId, false, "INVALIDATED");
                 log.info("Session invalidated for profileId: {}", profileId);
             });
 
@@ -403,37 +401,15 @@ public class SessionManagementService {
     }
 
     private void invalidateToken(String token) {
-        String key = INVALIDATED_TOKEN_PREFIX + token;
-        boolean storedInRedis = false;
-
-        if (isRedisAvailable()) {
-            try {
-                redisTemplate.opsForValue().set(key, "true", 24, TimeUnit.HOURS);
-                storedInRedis = true;
-                log.debug("Token added to invalidation list in Redis");
-            } catch (Exception e) {
-                log.warn("Failed to store invalidated token in Redis: {}", e.getMessage());
-            }
-        }
-
-        if (!storedInRedis) {
-            log.warn("Token invalidation stored in memory only - may not persist across restarts");
+        if (tokenRevocationService.revoke(token)) {
+            log.debug("Token added to revocation list in Redis");
+        } else {
+            log.warn("Token revocation could not be stored in Redis - token stays usable until it expires");
         }
     }
 
-    private boolean isTokenInvalidated(String token) {
-        String key = INVALIDATED_TOKEN_PREFIX + token;
-
-        if (isRedisAvailable()) {
-            try {
-                Boolean exists = redisTemplate.hasKey(key);
-                return Boolean.TRUE.equals(exists);
-            } catch (Exception e) {
-                log.warn("Failed to check token invalidation in Redis: {}", e.getMessage());
-            }
-        }
-
-        return false;
+    private boolean isTokenInvalidated(String token, String jti) {
+        return tokenRevocationService.isRevoked(TokenRevocationService.revocationId(token, jti));
     }
 
     private static final String USER_TOKEN_PREFIX = "user_token:";
@@ -449,8 +425,10 @@ public class SessionManagementService {
         if (isRedisAvailable()) {
             try {
                 redisTemplate.opsForValue().set(key, token, 24, TimeUnit.HOURS);
+                redisAvailability.recordSuccess();
                 log.debug("Active token stored in Redis for user: {}", identifier);
             } catch (Exception e) {
+                redisAvailability.recordFailure(e);
                 log.warn("Failed to store active token in Redis: {}", e.getMessage());
             }
         }
@@ -461,8 +439,11 @@ public class SessionManagementService {
 
         if (isRedisAvailable()) {
             try {
-                return redisTemplate.opsForValue().get(key);
+                String token = redisTemplate.opsForValue().get(key);
+                redisAvailability.recordSuccess();
+                return token;
             } catch (Exception e) {
+                redisAvailability.recordFailure(e);
                 log.warn("Failed to get active token from Redis: {}", e.getMessage());
             }
         }
@@ -0,0 +1,201 @@
+package com.nexusiam.application.service.session;
+
+import com.nexusiam.core.domain.repository.SSOSessionStateView;
+import com.nexusiam.core.domain.repository.SSOUserSessionRepository;
+import com.nexusiam.infrastructure.config.security.SessionStateConfig;
+import com.nexusiam.infrastructure.messaging.AfterCommit;
+import com.nexusiam.infrastructure.messaging.ClusterBroadcaster;
+import com.nexusiam.shared.constants.SSOConstants;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+@Slf4j
+@Component
+public class SessionStateCache implements ClusterBroadcaster.Listener {
+
+    private static final String METRIC_PREFIX = "iam.session.state.cache";
+    private static final String TOPIC = "session";
+    private static final String KIND_STATE = "S";
+    private static final String KIND_CHANGED = "C";
+
+    private final SSOUserSessionRepository sessionRepository;
+    private final SessionStateConfig config;
+    private final ClusterBroadcaster broadcaster;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, SessionState> states = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder received = new LongAdder();
+
+    public SessionStateCache(SSOUserSessionRepository sessionRepository,
+                             SessionStateConfig config,
+                             ClusterBroadcaster broadcaster,
+                             MeterRegistry meterRegistry) {
+        this.sessionRepository = sessionRepository;
+        this.config = config;
+        this.broadcaster = broadcaster;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void start() {
+        Gauge.builder(METRIC_PREFIX + ".size", states, Map::size)
+                .description("Number of SSO session states held on this instance")
+                .register(meterRegistry);
+        FunctionCounter.builder(METRIC_PREFIX + ".hits", hits, LongAdder::sum).register(meterRegistry);
+        FunctionCounter.builder(METRIC_PREFIX + ".misses", misses, LongAdder::sum)
+                .description("Session validations that had to read the session state from the database")
+                .register(meterRegistry);
+        FunctionCounter.builder(METRIC_PREFIX + ".received", received, LongAdder::sum).register(meterRegistry);
+
+        broadcaster.register(TOPIC, this);
+        if (!broadcaster.isActive()) {
+            log.warn("Session state invalidation disabled, other instances rely on the {}s TTL",
+                    config.getCacheTtlSeconds());
+        }
+    }
+
+    public boolean isSessionValid(String profileId) {
+        long now = System.currentTimeMillis();
+        SessionState cached = states.get(profileId);
+        if (cached != null && cached.known && now < cached.expiresAtMillis) {
+            hits.increment();
+            return cached.isValid();
+        }
+
+        misses.increment();
+        Optional<SSOSessionStateView> view = sessionRepository.findStateByProfileId(profileId);
+        SessionState loaded = new SessionState(cached != null ? cached.version : 0L, true, view.isPresent(),
+                view.map(v -> Boolean.TRUE.equals(v.getIsActive())).orElse(false),
+                view.map(SSOSessionStateView::getTokenStatus).orElse(null),
+                now + config.getCacheTtlSeconds() * 1000L);
+
+        if (cached == null) {
+            if (states.size() >= config.getCacheMaxSize()) {
+                makeRoom(now);
+            }
+            states.putIfAbsent(profileId, loaded);
+        } else {
+            states.replace(profileId, cached, loaded);
+        }
+        return loaded.isValid();
+    }
+
+    public void sessionUpdated(String profileId, boolean active, String tokenStatus) {
+        if (profileId == null) {
+            return;
+        }
+        AfterCommit.run(() -> {
+            long version = broadcaster.nextVersion();
+            apply(profileId, new SessionState(version, true, true, active, tokenStatus, expiry()));
+            send(version, KIND_STATE, active, tokenStatus, profileId);
+        });
+    }
+
+    public void sessionChanged(String profileId) {
+        if (profileId == null) {
+            return;
+        }
+        AfterCommit.run(() -> {
+            long version = broadcaster.nextVersion();
+            apply(profileId, SessionState.changed(version, expiry()));
+            send(version, KIND_CHANGED, false, null, profileId);
+        });
+    }
+
+    public void clear() {
+        states.clear();
+    }
+
+    @Override
+    public void onMessage(long version, String body) {
+        String[] parts = body.split("\\|", 4);
+        if (parts.length != 4) {
+            log.warn("Ignoring malformed session state message: {}", body);
+            return;
+        }
+
+        received.increment();
+        String profileId = parts[3];
+        if (KIND_STATE.equals(parts[0])) {
+            apply(profileId, new SessionState(version, true, true, Boolean.parseBoolean(parts[1]),
+                    parts[2].isEmpty() ? null : parts[2], expiry()));
+        } else {
+            apply(profileId, SessionState.changed(version, expiry()));
+        }
+    }
+
+    @Override
+    public void onResync() {
+        log.warn("Session state changes may have been missed, clearing cached session states");
+        states.clear();
+    }
+
+    private void apply(String profileId, SessionState incoming) {
+        states.merge(profileId, incoming, (existing, update) -> existing.version > update.version ? existing : update);
+    }
+
+    private void makeRoom(long now) {
+        states.values().removeIf(state -> now >= state.expiresAtMillis);
+        if (states.size() < config.getCacheMaxSize()) {
+            return;
+        }
+
+        int toRemove = Math.max(1, config.getCacheMaxSize() / 10);
+        Iterator<String> iterator = states.keySet().iterator();
+        while (toRemove > 0 && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            toRemove--;
+        }
+        log.debug("Session state cache full, evicted entries to make room");
+    }
+
+    private void send(long version, String kind, boolean active, String tokenStatus, String profileId) {
+        broadcaster.publish(TOPIC, version, String.join("|", kind, Boolean.toString(active),
+                tokenStatus != null ? tokenStatus : "", profileId));
+    }
+
+    private long expiry() {
+        return System.currentTimeMillis() + config.getCacheTtlSeconds() * 1000L;
+    }
+
+    private static final class SessionState {
+        final long version;
+        final boolean known;
+        final boolean present;
+        final boolean active;
+        final String tokenStatus;
+        final long expiresAtMillis;
+
+        SessionState(long version, boolean known, boolean present, boolean active, String tokenStatus,
+                     long expiresAtMillis) {
+            this.version = version;
+            this.known = known;
+            this.present = present;
+            this.active = active;
+            this.tokenStatus = tokenStatus;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+
+        static SessionState changed(long version, long expiresAtMillis) {
+            return new SessionState(version, false, false, false, null, expiresAtMillis);
+        }
+
+        boolean isValid() {
+            return !present || (active && SSOConstants.TOKEN_STATUS_ACTIVE.equals(tokenStatus));
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.nexusiam.application.service.token;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.charset.StandardCharsets;
+
+public final class CountingBloomFilter {
+
+    private static final int SATURATED = 0xFF;
+    private static final VarHandle COUNTER = MethodHandles.arrayElementVarHandle(byte[].class);
+
+    private final byte[] counters;
+    private final int hashCount;
+    private int entries;
+
+    public CountingBloomFilter(int expectedEntries, double falsePositiveRate) {
+        int n = Math.max(1, expectedEntries);
+        double p = Math.min(0.5, Math.max(1e-9, falsePositiveRate));
+        long size = (long) Math.ceil(-n * Math.log(p) / (Math.log(2) * Math.log(2)));
+        this.counters = new byte[(int) Math.min(Integer.MAX_VALUE - 8, Math.max(64, size))];
+        this.hashCount = Math.max(1, (int) Math.round((double) counters.length / n * Math.log(2)));
+    }
+
+    public boolean mightContain(String id) {
+        long h1 = hash(id);
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            if ((byte) COUNTER.getAcquire(counters, index(h1, h2, i)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public synchronized void add(String id) {
+        long h1 = hash(id);
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            int index = index(h1, h2, i);
+            int count = counters[index] & 0xFF;
+            if (count < SATURATED) {
+                COUNTER.setRelease(counters, index, (byte) (count + 1));
+            }
+        }
+        entries++;
+    }
+
+    public synchronized void remove(String id) {
+        long h1 = hash(id);
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            int index = index(h1, h2, i);
+            int count = counters[index] & 0xFF;
+            if (count > 0 && count < SATURATED) {
+                COUNTER.setRelease(counters, index, (byte) (count - 1));
+            }
+        }
+        entries = Math.max(0, entries - 1);
+    }
+
+    public synchronized int size() {
+        return entries;
+    }
+
+    public int capacity() {
+        return counters.length;
+    }
+
+    public double expectedFalsePositiveRate() {
+        int n = size();
+        return Math.pow(1 - Math.exp(-(double) hashCount * n / counters.length), hashCount);
+    }
+
+    private int index(long h1, long h2, int i) {
+        return (int) Math.floorMod(h1 + i * h2, (long) counters.length);
+    }
+
+    private static long hash(String id) {
+        long h = 0xCBF29CE484222325L;
+        for (byte b : id.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xFF;
+            h *= 0x100000001B3L;
+        }
+        return mix(h);
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return z ^ (z >>> 33);
+    }
+}
@@ -1,5 +1,6 @@
 package com.nexusiam.application.service.token;
 
+import com.nexusiam.application.service.mapper.UserGroupDataMapper;
 import com.nexusiam.application.service.user.UserRoleMappingService;
 import com.nexusiam.infrastructure.config.oauth.ExchangeTokenConfig;
 import com.nexusiam.shared.constants.SSOConstants;
@@ -8,15 +9,12 @@ import com.nexusiam.core.domain.entity.UserType;
 import com.nexusiam.core.domain.repository.SSOUserGroupRepository;
 import com.nexusiam.core.domain.repository.UserTypeRepository;
 import com.nimbusds.jose.*;
-import com.nimbusds.jose.crypto.RSASSASigner;
-import com.nimbusds.jose.crypto.RSASSAVerifier;
-import com.nimbusds.jose.jwk.RSAKey;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
-import com.nimbusds.jose.util.Base64URL;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 
 import org.springframework.stereotype.Service;
-import org.springframework.beans.factory.annotation.Value;
 
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
@@ -35,46 +33,23 @@ public class CustomTokenService {
     private final UserTypeRepository userTypeRepository;
     private final ExchangeTokenConfig tokenConfig;
     private final UserRoleMappingService userRoleMappingService;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final SigningKeyRegistry signingKeyRegistry;
+    private final RegistrationsClaimCache registrationsClaimCache;
+    private final UserGroupDataMapper userGroupDataMapper;
+    private final MeterRegistry meterRegistry;
 
-    private RSAKey rsaKey;
-    private JWSSigner signer;
-    private JWSVerifier verifier;
-
-    @Value("${jwt.privatekey}")
-    private String privatekey;
-
-    @Value("${jwt.publickey}")
-    private String publickey;
-
-    @Value("${jwt.rsaKey}")
-    private String modulus;
-
-    @Value("${jwt.keyId}")
-    private String key;
+    private DistributionSummary accessTokenSize;
 
     @PostConstruct
-    public void init() {
-        try {
-            RSAKey rsaJwk = new RSAKey.Builder(new Base64URL(modulus), new Base64URL(publickey))
-                    .privateExponent(new Base64URL(privatekey))
-                    .algorithm(JWSAlgorithm.RS256)
-                    .keyID(key)
-                    .build();
-            this.rsaKey = rsaJwk;
-            signer = new RSASSASigner(rsaJwk.toPrivateKey());
-
-            RSAKey publicJWK = new RSAKey.Builder(new Base64URL(modulus), new Base64URL(publickey))
-                    .algorithm(JWSAlgorithm.RS256)
-                    .keyID(key)
-                    .build();
-
-            verifier = new RSASSAVerifier(publicJWK.toRSAPublicKey());
-
-            log.info("Custom token service initialized with key ID: {}", key);
-        } catch (JOSEException e) {
-            log.error("Failed to initialize custom token service", e);
-            throw new IllegalStateException("Failed to initialize token service", e);
-        }
+    public void registerMetrics() {
+        accessTokenSize = DistributionSummary.builder("iam.token.access.size")
+                .description("Serialized size of issued SSO access tokens")
+                .baseUnit("bytes")
+                .tag("registrations", tokenConfig.isRegistrationsReferenceMode()
+                        ? ExchangeTokenConfig.REGISTRATIONS_CLAIM_REFERENCE
+                        : ExchangeTokenConfig.REGISTRATIONS_CLAIM_EMBEDDED)
+                .register(meterRegistry);
     }
 
     public String generateAccessToken(String profileId, String grpId,
@@ -117,25 +92,17 @@ public class CustomTokenService {
                     .claim("portal_ids", portalIds)
                     .claim("token_type", "ACCESS");
 
-            if (filteredRegistrations != null && !filteredRegistrations.isEmpty()) {
-                claimsBuilder.claim("registrations", filteredRegistrations);
-            } else {
-                claimsBuilder.claim("registrations", Map.of("portals", List.of()));
-            }
+            applyRegistrationsClaim(claimsBuilder, grpId, userGroup, filteredRegistrations);
 
-            SignedJWT signedJWT = new SignedJWT(
-                    new JWSHeader.Builder(JWSAlgorithm.RS256)
-                            .keyID(rsaKey.getKeyID())
-                            .build(),
-                    claimsBuilder.build()
-            );
+            SignedJWT signedJWT = signClaims(claimsBuilder.build());
 
-            signedJWT.sign(signer);
+            String token = signedJWT.serialize();
+            accessTokenSize.record(token.length());
 
-            log.info("Generated access token for profileId: {} with current_role: {}, available_roles: {}",
-                profileId, currentRole, extractedRoles);
+            log.info("Generated access token for profileId: {} with current_role: {}, available_roles: {}, size: {} bytes",
+                profileId, currentRole, extractedRoles, token.length());
 
-            return signedJWT.serialize();
+            return token;
 
         } catch (Exception e) {
             log.error("Failed to generate access token for profileId: {}, grpId: {}", profileId, grpId, e);
@@ -177,25 +144,17 @@ public class CustomTokenService {
                     .claim("portal_ids", portalIds)
                     .claim("token_type", "ACCESS");
 
-            if (filteredRegistrations != null && !filteredRegistrations.isEmpty()) {
-                claimsBuilder.claim("registrations", filteredRegistrations);
-            } else {
-                claimsBuilder.claim("registrations", Map.of("portals", List.of()));
-            }
+            applyRegistrationsClaim(claimsBuilder, grpId, userGroup, filteredRegistrations);
 
-            SignedJWT signedJWT = new SignedJWT(
-                    new JWSHeader.Builder(JWSAlgorithm.RS256)
-                            .keyID(rsaKey.getKeyID())
-                            .build(),
-                    claimsBuilder.build()
-            );
+            SignedJWT signedJWT = signClaims(claimsBuilder.build());
 
-            signedJWT.sign(signer);
+            String token = signedJWT.serialize();
+            accessTokenSize.record(token.length());
 
-            log.info("Generated access token with specific role for profileId: {}, current_role: {}, available_roles: {}",
-                profileId, currentRole, availableRoles);
+            log.info("Generated access token with specific role for profileId: {}, current_role: {}, available_roles: {}, size: {} bytes",
+                profileId, currentRole, availableRoles, token.length());
 
-            return signedJWT.serialize();
+            return token;
 
         } catch (Exception e) {
             log.error("Failed to generate access token with role for profileId: {}, grpId: {}", profileId, grpId, e);
@@ -219,13 +178,7 @@ public class CustomTokenService {
                     .claim("token_type", "REFRESH")
                     .build();
 
-            SignedJWT signedJWT = new SignedJWT(
-                    new JWSHeader.Builder(JWSAlgorithm.RS256)
-                            .keyID(rsaKey.getKeyID())
-                            .build(),
-                    claims);
-
-            signedJWT.sign(signer);
+            SignedJWT signedJWT = signClaims(claims);
 
             String token = signedJWT.serialize();
             log.info("Generated custom refresh token for profileId: {}, grpId: {}", profileId, grpId);
@@ -238,8 +191,21 @@ public class CustomTokenService {
     }
 
     public JWTClaimsSet validateAndParseToken(String token) {
+        JWTClaimsSet cachedClaims = verifiedTokenCache.get(token);
+        if (cachedClaims != null) {
+            log.debug("Token validated from cache for subject: {}", cachedClaims.getSubject());
+            return cachedClaims;
+        }
+
         try {
             SignedJWT signedJWT = SignedJWT.parse(token);
+            JWSHeader header = signedJWT.getHeader();
+
+            JWSVerifier verifier = signingKeyRegistry.getVerifier(header.getKeyID(), header.getAlgorithm());
+            if (verifier == null) {
+                throw new RuntimeException("Unknown signing key ID: " + header.getKeyID()
+                        + " for algorithm: " + header.getAlgorithm());
+            }
 
             if (!signedJWT.verify(verifier)) {
                 throw new RuntimeException("Invalid token signature");
@@ -273,6 +239,7 @@ public class CustomTokenService {
 
             log.info("✅ [Token Validation] Token is valid with {} seconds remaining", timeUntilExpirySec);
             log.debug("Token validated successfully for subject: {}", claims.getSubject());
+            verifiedTokenCache.put(token, claims);
             return claims;
 
         } catch (Exception e) {
@@ -281,6 +248,87 @@ public class CustomTokenService {
         }
     }
 
+    public Map<String, Object> resolveRegistrations(JWTClaimsSet claims) {
+        try {
+            Map<String, Object> embedded = claims.getJSONObjectClaim("registrations");
+            if (embedded != null) {
+                return embedded;
+            }
+
+            Map<String, Object> reference = claims.getJSONObjectClaim("registrations_ref");
+            if (reference == null) {
+                return null;
+            }
+
+            String grpId = claims.getStringClaim("grp_id");
+            long version = reference.get("version") instanceof Number ? ((Number) reference.get("version")).longValue() : 0L;
+            String digest = (String) reference.get("digest");
+
+            Map<String, Object> cached = registrationsClaimCache.get(grpId, version, digest);
+            if (cached != null) {
+                return cached;
+            }
+
+            SSOUserGroup userGroup = userGroupRepository.findByProfileId(claims.getSubject()).orElse(null);
+            if (userGroup == null) {
+                log.warn("No user group found to materialize registrations for profileId: {}", claims.getSubject());
+                return Map.of("portals", List.of());
+            }
+
+            long currentVersion = registrationsVersion(userGroup);
+            String currentDigest = registrationsClaimCache.put(grpId, currentVersion,
+                    filterRegistrationsForUserGroup(userGroup, userGroupDataMapper.buildRegistrationsMap(userGroup)));
+            Map<String, Object> loaded = registrationsClaimCache.get(grpId, currentVersion, currentDigest);
+
+            if (loaded != null && (currentVersion != version || !currentDigest.equals(digest))) {
+                log.debug("Registrations for grpId {} changed since token issue (version {} -> {}), serving current",
+                        grpId, version, currentVersion);
+                registrationsClaimCache.alias(grpId, version, digest, loaded);
+            }
+
+            return loaded;
+        } catch (Exception e) {
+            log.error("Failed to resolve registrations for subject: {}", claims.getSubject(), e);
+            return null;
+        }
+    }
+
+    private void applyRegistrationsClaim(JWTClaimsSet.Builder claimsBuilder, String grpId,
+                                         SSOUserGroup userGroup, Map<String, Object> filteredRegistrations) {
+        Map<String, Object> registrations = filteredRegistrations != null && !filteredRegistrations.isEmpty()
+                ? filteredRegistrations
+                : Map.of("portals", List.of());
+
+        if (tokenConfig.isRegistrationsReferenceMode() && userGroup != null && grpId != null) {
+            long version = registrationsVersion(userGroup);
+            String digest = registrationsClaimCache.put(grpId, version, registrations);
+            if (digest != null) {
+                claimsBuilder.claim("registrations_ref", Map.of("version", version, "digest", digest));
+                return;
+            }
+        }
+
+        claimsBuilder.claim("registrations", registrations);
+    }
+
+    private Map<String, Object> filterRegistrationsForUserGroup(SSOUserGroup userGroup, Map<String, Object> registrations) {
+        UserType userTypeObj = userTypeRepository.findById(userGroup.getUserTypeId()).orElse(null);
+        String userType = userTypeObj != null ? userTypeObj.getType() : null;
+
+        if (userType != null && ("buyer".equalsIgnoreCase(userType) || "seller".equalsIgnoreCase(userType))) {
+            return filterRegistrationsByUserType(registrations, userType);
+        }
+        return registrations;
+    }
+
+    private long registrationsVersion(SSOUserGroup userGroup) {
+        return userGroup.getUpdatedDate() != null ? userGroup.getUpdatedDate().toEpochMilli() : 0L;
+    }
+
+    private SignedJWT signClaims(JWTClaimsSet claims) throws JOSEException {
+        return signingKeyRegistry.sign(claims);
+    }
+
     public JWTClaimsSet validateIdToken(String idToken) {
         try {
             SignedJWT signedJWT = SignedJWT.parse(idToken);
@@ -299,7 +347,7 @@ public class CustomTokenService {
 
     public String getJWKS() {
         try {
-            return rsaKey.toPublicJWK().toJSONString();
+            return signingKeyRegistry.getPublicJWKSet().toString();
         } catch (Exception e) {
             log.error("Failed to export JWKS", e);
             throw new RuntimeException("Failed to export JWKS", e);
@@ -0,0 +1,149 @@
+package com.nexusiam.application.service.token;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.jca.JCAContext;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.OctetKeyPair;
+import com.nimbusds.jose.util.Base64URL;
+
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.spec.EdECPoint;
+import java.security.spec.EdECPrivateKeySpec;
+import java.security.spec.EdECPublicKeySpec;
+import java.security.spec.NamedParameterSpec;
+import java.util.Set;
+
+final class Ed25519Jca {
+
+    private static final String ALGORITHM = "Ed25519";
+    private static final Set<JWSAlgorithm> SUPPORTED_ALGORITHMS = Set.of(JWSAlgorithm.EdDSA);
+
+    private Ed25519Jca() {
+    }
+
+    static boolean isEd25519(OctetKeyPair jwk) {
+        return Curve.Ed25519.equals(jwk.getCurve());
+    }
+
+    static JWSSigner signer(OctetKeyPair jwk) throws JOSEException {
+        if (!isEd25519(jwk) || !jwk.isPrivate()) {
+            throw new JOSEException("Ed25519 private key required for key ID: " + jwk.getKeyID());
+        }
+
+        try {
+            PrivateKey privateKey = KeyFactory.getInstance(ALGORITHM).generatePrivate(
+                    new EdECPrivateKeySpec(NamedParameterSpec.ED25519, jwk.getDecodedD()));
+            return new Signer(privateKey);
+        } catch (GeneralSecurityException e) {
+            throw new JOSEException("Invalid Ed25519 private key: " + e.getMessage(), e);
+        }
+    }
+
+    static JWSVerifier verifier(OctetKeyPair jwk) throws JOSEException {
+        if (!isEd25519(jwk)) {
+            throw new JOSEException("Ed25519 key required for key ID: " + jwk.getKeyID());
+        }
+
+        try {
+            PublicKey publicKey = KeyFactory.getInstance(ALGORITHM).generatePublic(
+                    new EdECPublicKeySpec(NamedParameterSpec.ED25519, toPoint(jwk.getDecodedX())));
+            return new Verifier(publicKey);
+        } catch (GeneralSecurityException e) {
+            throw new JOSEException("Invalid Ed25519 public key: " + e.getMessage(), e);
+        }
+    }
+
+    private static EdECPoint toPoint(byte[] encoded) throws JOSEException {
+        if (encoded.length != 32) {
+            throw new JOSEException("Ed25519 public key must be 32 bytes");
+        }
+
+        byte[] bigEndian = new byte[encoded.length];
+        for (int i = 0; i < encoded.length; i++) {
+            bigEndian[i] = encoded[encoded.length - 1 - i];
+        }
+
+        boolean xOdd = (bigEndian[0] & 0x80) != 0;
+        bigEndian[0] &= 0x7F;
+        return new EdECPoint(xOdd, new BigInteger(1, bigEndian));
+    }
+
+    private static final class Signer implements JWSSigner {
+        private final PrivateKey privateKey;
+        private final JCAContext jcaContext = new JCAContext();
+
+        Signer(PrivateKey privateKey) {
+            this.privateKey = privateKey;
+        }
+
+        @Override
+        public Base64URL sign(JWSHeader header, byte[] signingInput) throws JOSEException {
+            if (!JWSAlgorithm.EdDSA.equals(header.getAlgorithm())) {
+                throw new JOSEException("Ed25519 signer only supports EdDSA, got: " + header.getAlgorithm());
+            }
+
+            try {
+                Signature signature = Signature.getInstance(ALGORITHM);
+                signature.initSign(privateKey);
+                signature.update(signingInput);
+                return Base64URL.encode(signature.sign());
+            } catch (GeneralSecurityException e) {
+                throw new JOSEException("Ed25519 signing failed: " + e.getMessage(), e);
+            }
+        }
+
+        @Override
+        public Set<JWSAlgorithm> supportedJWSAlgorithms() {
+            return SUPPORTED_ALGORITHMS;
+        }
+
+        @Override
+        public JCAContext getJCAContext() {
+            return jcaContext;
+        }
+    }
+
+    private static final class Verifier implements JWSVerifier {
+        private final PublicKey publicKey;
+        private final JCAContext jcaContext = new JCAContext();
+
+        Verifier(PublicKey publicKey) {
+            this.publicKey = publicKey;
+        }
+
+        @Override
+        public boolean verify(JWSHeader header, byte[] signedContent, Base64URL signature) throws JOSEException {
+            if (!JWSAlgorithm.EdDSA.equals(header.getAlgorithm())) {
+                return false;
+            }
+
+            try {
+                Signature verifier = Signature.getInstance(ALGORITHM);
+                verifier.initVerify(publicKey);
+                verifier.update(signedContent);
+                return verifier.verify(signature.decode());
+            } catch (GeneralSecurityException e) {
+                return false;
+            }
+        }
+
+        @Override
+        public Set<JWSAlgorithm> supportedJWSAlgorithms() {
+            return SUPPORTED_ALGORITHMS;
+        }
+
+        @Override
+        public JCAContext getJCAContext() {
+            return jcaContext;
+        }
+    }
+}
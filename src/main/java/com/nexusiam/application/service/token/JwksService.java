@@ -3,57 +3,83 @@ package com.nexusiam.application.service.token;
 import com.nexusiam.infrastructure.config.oauth.OktaOAuth2Config;
 import com.nimbusds.jose.JWSVerifier;
 import com.nimbusds.jose.crypto.RSASSAVerifier;
+import com.nimbusds.jose.jwk.JWK;
 import com.nimbusds.jose.jwk.JWKSet;
 import com.nimbusds.jose.jwk.RSAKey;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
 
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.time.Instant;
 import java.util.Date;
-import java.util.Objects;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class JwksService {
 
+    private static final int MAX_UNKNOWN_KIDS = 1000;
+
     private final WebClient oktaWebClient;
     private final OktaOAuth2Config oktaConfig;
 
-    private JWKSet cachedJwks;
-    private Instant lastFetchTime;
+    private volatile KeySnapshot snapshot;
 
-    private static final long CACHE_DURATION_SECONDS = 6 * 3600;
+    private final AtomicReference<CompletableFuture<KeySnapshot>> inFlightRefresh = new AtomicReference<>();
+    private final AtomicLong lastUnknownKidRefreshMillis = new AtomicLong();
+    private final Map<String, Long> unknownKids = new ConcurrentHashMap<>();
 
-    public JWTClaimsSet validateAndParseToken(String token) {
-        try {
-            SignedJWT signedJWT = SignedJWT.parse(token);
+    @PostConstruct
+    public void loadSnapshotFromDisk() {
+        Path snapshotPath = getSnapshotPath();
+        if (snapshotPath == null || !Files.isRegularFile(snapshotPath)) {
+            return;
+        }
 
-            if (shouldRefreshJwks()) {
-                fetchJwks();
+        try {
+            Instant fetchedAt = Files.getLastModifiedTime(snapshotPath).toInstant();
+            if (fetchedAt.plusSeconds(oktaConfig.getJwksMaxStalenessSeconds()).isBefore(Instant.now())) {
+                log.info("Ignoring JWKS snapshot at {} older than max staleness", snapshotPath);
+                return;
             }
 
-            String keyId = signedJWT.getHeader().getKeyID();
-            RSAKey jwk = (RSAKey) cachedJwks.getKeyByKeyId(keyId);
+            String jwksJson = Files.readString(snapshotPath, StandardCharsets.UTF_8);
+            snapshot = buildSnapshot(jwksJson, fetchedAt);
+            log.info("Loaded JWKS snapshot from {} fetched at {}", snapshotPath, fetchedAt);
+        } catch (Exception e) {
+            log.warn("Failed to load JWKS snapshot from {}: {}", snapshotPath, e.getMessage());
+        }
+    }
 
-            if (jwk == null) {
-                log.warn("Key ID {} not found in cached JWKS, refreshing", keyId);
-                fetchJwks();
-                jwk = (RSAKey) cachedJwks.getKeyByKeyId(keyId);
-            }
+    public JWTClaimsSet validateAndParseToken(String token) {
+        try {
+            SignedJWT signedJWT = SignedJWT.parse(token);
+            String keyId = signedJWT.getHeader().getKeyID();
 
-            if (jwk == null) {
-                throw new RuntimeException("Invalid token: Matching JWK not found for key ID: " + keyId);
-            }
+            JWSVerifier verifier = resolveVerifier(keyId);
 
-            JWSVerifier verifier = new RSASSAVerifier(jwk);
             if (!signedJWT.verify(verifier)) {
                 throw new RuntimeException("Invalid token signature");
             }
@@ -72,44 +98,192 @@ public class JwksService {
         }
     }
 
-    private boolean shouldRefreshJwks() {
-        return cachedJwks == null
-                || lastFetchTime == null
-                || lastFetchTime.plusSeconds(CACHE_DURATION_SECONDS).isBefore(Instant.now());
+    @Scheduled(fixedDelayString = "${okta.oauth2.jwks-refresh-check-interval-ms:60000}")
+    public void refreshAhead() {
+        KeySnapshot current = snapshot;
+        if (current != null && !current.isDueForRefresh(oktaConfig.getJwksRefreshAheadSeconds())) {
+            return;
+        }
+
+        refreshAsync().exceptionally(e -> {
+            log.warn("Background JWKS refresh failed, keeping current key set: {}", e.getMessage());
+            return null;
+        });
     }
 
-    private void fetchJwks() {
-        try {
-            String validatedJwksUri = oktaConfig.getJwksUri();
-            if (validatedJwksUri == null || validatedJwksUri.isEmpty()) {
-                throw new IllegalStateException("JWKS URI is not configured");
+    private JWSVerifier resolveVerifier(String keyId) throws Exception {
+        KeySnapshot current = snapshot;
+
+        if (current == null || current.isBeyondMaxStaleness(oktaConfig.getJwksMaxStalenessSeconds())) {
+            current = awaitRefresh();
+        } else if (current.isExpired()) {
+            log.debug("JWKS cache expired, serving stale keys while refreshing");
+            refreshAsync();
+        }
+
+        JWSVerifier verifier = current.verifiers.get(keyId);
+        if (verifier != null) {
+            return verifier;
+        }
+
+        if (isKnownUnknownKid(keyId)) {
+            throw new RuntimeException("Invalid token: Matching JWK not found for key ID: " + keyId);
+        }
+
+        if (tryAcquireUnknownKidRefresh()) {
+            log.warn("Key ID {} not found in cached JWKS, refreshing", keyId);
+            current = awaitRefresh();
+            verifier = current.verifiers.get(keyId);
+            if (verifier != null) {
+                return verifier;
             }
+        } else {
+            log.warn("Key ID {} not found in cached JWKS, refresh rate-limited", keyId);
+        }
+
+        rememberUnknownKid(keyId);
+        throw new RuntimeException("Invalid token: Matching JWK not found for key ID: " + keyId);
+    }
+
+    private KeySnapshot awaitRefresh() throws Exception {
+        KeySnapshot refreshed = refreshAsync().get(oktaConfig.getJwksFetchTimeoutSeconds(), TimeUnit.SECONDS);
+        if (refreshed == null) {
+            throw new IllegalStateException("JWKS not available");
+        }
+        return refreshed;
+    }
 
-            log.info("Fetching JWKS from {}", validatedJwksUri);
+    private CompletableFuture<KeySnapshot> refreshAsync() {
+        CompletableFuture<KeySnapshot> existing = inFlightRefresh.get();
+        if (existing != null) {
+            return existing;
+        }
 
-            String jwksJson = Objects.requireNonNull(
-                oktaWebClient.get()
-                    .uri(validatedJwksUri)
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .block(),
-                "JWKS response cannot be null"
-            );
+        CompletableFuture<KeySnapshot> refresh = new CompletableFuture<>();
+        if (!inFlightRefresh.compareAndSet(null, refresh)) {
+            return inFlightRefresh.get();
+        }
+
+        CompletableFuture<KeySnapshot> fetch;
+        try {
+            fetch = fetchJwks();
+        } catch (Exception e) {
+            fetch = CompletableFuture.failedFuture(e);
+        }
 
-            if (jwksJson == null || jwksJson.isEmpty()) {
-                throw new RuntimeException("Empty JWKS response received");
+        fetch.whenComplete((fetched, error) -> {
+            inFlightRefresh.compareAndSet(refresh, null);
+            if (error != null) {
+                log.error("Failed to fetch JWKS: {}", error.getMessage());
+                refresh.completeExceptionally(new RuntimeException("Failed to fetch JWKS from Okta", error));
+                return;
             }
 
-            cachedJwks = JWKSet.parse(jwksJson);
-            lastFetchTime = Instant.now();
+            snapshot = fetched;
+            unknownKids.keySet().removeIf(fetched.verifiers::containsKey);
+            refresh.complete(fetched);
+            saveSnapshotToDisk(fetched);
+        });
 
-            log.info("JWKS fetched successfully. Loaded {} keys.", cachedJwks.getKeys().size());
+        return refresh;
+    }
+
+    private CompletableFuture<KeySnapshot> fetchJwks() {
+        String validatedJwksUri = oktaConfig.getJwksUri();
+        if (validatedJwksUri == null || validatedJwksUri.isEmpty()) {
+            return CompletableFuture.failedFuture(new IllegalStateException("JWKS URI is not configured"));
+        }
+
+        log.info("Fetching JWKS from {}", validatedJwksUri);
+
+        return oktaWebClient.get()
+                .uri(validatedJwksUri)
+                .retrieve()
+                .bodyToMono(String.class)
+                .toFuture()
+                .thenApply(jwksJson -> buildSnapshot(jwksJson, Instant.now()));
+    }
+
+    private KeySnapshot buildSnapshot(String jwksJson, Instant fetchedAt) {
+        if (jwksJson == null || jwksJson.isEmpty()) {
+            throw new RuntimeException("Empty JWKS response received");
+        }
+
+        try {
+            JWKSet jwkSet = JWKSet.parse(jwksJson);
+            Map<String, JWSVerifier> verifiers = new HashMap<>();
+
+            for (JWK jwk : jwkSet.getKeys()) {
+                if (jwk instanceof RSAKey && jwk.getKeyID() != null) {
+                    verifiers.put(jwk.getKeyID(), new RSASSAVerifier((RSAKey) jwk));
+                }
+            }
+
+            log.info("JWKS fetched successfully. Loaded {} keys.", verifiers.size());
+            return new KeySnapshot(jwkSet.toString(), verifiers, fetchedAt, oktaConfig.getJwksCacheDurationSeconds());
         } catch (Exception e) {
-            log.error("Failed to fetch JWKS: {}", e.getMessage());
-            throw new RuntimeException("Failed to fetch JWKS from Okta", e);
+            throw new RuntimeException("Failed to parse JWKS: " + e.getMessage(), e);
+        }
+    }
+
+    private void saveSnapshotToDisk(KeySnapshot fetched) {
+        Path snapshotPath = getSnapshotPath();
+        if (snapshotPath == null) {
+            return;
+        }
+
+        try {
+            Path directory = snapshotPath.toAbsolutePath().getParent();
+            if (directory != null) {
+                Files.createDirectories(directory);
+            }
+
+            Path tempFile = Files.createTempFile(directory, "jwks-", ".tmp");
+            Files.writeString(tempFile, fetched.jwksJson, StandardCharsets.UTF_8);
+            try {
+                Files.move(tempFile, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, snapshotPath, StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            log.debug("JWKS snapshot saved to {}", snapshotPath);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to save JWKS snapshot to {}: {}", snapshotPath, e.getMessage());
         }
     }
 
+    private Path getSnapshotPath() {
+        String path = oktaConfig.getJwksSnapshotPath();
+        return path == null || path.isBlank() ? null : Path.of(path);
+    }
+
+    private boolean isKnownUnknownKid(String keyId) {
+        Long expiresAt = unknownKids.get(String.valueOf(keyId));
+        if (expiresAt == null) {
+            return false;
+        }
+        if (expiresAt < System.currentTimeMillis()) {
+            unknownKids.remove(String.valueOf(keyId), expiresAt);
+            return false;
+        }
+        return true;
+    }
+
+    private void rememberUnknownKid(String keyId) {
+        if (unknownKids.size() >= MAX_UNKNOWN_KIDS) {
+            unknownKids.clear();
+        }
+        unknownKids.put(String.valueOf(keyId),
+                System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(oktaConfig.getJwksUnknownKidTtlSeconds()));
+    }
+
+    private boolean tryAcquireUnknownKidRefresh() {
+        long now = System.currentTimeMillis();
+        long last = lastUnknownKidRefreshMillis.get();
+        long minInterval = TimeUnit.SECONDS.toMillis(oktaConfig.getJwksMinRefreshIntervalSeconds());
+        return now - last >= minInterval && lastUnknownKidRefreshMillis.compareAndSet(last, now);
+    }
+
     private void validateClaims(JWTClaimsSet claims) throws Exception {
         if (oktaConfig.getIssuer() == null || oktaConfig.getIssuer().isEmpty()) {
             throw new IllegalStateException("Expected issuer is not configured");
@@ -144,4 +318,30 @@ public class JwksService {
 
         log.debug("All claims validated successfully with clock skew tolerance");
     }
+
+    private static final class KeySnapshot {
+        final String jwksJson;
+        final Map<String, JWSVerifier> verifiers;
+        final Instant fetchedAt;
+        final Instant expiresAt;
+
+        KeySnapshot(String jwksJson, Map<String, JWSVerifier> verifiers, Instant fetchedAt, long cacheDurationSeconds) {
+            this.jwksJson = jwksJson;
+            this.verifiers = Collections.unmodifiableMap(verifiers);
+            this.fetchedAt = fetchedAt;
+            this.expiresAt = fetchedAt.plusSeconds(cacheDurationSeconds);
+        }
+
+        boolean isExpired() {
+            return Instant.now().isAfter(expiresAt);
+        }
+
+        boolean isBeyondMaxStaleness(long maxStalenessSeconds) {
+            return Instant.now().isAfter(fetchedAt.plusSeconds(maxStalenessSeconds));
+        }
+
+        boolean isDueForRefresh(long refreshAheadSeconds) {
+            return Instant.now().isAfter(expiresAt.minusSeconds(refreshAheadSeconds));
+        }
+    }
 }
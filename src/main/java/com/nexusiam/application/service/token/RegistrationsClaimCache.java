@@ -0,0 +1,90 @@
+package com.nexusiam.application.service.token;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.nexusiam.infrastructure.config.oauth.ExchangeTokenConfig;
+
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class RegistrationsClaimCache {
+
+    private static final int DIGEST_LENGTH = 22;
+
+    private final ExchangeTokenConfig tokenConfig;
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, Map<String, Object>> cache = new ConcurrentHashMap<>();
+
+    public String put(String grpId, long version, Map<String, Object> registrations) {
+        try {
+            byte[] canonical = objectMapper.writer()
+                    .with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+                    .writeValueAsBytes(registrations);
+            String digest = digest(canonical);
+
+            Map<String, Object> normalized = objectMapper.readValue(canonical, new TypeReference<Map<String, Object>>() {});
+            store(grpId, version, digest, normalized);
+            return digest;
+        } catch (Exception e) {
+            log.error("Failed to cache registrations for grpId: {}", grpId, e);
+            return null;
+        }
+    }
+
+    public Map<String, Object> get(String grpId, long version, String digest) {
+        if (grpId == null || digest == null) {
+            return null;
+        }
+        return cache.get(key(grpId, version, digest));
+    }
+
+    public void alias(String grpId, long version, String digest, Map<String, Object> registrations) {
+        store(grpId, version, digest, registrations);
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    private void store(String grpId, long version, String digest, Map<String, Object> registrations) {
+        if (cache.size() >= tokenConfig.getRegistrationsCacheMaxSize()) {
+            int toRemove = Math.max(1, tokenConfig.getRegistrationsCacheMaxSize() / 10);
+            Iterator<String> iterator = cache.keySet().iterator();
+            while (toRemove > 0 && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+                toRemove--;
+            }
+        }
+
+        cache.put(key(grpId, version, digest), Collections.unmodifiableMap(registrations));
+    }
+
+    private String key(String grpId, long version, String digest) {
+        return grpId + ":" + version + ":" + digest;
+    }
+
+    private String digest(byte[] content) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(content);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash).substring(0, DIGEST_LENGTH);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.nexusiam.application.service.token;
+
+import com.nexusiam.infrastructure.config.security.RevocationEpochConfig;
+import com.nexusiam.infrastructure.messaging.AfterCommit;
+import com.nexusiam.infrastructure.messaging.ClusterBroadcaster;
+import com.nexusiam.infrastructure.redis.RedisAvailability;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+@Slf4j
+@Component
+public class RevocationEpochService implements ClusterBroadcaster.Listener {
+
+    private static final String METRIC_PREFIX = "iam.token.revocation.epoch";
+    private static final String TOPIC = "revocation-epoch";
+    private static final String REDIS_KEY = "revocation:epochs";
+
+    public enum Scope {
+        SUBJECT("sub"), GROUP("grp"), ROLE("role");
+
+        private final String prefix;
+
+        Scope(String prefix) {
+            this.prefix = prefix;
+        }
+
+        String key(String id) {
+            return prefix + ":" + (this == ROLE ? id.toUpperCase() : id);
+        }
+    }
+
+    private final RevocationEpochConfig config;
+    private final RedisAvailability redisAvailability;
+    private final ClusterBroadcaster broadcaster;
+    private final MeterRegistry meterRegistry;
+    private final ObjectProvider<RedisTemplate<String, String>> redisTemplate;
+
+    private final Map<String, Long> epochs = new ConcurrentHashMap<>();
+
+    private final LongAdder revocations = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public RevocationEpochService(RevocationEpochConfig config,
+                                  RedisAvailability redisAvailability,
+                                  ClusterBroadcaster broadcaster,
+                                  MeterRegistry meterRegistry,
+                                  ObjectProvider<RedisTemplate<String, String>> redisTemplate) {
+        this.config = config;
+        this.redisAvailability = redisAvailability;
+        this.broadcaster = broadcaster;
+        this.meterRegistry = meterRegistry;
+        this.redisTemplate = redisTemplate;
+    }
+
+    @PostConstruct
+    public void start() {
+        Gauge.builder(METRIC_PREFIX + ".entries", epochs, Map::size)
+                .description("Subjects, groups and roles with a revocation cutoff in force")
+                .register(meterRegistry);
+        FunctionCounter.builder(METRIC_PREFIX + ".revocations", revocations, LongAdder::sum)
+                .register(meterRegistry);
+        FunctionCounter.builder(METRIC_PREFIX + ".rejected", rejected, LongAdder::sum)
+                .description("Tokens rejected because they were issued before a revocation cutoff")
+                .register(meterRegistry);
+
+        reload();
+
+        broadcaster.register(TOPIC, this);
+        if (!broadcaster.isActive()) {
+            log.warn("Revocation epoch broadcast disabled, other instances pick up cutoffs on resync");
+        }
+    }
+
+    public void revoke(Scope scope, String id) {
+        if (id == null || id.isBlank()) {
+            return;
+        }
+        String key = scope.key(id);
+        AfterCommit.run(() -> {
+            long epoch = nowSeconds();
+            apply(key, epoch);
+            persist(key, epoch);
+            send(key, epoch);
+            revocations.increment();
+            log.info("Revoked all tokens issued before {} for {}", epoch, key);
+        });
+    }
+
+    public boolean isRevoked(String subject, String group, String role, Date issuedAt) {
+        if (epochs.isEmpty()) {
+            return false;
+        }
+        if (issuedBefore(Scope.SUBJECT, subject, issuedAt)
+                || issuedBefore(Scope.GROUP, group, issuedAt)
+                || issuedBefore(Scope.ROLE, role, issuedAt)) {
+            rejected.increment();
+            return true;
+        }
+        return false;
+    }
+
+    @Scheduled(fixedDelayString = "${app.revocation-epoch.resync-interval-ms:60000}",
+            initialDelayString = "${app.revocation-epoch.resync-interval-ms:60000}")
+    public void resync() {
+        long horizon = nowSeconds() - config.getRetentionSeconds();
+        List<String> expired = new ArrayList<>();
+        epochs.forEach((key, epoch) -> {
+            if (epoch < horizon) {
+                expired.add(key);
+            }
+        });
+        expired.forEach(key -> epochs.computeIfPresent(key, (k, epoch) -> epoch < horizon ? null : epoch));
+
+        RedisTemplate<String, String> template = redisTemplate.getIfAvailable();
+        if (!expired.isEmpty() && template != null && redisAvailability.isAvailable()) {
+            try {
+                template.opsForHash().delete(REDIS_KEY, expired.toArray());
+                redisAvailability.recordSuccess();
+            } catch (Exception e) {
+                redisAvailability.recordFailure(e);
+                log.warn("Failed to purge expired revocation epochs from Redis: {}", e.getMessage());
+            }
+        }
+
+        reload();
+    }
+
+    @Override
+    public void onMessage(long version, String body) {
+        String[] parts = body.split("\\|", 2);
+        if (parts.length != 2) {
+            log.warn("Ignoring malformed revocation epoch message: {}", body);
+            return;
+        }
+        try {
+            apply(parts[1], Long.parseLong(parts[0]));
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed revocation epoch message: {}", body);
+        }
+    }
+
+    @Override
+    public void onResync() {
+        log.warn("Revocation cutoffs may have been missed, reloading them from Redis");
+        reload();
+    }
+
+    private boolean issuedBefore(Scope scope, String id, Date issuedAt) {
+        if (id == null) {
+            return false;
+        }
+        Long epoch = epochs.get(scope.key(id));
+        // iat has whole-second precision: tokens issued in the revocation second itself stay valid
+        return epoch != null && (issuedAt == null || Math.floorDiv(issuedAt.getTime(), 1000L) < epoch);
+    }
+
+    private static long nowSeconds() {
+        return Math.floorDiv(System.currentTimeMillis(), 1000L);
+    }
+
+    private void apply(String key, long epoch) {
+        epochs.merge(key, epoch, Math::max);
+    }
+
+    private void reload() {
+        RedisTemplate<String, String> template = redisTemplate.getIfAvailable();
+        if (template == null || !redisAvailability.isAvailable()) {
+            return;
+        }
+        try {
+            Map<Object, Object> stored = template.opsForHash().entries(REDIS_KEY);
+            redisAvailability.recordSuccess();
+            long horizon = nowSeconds() - config.getRetentionSeconds();
+            stored.forEach((key, value) -> {
+                try {
+                    long epoch = Long.parseLong(value.toString());
+                    if (epoch >= horizon) {
+                        apply(key.toString(), epoch);
+                    }
+                } catch (NumberFormatException e) {
+                    log.warn("Ignoring malformed revocation epoch {} = {}", key, value);
+                }
+            });
+        } catch (Exception e) {
+            redisAvailability.recordFailure(e);
+            log.warn("Failed to load revocation epochs from Redis: {}", e.getMessage());
+        }
+    }
+
+    private void persist(String key, long epoch) {
+        RedisTemplate<String, String> template = redisTemplate.getIfAvailable();
+        if (template == null || !redisAvailability.isAvailable()) {
+            redisAvailability.recordFallback("revocation_epoch");
+            log.warn("Redis unavailable, revocation cutoff for {} is held in memory only", key);
+            return;
+        }
+        try {
+            template.opsForHash().put(REDIS_KEY, key, Long.toString(epoch));
+            redisAvailability.recordSuccess();
+        } catch (Exception e) {
+            redisAvailability.recordFailure(e);
+            log.warn("Failed to store revocation cutoff for {} in Redis: {}", key, e.getMessage());
+        }
+    }
+
+    private void send(String key, long epoch) {
+        broadcaster.publish(TOPIC, broadcaster.nextVersion(), Long.toString(epoch) + "|" + key);
+    }
+}
@@ -0,0 +1,382 @@
+package com.nexusiam.application.service.token;
+
+import com.nexusiam.infrastructure.config.oauth.ExchangeTokenConfig;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.ECDSASigner;
+import com.nimbusds.jose.crypto.ECDSAVerifier;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.OctetKeyPair;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.util.Base64URL;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class SigningKeyRegistry {
+
+    private final ExchangeTokenConfig tokenConfig;
+
+    @Value("${jwt.privatekey:}")
+    private String privatekey;
+
+    @Value("${jwt.publickey:}")
+    private String publickey;
+
+    @Value("${jwt.rsaKey:}")
+    private String modulus;
+
+    @Value("${jwt.keyId:}")
+    private String key;
+
+    private volatile KeyRing keyRing;
+    private volatile FileTime loadedKeysFileTime;
+    private volatile Instant nextKeyExpiry;
+
+    private final Map<String, RetiredKey> retiredKeys = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        reload();
+
+        KeyRing ring = keyRing;
+        if (ring == null) {
+            throw new IllegalStateException("No signing key configured for token service");
+        }
+
+        log.info("Signing key registry initialized with current key ID: {} ({}) and {} verification keys",
+                ring.currentKeyId, ring.currentAlgorithm, ring.verifiers.size());
+    }
+
+    @Scheduled(fixedDelayString = "${exchange.token.signing-keys-reload-interval-ms:60000}")
+    public void reloadIfChanged() {
+        Path keysPath = getKeysPath();
+        boolean keysFileChanged = false;
+
+        if (keysPath != null) {
+            try {
+                FileTime modified = Files.isRegularFile(keysPath) ? Files.getLastModifiedTime(keysPath) : null;
+                keysFileChanged = modified != null && !modified.equals(loadedKeysFileTime);
+            } catch (Exception e) {
+                log.warn("Failed to check signing keys file {}: {}", keysPath, e.getMessage());
+            }
+        }
+
+        Instant expiry = nextKeyExpiry;
+        boolean configuredKeyExpired = expiry != null && !Instant.now().isBefore(expiry);
+
+        if (keysFileChanged || configuredKeyExpired || hasExpiredRetiredKeys()) {
+            reload();
+        }
+    }
+
+    public synchronized void reload() {
+        List<JWK> configuredKeys;
+        try {
+            configuredKeys = loadConfiguredKeys();
+        } catch (Exception e) {
+            log.error("Failed to load signing keys, keeping current key set: {}", e.getMessage());
+            return;
+        }
+
+        Instant now = Instant.now();
+        Map<String, JWK> activeKeys = new LinkedHashMap<>();
+        Set<String> expiredKeyIds = new HashSet<>();
+        Instant nextExpiry = null;
+
+        // A configured "exp" ends a key's validity, so retired keys kept in the file as public-only
+        // entries stay accepted across restarts until then
+        for (JWK jwk : configuredKeys) {
+            Instant expiresAt = jwk.getExpirationTime() != null ? jwk.getExpirationTime().toInstant() : null;
+            if (expiresAt != null && !now.isBefore(expiresAt)) {
+                expiredKeyIds.add(jwk.getKeyID());
+                continue;
+            }
+            if (expiresAt != null && (nextExpiry == null || expiresAt.isBefore(nextExpiry))) {
+                nextExpiry = expiresAt;
+            }
+            activeKeys.putIfAbsent(jwk.getKeyID(), jwk);
+        }
+
+        JWK current = selectSigningKey(new ArrayList<>(activeKeys.values()));
+        if (current == null) {
+            log.error("No private signing key found in configured keys, keeping current key set");
+            return;
+        }
+
+        KeyRing previous = keyRing;
+
+        if (previous != null) {
+            for (JWK jwk : previous.publicKeys) {
+                if (expiredKeyIds.contains(jwk.getKeyID())) {
+                    log.info("Signing key {} expired, no longer accepted", jwk.getKeyID());
+                } else if (!activeKeys.containsKey(jwk.getKeyID())) {
+                    retiredKeys.putIfAbsent(jwk.getKeyID(), new RetiredKey(jwk, now));
+                    log.info("Signing key {} retired, still accepted for {} seconds",
+                            jwk.getKeyID(), tokenConfig.getRetiredKeyGraceSeconds());
+                }
+            }
+        }
+
+        retiredKeys.keySet().removeAll(activeKeys.keySet());
+        retiredKeys.keySet().removeAll(expiredKeyIds);
+        retiredKeys.values().removeIf(retired -> retired.isExpired(now, tokenConfig.getRetiredKeyGraceSeconds()));
+
+        try {
+            Map<String, KeyVerifier> verifiers = new LinkedHashMap<>();
+            List<JWK> publicKeys = new ArrayList<>();
+
+            for (JWK jwk : activeKeys.values()) {
+                verifiers.put(jwk.getKeyID(), new KeyVerifier(algorithmFor(jwk), createVerifier(jwk)));
+                publicKeys.add(jwk.toPublicJWK());
+            }
+            for (RetiredKey retired : retiredKeys.values()) {
+                verifiers.putIfAbsent(retired.jwk.getKeyID(),
+                        new KeyVerifier(algorithmFor(retired.jwk), createVerifier(retired.jwk)));
+                publicKeys.add(retired.jwk);
+            }
+
+            keyRing = new KeyRing(current.getKeyID(), algorithmFor(current), createSigner(current),
+                    verifiers, publicKeys);
+            nextKeyExpiry = nextExpiry;
+
+            if (previous != null && !previous.currentKeyId.equals(current.getKeyID())) {
+                log.info("Signing key rotated from {} ({}) to {} ({})", previous.currentKeyId,
+                        previous.currentAlgorithm, current.getKeyID(), algorithmFor(current));
+            }
+        } catch (JOSEException e) {
+            log.error("Failed to build signing key set, keeping current key set: {}", e.getMessage());
+        }
+    }
+
+    public SignedJWT sign(JWTClaimsSet claims) throws JOSEException {
+        KeyRing ring = keyRing;
+        SignedJWT signedJWT = new SignedJWT(
+                new JWSHeader.Builder(ring.currentAlgorithm)
+                        .keyID(ring.currentKeyId)
+                        .build(),
+                claims);
+
+        signedJWT.sign(ring.signer);
+        return signedJWT;
+    }
+
+    public JWSVerifier getVerifier(String keyId, JWSAlgorithm algorithm) {
+        if (keyId == null) {
+            return null;
+        }
+
+        KeyVerifier keyVerifier = keyRing.verifiers.get(keyId);
+        if (keyVerifier == null || !keyVerifier.algorithm.equals(algorithm)) {
+            return null;
+        }
+        return keyVerifier.verifier;
+    }
+
+    public JWKSet getPublicJWKSet() {
+        return keyRing.publicJwkSet;
+    }
+
+    private List<JWK> loadConfiguredKeys() throws Exception {
+        List<JWK> keys = new ArrayList<>();
+
+        Path keysPath = getKeysPath();
+        if (keysPath != null && Files.isRegularFile(keysPath)) {
+            FileTime modified = Files.getLastModifiedTime(keysPath);
+            JWKSet fileKeys = JWKSet.parse(Files.readString(keysPath, StandardCharsets.UTF_8));
+
+            for (JWK jwk : fileKeys.getKeys()) {
+                if (!isSupported(jwk)) {
+                    log.warn("Ignoring unsupported signing key type {} with key ID: {}", jwk.getKeyType(), jwk.getKeyID());
+                } else if (jwk.getKeyID() == null || jwk.getKeyID().isBlank()) {
+                    log.warn("Ignoring signing key without key ID in {}", keysPath);
+                } else {
+                    keys.add(jwk);
+                }
+            }
+
+            loadedKeysFileTime = modified;
+            log.debug("Loaded {} signing keys from {}", keys.size(), keysPath);
+        }
+
+        RSAKey legacyKey = buildLegacyKey();
+        if (legacyKey != null) {
+            boolean hasFileSigningKey = keys.stream().anyMatch(JWK::isPrivate);
+            keys.add(hasFileSigningKey ? legacyKey.toPublicJWK() : legacyKey);
+        }
+
+        return keys;
+    }
+
+    private RSAKey buildLegacyKey() {
+        if (modulus == null || modulus.isBlank() || publickey == null || publickey.isBlank()
+                || key == null || key.isBlank()) {
+            return null;
+        }
+
+        RSAKey.Builder builder = new RSAKey.Builder(new Base64URL(modulus), new Base64URL(publickey))
+                .algorithm(JWSAlgorithm.RS256)
+                .keyID(key);
+
+        if (privatekey != null && !privatekey.isBlank()) {
+            builder.privateExponent(new Base64URL(privatekey));
+        }
+
+        return builder.build();
+    }
+
+    private JWK selectSigningKey(List<JWK> keys) {
+        JWSAlgorithm configured = JWSAlgorithm.parse(tokenConfig.getSigningAlgorithm());
+
+        JWK firstPrivate = null;
+        for (JWK jwk : keys) {
+            if (!jwk.isPrivate()) {
+                continue;
+            }
+            if (algorithmFor(jwk).equals(configured)) {
+                return jwk;
+            }
+            if (firstPrivate == null) {
+                firstPrivate = jwk;
+            }
+        }
+
+        if (firstPrivate != null) {
+            log.warn("No private {} signing key configured, falling back to key ID: {} ({})",
+                    configured, firstPrivate.getKeyID(), algorithmFor(firstPrivate));
+        }
+        return firstPrivate;
+    }
+
+    private boolean isSupported(JWK jwk) {
+        if (jwk instanceof RSAKey) {
+            return true;
+        }
+        if (jwk instanceof ECKey) {
+            return Curve.P_256.equals(((ECKey) jwk).getCurve());
+        }
+        if (jwk instanceof OctetKeyPair) {
+            return Ed25519Jca.isEd25519((OctetKeyPair) jwk);
+        }
+        return false;
+    }
+
+    private JWSAlgorithm algorithmFor(JWK jwk) {
+        if (jwk.getAlgorithm() != null) {
+            return JWSAlgorithm.parse(jwk.getAlgorithm().getName());
+        }
+        if (jwk instanceof ECKey) {
+            return JWSAlgorithm.ES256;
+        }
+        if (jwk instanceof OctetKeyPair) {
+            return JWSAlgorithm.EdDSA;
+        }
+        return JWSAlgorithm.RS256;
+    }
+
+    private JWSSigner createSigner(JWK jwk) throws JOSEException {
+        if (jwk instanceof ECKey) {
+            return new ECDSASigner((ECKey) jwk);
+        }
+        if (jwk instanceof OctetKeyPair) {
+            return Ed25519Jca.signer((OctetKeyPair) jwk);
+        }
+        return new RSASSASigner(jwk.toRSAKey().toPrivateKey());
+    }
+
+    private JWSVerifier createVerifier(JWK jwk) throws JOSEException {
+        if (jwk instanceof ECKey) {
+            return new ECDSAVerifier(((ECKey) jwk).toPublicJWK());
+        }
+        if (jwk instanceof OctetKeyPair) {
+            return Ed25519Jca.verifier((OctetKeyPair) jwk);
+        }
+        return new RSASSAVerifier(jwk.toRSAKey().toRSAPublicKey());
+    }
+
+    private boolean hasExpiredRetiredKeys() {
+        Instant now = Instant.now();
+        return retiredKeys.values().stream()
+                .anyMatch(retired -> retired.isExpired(now, tokenConfig.getRetiredKeyGraceSeconds()));
+    }
+
+    private Path getKeysPath() {
+        String path = tokenConfig.getSigningKeysPath();
+        return path == null || path.isBlank() ? null : Path.of(path);
+    }
+
+    private static final class KeyRing {
+        final String currentKeyId;
+        final JWSAlgorithm currentAlgorithm;
+        final JWSSigner signer;
+        final Map<String, KeyVerifier> verifiers;
+        final List<JWK> publicKeys;
+        final JWKSet publicJwkSet;
+
+        KeyRing(String currentKeyId, JWSAlgorithm currentAlgorithm, JWSSigner signer,
+                Map<String, KeyVerifier> verifiers, List<JWK> publicKeys) {
+            this.currentKeyId = currentKeyId;
+            this.currentAlgorithm = currentAlgorithm;
+            this.signer = signer;
+            this.verifiers = Collections.unmodifiableMap(verifiers);
+            this.publicKeys = Collections.unmodifiableList(publicKeys);
+            this.publicJwkSet = new JWKSet(publicKeys);
+        }
+    }
+
+    private static final class KeyVerifier {
+        final JWSAlgorithm algorithm;
+        final JWSVerifier verifier;
+
+        KeyVerifier(JWSAlgorithm algorithm, JWSVerifier verifier) {
+            this.algorithm = algorithm;
+            this.verifier = verifier;
+        }
+    }
+
+    private static final class RetiredKey {
+        final JWK jwk;
+        final Instant retiredAt;
+
+        RetiredKey(JWK jwk, Instant retiredAt) {
+            this.jwk = jwk.toPublicJWK();
+            this.retiredAt = retiredAt;
+        }
+
+        boolean isExpired(Instant now, long graceSeconds) {
+            return now.isAfter(retiredAt.plusSeconds(graceSeconds));
+        }
+    }
+}
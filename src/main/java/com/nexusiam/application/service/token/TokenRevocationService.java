@@ -0,0 +1,437 @@
+package com.nexusiam.application.service.token;
+
+import com.nexusiam.infrastructure.config.security.TokenRevocationConfig;
+import com.nexusiam.infrastructure.messaging.ClusterBroadcaster;
+import com.nexusiam.infrastructure.redis.RedisAvailability;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.JWTParser;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Date;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+@Slf4j
+@Service
+public class TokenRevocationService implements ClusterBroadcaster.Listener {
+
+    private static final String METRIC_PREFIX = "iam.token.revocation";
+    private static final String REVOKED_PREFIX = "revoked:";
+    private static final String LEGACY_PREFIX = "invalidated:";
+    private static final int DIGEST_BYTES = 16;
+    private static final String TOPIC = "token-revocation";
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final RedisAvailability redisAvailability;
+    private final TokenRevocationConfig config;
+    private final ClusterBroadcaster broadcaster;
+    private final MeterRegistry meterRegistry;
+
+    private final Object filterLock = new Object();
+    private final PriorityQueue<PendingExpiry> expiries =
+            new PriorityQueue<>((a, b) -> Long.compare(a.expiresAtMillis, b.expiresAtMillis));
+    private volatile CountingBloomFilter filter;
+    private CountingBloomFilter building;
+    private long generation;
+
+    private final LongAdder revoked = new LongAdder();
+    private final LongAdder alreadyExpired = new LongAdder();
+    private final LongAdder migrated = new LongAdder();
+    private final LongAdder filterNegatives = new LongAdder();
+    private final LongAdder filterFalsePositives = new LongAdder();
+    private final LongAdder filterConfirmed = new LongAdder();
+    private final LongAdder filterRebuilds = new LongAdder();
+    private final LongAdder filterDisabled = new LongAdder();
+
+    public TokenRevocationService(@Autowired(required = false) RedisTemplate<String, String> redisTemplate,
+                                  RedisAvailability redisAvailability,
+                                  TokenRevocationConfig config,
+                                  ClusterBroadcaster broadcaster,
+                                  MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.redisAvailability = redisAvailability;
+        this.config = config;
+        this.broadcaster = broadcaster;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void start() {
+        FunctionCounter.builder(METRIC_PREFIX + ".revoked", revoked, LongAdder::sum)
+                .register(meterRegistry);
+        FunctionCounter.builder(METRIC_PREFIX + ".already.expired", alreadyExpired, LongAdder::sum)
+                .description("Revocations skipped because the token could no longer be used")
+                .register(meterRegistry);
+        FunctionCounter.builder(METRIC_PREFIX + ".legacy.migrated", migrated, LongAdder::sum)
+                .description("Full-token blacklist keys rewritten to compact revocation keys")
+                .register(meterRegistry);
+        FunctionCounter.builder(METRIC_PREFIX + ".filter.checks", filterNegatives, LongAdder::sum)
+                .tag("result", "negative")
+                .description("Revocation checks answered by the local filter without a Redis round trip")
+                .register(meterRegistry);
+        FunctionCounter.builder(METRIC_PREFIX + ".filter.checks", filterFalsePositives, LongAdder::sum)
+                .tag("result", "false_positive")
+                .register(meterRegistry);
+        FunctionCounter.builder(METRIC_PREFIX + ".filter.checks", filterConfirmed, LongAdder::sum)
+                .tag("result", "revoked")
+                .register(meterRegistry);
+        FunctionCounter.builder(METRIC_PREFIX + ".filter.rebuilds", filterRebuilds, LongAdder::sum)
+                .register(meterRegistry);
+        FunctionCounter.builder(METRIC_PREFIX + ".filter.disabled", filterDisabled, LongAdder::sum)
+                .description("Times the local filter was dropped because revocations may have been missed")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".filter.entries", this, service -> service.filterSize())
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".filter.false.positive.rate", this,
+                        TokenRevocationService::observedFalsePositiveRate)
+                .description("Share of non-revoked tokens the local filter still sent to Redis")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".filter.expected.false.positive.rate", this,
+                        service -> service.filter != null ? service.filter.expectedFalsePositiveRate() : 0)
+                .register(meterRegistry);
+
+        if (!config.isFilterEnabled() || redisTemplate == null) {
+            return;
+        }
+
+        broadcaster.register(TOPIC, this);
+        if (!broadcaster.isActive()) {
+            log.warn("Token revocation broadcast disabled, every revocation check goes to Redis");
+            return;
+        }
+        rebuildFilter();
+    }
+
+    public static String revocationId(String token, String jti) {
+        if (jti != null && !jti.isBlank()) {
+            return jti;
+        }
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(hash, DIGEST_BYTES));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public boolean revoke(String token) {
+        if (token == null || token.isEmpty()) {
+            return false;
+        }
+
+        JWTClaimsSet claims = readClaims(token);
+        String id = revocationId(token, claims != null ? claims.getJWTID() : null);
+        long ttlSeconds = claims != null
+                ? remainingSeconds(claims.getExpirationTime())
+                : config.getDefaultTtlSeconds();
+
+        if (ttlSeconds <= 0) {
+            alreadyExpired.increment();
+            log.debug("Token already expired, no revocation entry needed");
+            return true;
+        }
+        if (!store(token, id, ttlSeconds)) {
+            return false;
+        }
+        track(id, ttlSeconds);
+        send(id, ttlSeconds);
+        return true;
+    }
+
+    public boolean isRevoked(String revocationId) {
+        CountingBloomFilter current = filter;
+        if (current != null && !current.mightContain(revocationId)) {
+            filterNegatives.increment();
+            return false;
+        }
+
+        boolean result = lookup(revocationId);
+        if (current != null) {
+            (result ? filterConfirmed : filterFalsePositives).increment();
+        }
+        return result;
+    }
+
+    @Scheduled(fixedDelayString = "${app.token-revocation.filter-rebuild-interval-ms:600000}",
+            initialDelayString = "${app.token-revocation.filter-rebuild-interval-ms:600000}")
+    public void rebuildFilter() {
+        if (!isFilterUsable()) {
+            return;
+        }
+
+        CountingBloomFilter next = new CountingBloomFilter(config.getFilterExpectedEntries(),
+                config.getFilterFalsePositiveRate());
+        synchronized (filterLock) {
+            if (building != null) {
+                return;
+            }
+            building = next;
+        }
+
+        ScanOptions options = ScanOptions.scanOptions()
+                .match(REVOKED_PREFIX + "*")
+                .count(Math.max(1, config.getLegacyMigrationBatchSize()))
+                .build();
+        try (Cursor<String> cursor = redisTemplate.scan(options)) {
+            while (cursor.hasNext()) {
+                next.add(cursor.next().substring(REVOKED_PREFIX.length()));
+            }
+            redisAvailability.recordSuccess();
+        } catch (Exception e) {
+            redisAvailability.recordFailure(e);
+            synchronized (filterLock) {
+                if (building == next) {
+                    building = null;
+                }
+            }
+            log.warn("Failed to rebuild token revocation filter, keeping the previous one: {}", e.getMessage());
+            return;
+        }
+
+        synchronized (filterLock) {
+            if (building != next) {
+                log.debug("Discarding token revocation filter rebuild superseded by a resync");
+                return;
+            }
+            filter = next;
+            building = null;
+            generation++;
+        }
+        filterRebuilds.increment();
+        log.info("Rebuilt token revocation filter with {} entries ({} counters, expected false-positive rate {})",
+                next.size(), next.capacity(), String.format("%.5f", next.expectedFalsePositiveRate()));
+    }
+
+    @Scheduled(fixedDelayString = "${app.token-revocation.filter-purge-interval-ms:30000}")
+    public void purgeExpiredFilterEntries() {
+        long now = System.currentTimeMillis();
+        synchronized (filterLock) {
+            while (!expiries.isEmpty() && expiries.peek().expiresAtMillis <= now) {
+                PendingExpiry expired = expiries.poll();
+                if (filter != null && expired.generation == generation) {
+                    filter.remove(expired.id);
+                }
+            }
+        }
+
+        if (filter == null) {
+            rebuildFilter();
+        }
+    }
+
+    @Override
+    public void onMessage(long version, String body) {
+        String[] parts = body.split("\\|", 2);
+        if (parts.length != 2) {
+            log.warn("Ignoring malformed token revocation message: {}", body);
+            return;
+        }
+        try {
+            track(parts[1], Long.parseLong(parts[0]));
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed token revocation message: {}", body);
+        }
+    }
+
+    @Override
+    public void onResync() {
+        log.warn("Token revocations may have been missed, rebuilding local filter");
+        disableFilter();
+        rebuildFilter();
+    }
+
+    private void track(String id, long ttlSeconds) {
+        long expiresAt = System.currentTimeMillis() + ttlSeconds * 1000L;
+        synchronized (filterLock) {
+            if (filter != null) {
+                filter.add(id);
+            }
+            if (building != null) {
+                building.add(id);
+            }
+            expiries.add(new PendingExpiry(id, expiresAt, building != null ? generation + 1 : generation));
+        }
+    }
+
+    private void send(String id, long ttlSeconds) {
+        if (!broadcaster.publish(TOPIC, broadcaster.nextVersion(), Long.toString(ttlSeconds) + "|" + id)
+                && broadcaster.isActive()) {
+            log.warn("Token revocation broadcast failed, checking every token in Redis until the filter is rebuilt");
+            disableFilter();
+        }
+    }
+
+    private void disableFilter() {
+        synchronized (filterLock) {
+            if (filter == null && building == null) {
+                return;
+            }
+            filter = null;
+            building = null;
+            generation++;
+        }
+        filterDisabled.increment();
+    }
+
+    private boolean isFilterUsable() {
+        return config.isFilterEnabled() && redisTemplate != null && broadcaster.isActive()
+                && redisAvailability.isAvailable();
+    }
+
+    private int filterSize() {
+        CountingBloomFilter current = filter;
+        return current != null ? current.size() : 0;
+    }
+
+    private double observedFalsePositiveRate() {
+        long falsePositives = filterFalsePositives.sum();
+        long total = falsePositives + filterNegatives.sum();
+        return total == 0 ? 0 : (double) falsePositives / total;
+    }
+
+    private boolean lookup(String revocationId) {
+        if (!isRedisAvailable()) {
+            return false;
+        }
+        try {
+            Boolean exists = redisTemplate.hasKey(REVOKED_PREFIX + revocationId);
+            redisAvailability.recordSuccess();
+            return Boolean.TRUE.equals(exists);
+        } catch (Exception e) {
+            redisAvailability.recordFailure(e);
+            log.warn("Failed to check token revocation in Redis: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.token-revocation.legacy-migration-interval-ms:60000}",
+            initialDelayString = "${app.token-revocation.legacy-migration-interval-ms:60000}")
+    public void migrateLegacyEntries() {
+        if (!config.isLegacyMigrationEnabled() || redisTemplate == null || !redisAvailability.isAvailable()) {
+            return;
+        }
+
+        int scanned = 0;
+        int count = 0;
+        ScanOptions options = ScanOptions.scanOptions()
+                .match(LEGACY_PREFIX + "*")
+                .count(Math.max(1, config.getLegacyMigrationBatchSize()))
+                .build();
+        try (Cursor<String> cursor = redisTemplate.scan(options)) {
+            while (cursor.hasNext()) {
+                if (migrateLegacyEntry(cursor.next())) {
+                    count++;
+                }
+                scanned++;
+            }
+            redisAvailability.recordSuccess();
+        } catch (Exception e) {
+            redisAvailability.recordFailure(e);
+            log.warn("Failed to migrate legacy token blacklist entries after {} keys: {}", scanned, e.getMessage());
+            return;
+        }
+
+        if (count > 0) {
+            migrated.add(count);
+            log.info("Migrated {} legacy token blacklist entries to jti-keyed revocations", count);
+        }
+    }
+
+    private boolean migrateLegacyEntry(String legacyKey) {
+        String token = legacyKey.substring(LEGACY_PREFIX.length());
+        JWTClaimsSet claims = readClaims(token);
+
+        Long keyTtl = redisTemplate.getExpire(legacyKey, TimeUnit.SECONDS);
+        long ttlSeconds = claims != null ? remainingSeconds(claims.getExpirationTime()) : config.getDefaultTtlSeconds();
+        if (keyTtl != null && keyTtl >= 0) {
+            ttlSeconds = Math.min(ttlSeconds, keyTtl);
+        } else if (keyTtl != null && keyTtl == -2) {
+            return false;
+        }
+        if (ttlSeconds <= 0) {
+            return false;
+        }
+
+        String id = revocationId(token, claims != null ? claims.getJWTID() : null);
+        Boolean created = redisTemplate.opsForValue()
+                .setIfAbsent(REVOKED_PREFIX + id, "1", ttlSeconds, TimeUnit.SECONDS);
+        if (!Boolean.TRUE.equals(created)) {
+            return false;
+        }
+        track(id, ttlSeconds);
+        send(id, ttlSeconds);
+        return true;
+    }
+
+    private boolean store(String token, String id, long ttlSeconds) {
+        if (!isRedisAvailable()) {
+            return false;
+        }
+        try {
+            redisTemplate.opsForValue().set(REVOKED_PREFIX + id, "1", ttlSeconds, TimeUnit.SECONDS);
+            if (config.isLegacyDualWriteEnabled()) {
+                redisTemplate.opsForValue().set(LEGACY_PREFIX + token, "true", ttlSeconds, TimeUnit.SECONDS);
+            }
+            redisAvailability.recordSuccess();
+            revoked.increment();
+            return true;
+        } catch (Exception e) {
+            redisAvailability.recordFailure(e);
+            log.warn("Failed to store token revocation in Redis: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private boolean isRedisAvailable() {
+        if (redisAvailability.isAvailable()) {
+            return true;
+        }
+        redisAvailability.recordFallback("token_revocation");
+        return false;
+    }
+
+    private long remainingSeconds(Date expiration) {
+        if (expiration == null) {
+            return config.getDefaultTtlSeconds();
+        }
+        long remainingMs = expiration.getTime() - System.currentTimeMillis();
+        return remainingMs <= 0 ? 0 : (remainingMs + 999) / 1000;
+    }
+
+    private static JWTClaimsSet readClaims(String token) {
+        try {
+            return JWTParser.parse(token).getJWTClaimsSet();
+        } catch (Exception e) {
+            log.debug("Could not read token claims, revoking by digest: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static final class PendingExpiry {
+        final String id;
+        final long expiresAtMillis;
+        final long generation;
+
+        PendingExpiry(String id, long expiresAtMillis, long generation) {
+            this.id = id;
+            this.expiresAtMillis = expiresAtMillis;
+            this.generation = generation;
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.nexusiam.application.service.token;
+
+import com.nexusiam.infrastructure.config.oauth.ExchangeTokenConfig;
+import com.nimbusds.jwt.JWTClaimsSet;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class VerifiedTokenCache {
+
+    private static final String METRIC_PREFIX = "iam.token.verified.cache";
+
+    private final ExchangeTokenConfig tokenConfig;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, CachedClaims> cache = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    @PostConstruct
+    public void registerMetrics() {
+        Gauge.builder(METRIC_PREFIX + ".size", cache, Map::size)
+                .description("Number of verified SSO tokens currently cached")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".hit.ratio", this, VerifiedTokenCache::getHitRatio)
+                .description("Share of SSO token validations served without signature verification")
+                .register(meterRegistry);
+        FunctionCounter.builder(METRIC_PREFIX + ".hits", hits, LongAdder::sum)
+                .register(meterRegistry);
+        FunctionCounter.builder(METRIC_PREFIX + ".misses", misses, LongAdder::sum)
+                .register(meterRegistry);
+        FunctionCounter.builder(METRIC_PREFIX + ".evictions", evictions, LongAdder::sum)
+                .register(meterRegistry);
+
+        log.info("Verified token cache initialized with max size: {}", tokenConfig.getVerifiedCacheMaxSize());
+    }
+
+    public JWTClaimsSet get(String token) {
+        if (token == null) {
+            return null;
+        }
+
+        String key = digest(token);
+        CachedClaims cached = cache.get(key);
+
+        if (cached == null) {
+            misses.increment();
+            return null;
+        }
+
+        if (cached.isExpired(System.currentTimeMillis())) {
+            if (cache.remove(key, cached)) {
+                evictions.increment();
+            }
+            misses.increment();
+            return null;
+        }
+
+        hits.increment();
+        return cached.claims;
+    }
+
+    public void put(String token, JWTClaimsSet claims) {
+        if (token == null || claims == null) {
+            return;
+        }
+
+        Date expirationTime = claims.getExpirationTime();
+        if (expirationTime == null || expirationTime.getTime() <= System.currentTimeMillis()) {
+            return;
+        }
+
+        if (cache.size() >= tokenConfig.getVerifiedCacheMaxSize()) {
+            makeRoom();
+        }
+
+        cache.put(digest(token), new CachedClaims(claims, expirationTime.getTime()));
+    }
+
+    public void invalidate(String token) {
+        if (token != null && cache.remove(digest(token)) != null) {
+            evictions.increment();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${exchange.token.verified-cache-purge-interval-ms:60000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        int removed = 0;
+
+        Iterator<CachedClaims> iterator = cache.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().isExpired(now)) {
+                iterator.remove();
+                removed++;
+            }
+        }
+
+        if (removed > 0) {
+            evictions.add(removed);
+            log.debug("Purged {} expired entries from verified token cache", removed);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        return Map.of(
+                "size", cache.size(),
+                "maxSize", tokenConfig.getVerifiedCacheMaxSize(),
+                "hits", hits.sum(),
+                "misses", misses.sum(),
+                "evictions", evictions.sum(),
+                "hitRatio", getHitRatio()
+        );
+    }
+
+    private double getHitRatio() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+
+    private void makeRoom() {
+        purgeExpired();
+
+        int maxSize = tokenConfig.getVerifiedCacheMaxSize();
+        if (cache.size() < maxSize) {
+            return;
+        }
+
+        int toRemove = Math.max(1, maxSize / 10);
+        Iterator<String> iterator = cache.keySet().iterator();
+        while (toRemove > 0 && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            evictions.increment();
+            toRemove--;
+        }
+
+        log.debug("Verified token cache full, evicted entries to make room");
+    }
+
+    private String digest(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static final class CachedClaims {
+        final JWTClaimsSet claims;
+        final long expiresAtMillis;
+
+        CachedClaims(JWTClaimsSet claims, long expiresAtMillis) {
+            this.claims = claims;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+
+        boolean isExpired(long nowMillis) {
+            return nowMillis >= expiresAtMillis;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.nexusiam.application.service.user;
 
 import com.nexusiam.application.dto.request.InternalUserRequest;
 import com.nexusiam.application.dto.response.InternalUserResponse;
+import com.nexusiam.application.service.token.RevocationEpochService;
 import com.nexusiam.core.domain.entity.InternalUser;
 import com.nexusiam.core.domain.repository.InternalUserRepository;
 import jakarta.transaction.Transactional;
@@ -18,12 +19,15 @@ public class InternalUserManagementService implements InternalUserService {
 
     private final PasswordEncoder passwordEncoder;
     private final InternalUserRepository userRepository;
+    private final RevocationEpochService revocationEpochService;
 
     @Autowired
     public InternalUserManagementService(InternalUserRepository userRepository,
-                                        PasswordEncoder passwordEncoder) {
+                                        PasswordEncoder passwordEncoder,
+                                        RevocationEpochService revocationEpochService) {
         this.userRepository = Objects.requireNonNull(userRepository);
         this.passwordEncoder = Objects.requireNonNull(passwordEncoder);
+        this.revocationEpochService = Objects.requireNonNull(revocationEpochService);
     }
 
     @Override
@@ -100,11 +104,17 @@ public class InternalUserManagementService implements InternalUserService {
 
         validateEmailNotExists(request.getEmail(), id);
 
+        String previousEmail = user.getEmail();
+        String previousRole = user.getRole();
+        Boolean previouslyDeleted = user.getIsDeleted();
+        boolean passwordChanged = false;
+
         user.setName(request.getName());
         user.setEmail(request.getEmail());
 
         if (request.getPassword() != null && !request.getPassword().isBlank()) {
             user.setPassword(passwordEncoder.encode(request.getPassword()));
+            passwordChanged = true;
         }
 
         if (request.getRole() != null && !request.getRole().isBlank()) {
@@ -129,7 +139,13 @@ public class InternalUserManagementService implements InternalUserService {
             user.setNotes(request.getNotes());
         }
 
-        return toUserResponse(userRepository.save(user));
+        InternalUser saved = userRepository.save(user);
+        if (passwordChanged || !Objects.equals(previousEmail, saved.getEmail())
+                || !Objects.equals(previousRole, saved.getRole())
+                || (Boolean.TRUE.equals(saved.getIsDeleted()) && !Boolean.TRUE.equals(previouslyDeleted))) {
+            revocationEpochService.revoke(RevocationEpochService.Scope.SUBJECT, previousEmail);
+        }
+        return toUserResponse(saved);
     }
 
     @Override
@@ -144,6 +160,7 @@ public class InternalUserManagementService implements InternalUserService {
                     u.setIsDeleted(true);
                     u.setStatus("DISABLED");
                     userRepository.save(u);
+                    revocationEpochService.revoke(RevocationEpochService.Scope.SUBJECT, u.getEmail());
                 });
     }
 
@@ -5,6 +5,7 @@ import com.nexusiam.shared.constants.SSOErrorCode;
 import com.nexusiam.presentation.exception.SSOAuthenticationException;
 import com.nexusiam.core.domain.entity.SSOUserSession;
 import com.nexusiam.core.domain.repository.SSOUserSessionRepository;
+import com.nexusiam.infrastructure.redis.RedisAvailability;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.redis.core.RedisTemplate;
@@ -21,9 +22,11 @@ public class AuthCodeValidator {
     private RedisTemplate<String, String> redisTemplate;
 
     private final SSOUserSessionRepository sessionRepo;
+    private final RedisAvailability redisAvailability;
 
-    public AuthCodeValidator(SSOUserSessionRepository sessionRepo) {
+    public AuthCodeValidator(SSOUserSessionRepository sessionRepo, RedisAvailability redisAvailability) {
         this.sessionRepo = sessionRepo;
+        this.redisAvailability = redisAvailability;
     }
 
     public String retrieveAndValidateCodeVerifier(String state) {
@@ -74,6 +77,7 @@ public class AuthCodeValidator {
         try {
             String key = SSOConstants.PKCE_PREFIX + state;
             String codeVerifier = redisTemplate.opsForValue().get(key);
+            redisAvailability.recordSuccess();
 
             if (codeVerifier != null) {
                 log.debug("Retrieved PKCE verifier from Redis for state: {}", state);
@@ -83,6 +87,7 @@ public class AuthCodeValidator {
 
             return codeVerifier;
         } catch (Exception e) {
+            redisAvailability.recordFailure(e);
             log.warn("Failed to retrieve PKCE from Redis for state: {} - Error: {}",
                     state, e.getMessage());
             return null;
@@ -146,6 +151,7 @@ public class AuthCodeValidator {
         try {
             String key = SSOConstants.PKCE_PREFIX + state;
             Boolean deleted = redisTemplate.delete(key);
+            redisAvailability.recordSuccess();
 
             if (Boolean.TRUE.equals(deleted)) {
                 log.debug("Deleted PKCE verifier from Redis for state: {}", state);
@@ -155,6 +161,7 @@ public class AuthCodeValidator {
                 return false;
             }
         } catch (Exception e) {
+            redisAvailability.recordFailure(e);
             log.warn("Failed to delete PKCE from Redis for state: {} - Error: {}",
                     state, e.getMessage());
             return false;
@@ -185,16 +192,10 @@ public class AuthCodeValidator {
     }
 
     private boolean isRedisAvailable() {
-        if (redisTemplate == null) {
-            log.debug("RedisTemplate is null - Redis is disabled");
-            return false;
-        }
-        try {
-            redisTemplate.hasKey(SSOConstants.HEALTH_CHECK_KEY);
+        if (redisAvailability.isAvailable()) {
             return true;
-        } catch (Exception e) {
-            log.debug("Redis health check failed: {}", e.getMessage());
-            return false;
         }
+        redisAvailability.recordFallback("auth_code");
+        return false;
     }
 }
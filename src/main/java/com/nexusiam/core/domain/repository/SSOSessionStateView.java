@@ -0,0 +1,8 @@
+package com.nexusiam.core.domain.repository;
+
+public interface SSOSessionStateView {
+
+    Boolean getIsActive();
+
+    String getTokenStatus();
+}
@@ -17,6 +17,10 @@ public interface SSOUserSessionRepository extends JpaRepository<SSOUserSession,
 
     Optional<SSOUserSession> findByProfileId(String profileId);
 
+    @Query("SELECT s.isActive AS isActive, s.tokenStatus AS tokenStatus " +
+           "FROM SSOUserSession s WHERE s.profileId = :profileId")
+    Optional<SSOSessionStateView> findStateByProfileId(@Param("profileId") String profileId);
+
     Optional<SSOUserSession> findByAuthCode(String authCode);
 
     Optional<SSOUserSession> findBySsoAccessToken(String token);
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -38,6 +39,24 @@ public interface UserApiMappingRepository extends JpaRepository<UserApiMapping,
            "WHERE m.userId = :userId AND m.isActive = true")
     List<UserApiMapping> findUserAccessibleApisWithDetails(@Param("userId") Long userId);
 
+    @Query("SELECT m.userId AS userId, a.id AS apiSourceId, a.apiPath AS apiPath, " +
+           "a.apiMethod AS apiMethod, a.module AS module " +
+           "FROM UserApiMapping m JOIN ApiSource a ON a.id = m.apiSourceId " +
+           "WHERE m.userId = :userId AND m.isActive = true")
+    List<UserApiPermissionView> findEffectivePermissions(@Param("userId") Long userId);
+
+    @Query("SELECT m.userId AS userId, a.id AS apiSourceId, a.apiPath AS apiPath, " +
+           "a.apiMethod AS apiMethod, a.module AS module " +
+           "FROM UserApiMapping m JOIN ApiSource a ON a.id = m.apiSourceId " +
+           "WHERE m.userId IN :userIds AND m.isActive = true")
+    List<UserApiPermissionView> findEffectivePermissionsForUsers(@Param("userIds") Collection<Long> userIds);
+
+    @Query("SELECT m.userId AS userId, a.id AS apiSourceId, a.apiPath AS apiPath, " +
+           "a.apiMethod AS apiMethod, a.module AS module " +
+           "FROM UserApiMapping m JOIN ApiSource a ON a.id = m.apiSourceId " +
+           "WHERE m.isActive = true")
+    List<UserApiPermissionView> findAllEffectivePermissions();
+
     @Query("SELECT DISTINCT m.userId FROM UserApiMapping m " +
            "WHERE m.apiSourceId = :apiSourceId AND m.isActive = true")
     List<Long> findUserIdsByApiSourceId(@Param("apiSourceId") Long apiSourceId);
@@ -0,0 +1,14 @@
+package com.nexusiam.core.domain.repository;
+
+public interface UserApiPermissionView {
+
+    Long getUserId();
+
+    Long getApiSourceId();
+
+    String getApiPath();
+
+    String getApiMethod();
+
+    String getModule();
+}
@@ -9,8 +9,23 @@ import org.springframework.context.annotation.Configuration;
 @Data
 public class ExchangeTokenConfig {
 
+    public static final String REGISTRATIONS_CLAIM_EMBEDDED = "embedded";
+    public static final String REGISTRATIONS_CLAIM_REFERENCE = "reference";
+
     private String issuer = "https://iam-nexus.com";
     private int expiryMinutes = 15;
     private int refreshExpiryHours = 24;
     private String audience = "IAM_NEXUS";
+    private int verifiedCacheMaxSize = 10000;
+    private long verifiedCachePurgeIntervalMs = 60000;
+    private String signingKeysPath;
+    private String signingAlgorithm = "RS256";
+    private long signingKeysReloadIntervalMs = 60000;
+    private long retiredKeyGraceSeconds = 86400;
+    private String registrationsClaimMode = REGISTRATIONS_CLAIM_EMBEDDED;
+    private int registrationsCacheMaxSize = 10000;
+
+    public boolean isRegistrationsReferenceMode() {
+        return REGISTRATIONS_CLAIM_REFERENCE.equalsIgnoreCase(registrationsClaimMode);
+    }
 }
@@ -18,4 +18,12 @@ public class OktaOAuth2Config {
     private String jwksUri;
     private String redirectUri;
     private String scope;
+    private long jwksCacheDurationSeconds = 6 * 3600;
+    private long jwksRefreshAheadSeconds = 300;
+    private long jwksRefreshCheckIntervalMs = 60000;
+    private long jwksFetchTimeoutSeconds = 10;
+    private long jwksMinRefreshIntervalSeconds = 30;
+    private long jwksUnknownKidTtlSeconds = 300;
+    private String jwksSnapshotPath;
+    private long jwksMaxStalenessSeconds = 72 * 3600;
 }
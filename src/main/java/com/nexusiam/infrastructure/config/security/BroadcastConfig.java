@@ -0,0 +1,22 @@
+package com.nexusiam.infrastructure.config.security;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.broadcast")
+@Data
+public class BroadcastConfig {
+
+    public static final String TRANSPORT_AUTO = "auto";
+    public static final String TRANSPORT_REDIS = "redis";
+    public static final String TRANSPORT_POSTGRES = "postgres";
+    public static final String TRANSPORT_LOCAL = "local";
+    public static final String TRANSPORT_NONE = "none";
+
+    private String transport = TRANSPORT_AUTO;
+    private String channel = "iam_cluster_broadcast";
+    private long heartbeatIntervalMs = 5000;
+    private long peerTimeoutMs = 20000;
+}
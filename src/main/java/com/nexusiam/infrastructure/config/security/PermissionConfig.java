@@ -0,0 +1,36 @@
+package com.nexusiam.infrastructure.config.security;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.permission")
+@Data
+public class PermissionConfig {
+
+    public static final String TOKEN_ENCODING_LIST = "list";
+    public static final String TOKEN_ENCODING_BITSET = "bitset";
+
+    private String tokenEncoding = TOKEN_ENCODING_LIST;
+    private long indexRefreshIntervalMs = 300000;
+    private int indexHistorySize = 4;
+    private long indexMissRefreshIntervalMs = 5000;
+    private int routeMatcherCacheMaxSize = 10000;
+    private int loaderBatchSize = 500;
+    private int cacheMaxSize = 10000;
+    private long cacheTtlSeconds = 900;
+    private long cacheRefreshAheadSeconds = 120;
+    private int cacheRefreshThreads = 2;
+    private long cachePurgeIntervalMs = 60000;
+    private int decisionMemoMaxUsers = 10000;
+    private int decisionMemoMaxEntriesPerUser = 256;
+    private long decisionMemoTtlSeconds = 900;
+    private long tokenVersionSkewMs = 5000;
+    private int snapshotHistorySize = 256;
+    private long snapshotRefreshIntervalMs = 1000;
+
+    public boolean isBitsetTokenEncoding() {
+        return TOKEN_ENCODING_BITSET.equalsIgnoreCase(tokenEncoding);
+    }
+}
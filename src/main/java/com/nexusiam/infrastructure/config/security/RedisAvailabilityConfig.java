@@ -0,0 +1,13 @@
+package com.nexusiam.infrastructure.config.security;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.redis")
+@Data
+public class RedisAvailabilityConfig {
+
+    private long probeIntervalMs = 5000;
+}
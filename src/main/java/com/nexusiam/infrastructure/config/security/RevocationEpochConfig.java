@@ -0,0 +1,14 @@
+package com.nexusiam.infrastructure.config.security;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.revocation-epoch")
+@Data
+public class RevocationEpochConfig {
+
+    private long retentionSeconds = 86400;
+    private long resyncIntervalMs = 60000;
+}
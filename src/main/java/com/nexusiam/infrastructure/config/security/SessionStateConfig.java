@@ -0,0 +1,14 @@
+package com.nexusiam.infrastructure.config.security;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.session-state")
+@Data
+public class SessionStateConfig {
+
+    private int cacheMaxSize = 100000;
+    private long cacheTtlSeconds = 300;
+}
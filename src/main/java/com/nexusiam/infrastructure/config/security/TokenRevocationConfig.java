@@ -0,0 +1,22 @@
+package com.nexusiam.infrastructure.config.security;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.token-revocation")
+@Data
+public class TokenRevocationConfig {
+
+    private long defaultTtlSeconds = 86400;
+    private boolean legacyMigrationEnabled = true;
+    private long legacyMigrationIntervalMs = 60000;
+    private int legacyMigrationBatchSize = 500;
+    private boolean legacyDualWriteEnabled = true;
+    private boolean filterEnabled = true;
+    private int filterExpectedEntries = 100000;
+    private double filterFalsePositiveRate = 0.001;
+    private long filterRebuildIntervalMs = 600000;
+    private long filterPurgeIntervalMs = 30000;
+}
@@ -0,0 +1,294 @@
+package com.nexusiam.infrastructure.messaging;
+
+import com.nexusiam.infrastructure.config.security.BroadcastConfig;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+@Slf4j
+@Component
+public class ClusterBroadcaster {
+
+    private static final String METRIC_PREFIX = "iam.broadcast";
+    private static final String FORMAT_VERSION = "v2";
+    private static final String CONTROL_TOPIC = "";
+    private static final String HEARTBEAT = "";
+    private static final String LEAVING = "bye";
+
+    public interface Listener {
+
+        void onMessage(long version, String body);
+
+        void onResync();
+    }
+
+    private final BroadcastConfig config;
+    private final MeterRegistry meterRegistry;
+    private final ObjectProvider<RedisConnectionFactory> redisConnectionFactory;
+    private final ObjectProvider<RedisTemplate<String, String>> redisTemplate;
+    private final ObjectProvider<DataSource> dataSource;
+
+    private final String origin = UUID.randomUUID().toString();
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+    private final Map<String, Listener> listeners = new ConcurrentHashMap<>();
+    private final Map<String, Peer> peers = new ConcurrentHashMap<>();
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder received = new LongAdder();
+    private final LongAdder publishFailures = new LongAdder();
+    private final LongAdder gaps = new LongAdder();
+    private final LongAdder lostPeers = new LongAdder();
+
+    private volatile InvalidationTransport transport;
+
+    public ClusterBroadcaster(BroadcastConfig config,
+                              MeterRegistry meterRegistry,
+                              ObjectProvider<RedisConnectionFactory> redisConnectionFactory,
+                              ObjectProvider<RedisTemplate<String, String>> redisTemplate,
+                              ObjectProvider<DataSource> dataSource) {
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+        this.redisConnectionFactory = redisConnectionFactory;
+        this.redisTemplate = redisTemplate;
+        this.dataSource = dataSource;
+    }
+
+    @PostConstruct
+    public void start() {
+        FunctionCounter.builder(METRIC_PREFIX + ".published", published, LongAdder::sum).register(meterRegistry);
+        FunctionCounter.builder(METRIC_PREFIX + ".received", received, LongAdder::sum).register(meterRegistry);
+        FunctionCounter.builder(METRIC_PREFIX + ".publish.failures", publishFailures, LongAdder::sum)
+                .register(meterRegistry);
+        FunctionCounter.builder(METRIC_PREFIX + ".gaps", gaps, LongAdder::sum)
+                .description("Detected missed broadcasts that forced every listener to resync")
+                .register(meterRegistry);
+        FunctionCounter.builder(METRIC_PREFIX + ".peers.lost", lostPeers, LongAdder::sum)
+                .description("Peers that went silent without leaving, treated as missed broadcasts")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".peers", peers, Map::size).register(meterRegistry);
+
+        try {
+            transport = InvalidationTransports.create(config.getTransport(), config.getChannel(),
+                    redisConnectionFactory.getIfAvailable(), redisTemplate.getIfAvailable(),
+                    dataSource.getIfAvailable());
+            if (transport != null) {
+                transport.subscribe(this::onMessage, this::onSubscribed);
+                log.info("Cluster broadcaster started on {} transport (origin {})", transport.getName(), origin);
+            } else {
+                log.warn("Cluster broadcaster disabled, caches and revocations stay local to this instance");
+            }
+        } catch (Exception e) {
+            transport = null;
+            log.error("Failed to start cluster broadcaster, caches and revocations stay local: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (transport != null) {
+            sendControl(LEAVING);
+            transport.close();
+        }
+    }
+
+    public void register(String topic, Listener listener) {
+        if (topic == null || topic.isEmpty() || topic.indexOf('|') >= 0) {
+            throw new IllegalArgumentException("Invalid broadcast topic: " + topic);
+        }
+        if (listeners.putIfAbsent(topic, listener) != null) {
+            throw new IllegalStateException("Broadcast topic already registered: " + topic);
+        }
+    }
+
+    public boolean isActive() {
+        return transport != null;
+    }
+
+    public long nextVersion() {
+        long wallClock = System.currentTimeMillis() * 1000;
+        return clock.updateAndGet(previous -> Math.max(previous + 1, wallClock));
+    }
+
+    public long currentVersion() {
+        return clock.get();
+    }
+
+    public boolean publish(String topic, long version, String body) {
+        if (transport == null) {
+            return false;
+        }
+        synchronized (sequence) {
+            return send(sequence.incrementAndGet(), version, topic, body);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("transport", transport != null ? transport.getName() : "none");
+        stats.put("origin", origin);
+        stats.put("version", clock.get());
+        stats.put("published", published.sum());
+        stats.put("received", received.sum());
+        stats.put("publishFailures", publishFailures.sum());
+        stats.put("gaps", gaps.sum());
+        stats.put("knownOrigins", peers.size());
+        return stats;
+    }
+
+    @Scheduled(fixedDelayString = "${app.broadcast.heartbeat-interval-ms:5000}")
+    public void heartbeat() {
+        if (transport == null) {
+            return;
+        }
+        sendControl(HEARTBEAT);
+
+        long silentSince = System.currentTimeMillis() - config.getPeerTimeoutMs();
+        List<String> silent = new ArrayList<>();
+        peers.forEach((peerOrigin, peer) -> {
+            if (peer.lastHeardAt < silentSince) {
+                silent.add(peerOrigin);
+            }
+        });
+        if (silent.isEmpty()) {
+            return;
+        }
+        silent.forEach(peers::remove);
+        lostPeers.add(silent.size());
+        log.warn("No broadcasts from {} peer(s) for {} ms, resyncing", silent.size(), config.getPeerTimeoutMs());
+        resync();
+    }
+
+    void onMessage(String payload) {
+        String[] parts = payload != null ? payload.split("\\|", 6) : new String[0];
+        if (parts.length != 6 || !FORMAT_VERSION.equals(parts[0])) {
+            log.warn("Ignoring malformed cluster broadcast: {}", payload);
+            return;
+        }
+        if (origin.equals(parts[1])) {
+            return;
+        }
+
+        long seq;
+        long version;
+        try {
+            seq = Long.parseLong(parts[2]);
+            version = Long.parseLong(parts[3]);
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed cluster broadcast: {}", payload);
+            return;
+        }
+
+        received.increment();
+        clock.accumulateAndGet(version, Math::max);
+
+        String topic = parts[4];
+        boolean control = CONTROL_TOPIC.equals(topic);
+        if (control && LEAVING.equals(parts[5])) {
+            peers.remove(parts[1]);
+            return;
+        }
+
+        if (trackSequence(parts[1], seq, control)) {
+            resync();
+        }
+        if (control) {
+            return;
+        }
+
+        Listener listener = listeners.get(topic);
+        if (listener == null) {
+            return;
+        }
+        try {
+            listener.onMessage(version, parts[5]);
+        } catch (Exception e) {
+            log.error("Failed to apply {} broadcast {}: {}", topic, payload, e.getMessage());
+        }
+    }
+
+    private boolean trackSequence(String peerOrigin, long seq, boolean control) {
+        long now = System.currentTimeMillis();
+        Peer peer = peers.computeIfAbsent(peerOrigin, key -> new Peer(control ? seq : seq - 1, now));
+        synchronized (peer) {
+            long expected = control ? seq : seq - 1;
+            boolean gap = peer.lastSequence < expected;
+            if (gap) {
+                log.warn("Missed {} broadcasts from {}, resyncing", expected - peer.lastSequence, peerOrigin);
+            }
+            peer.lastSequence = Math.max(peer.lastSequence, seq);
+            peer.lastHeardAt = now;
+            return gap;
+        }
+    }
+
+    private void onSubscribed() {
+        if (subscribed.compareAndSet(false, true)) {
+            return;
+        }
+        log.warn("Cluster broadcast subscription re-established, broadcasts may have been missed");
+        peers.clear();
+        resync();
+    }
+
+    private void resync() {
+        gaps.increment();
+        listeners.forEach((topic, listener) -> {
+            try {
+                listener.onResync();
+            } catch (Exception e) {
+                log.error("Failed to resync {} after missed broadcasts: {}", topic, e.getMessage());
+            }
+        });
+    }
+
+    private void sendControl(String body) {
+        synchronized (sequence) {
+            send(sequence.get(), clock.get(), CONTROL_TOPIC, body);
+        }
+    }
+
+    private boolean send(long seq, long version, String topic, String body) {
+        String payload = String.join("|", FORMAT_VERSION, origin, Long.toString(seq), Long.toString(version),
+                topic, body);
+        try {
+            transport.publish(payload);
+            published.increment();
+            return true;
+        } catch (Exception e) {
+            publishFailures.increment();
+            log.error("Failed to publish {} broadcast: {}", topic.isEmpty() ? "control" : topic, e.getMessage());
+            return false;
+        }
+    }
+
+    private static final class Peer {
+        long lastSequence;
+        volatile long lastHeardAt;
+
+        Peer(long lastSequence, long lastHeardAt) {
+            this.lastSequence = lastSequence;
+            this.lastHeardAt = lastHeardAt;
+        }
+    }
+}
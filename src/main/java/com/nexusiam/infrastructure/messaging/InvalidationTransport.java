@@ -0,0 +1,14 @@
+package com.nexusiam.infrastructure.messaging;
+
+import java.util.function.Consumer;
+
+public interface InvalidationTransport {
+
+    String getName();
+
+    void publish(String payload);
+
+    void subscribe(Consumer<String> listener, Runnable onSubscribed);
+
+    void close();
+}
@@ -0,0 +1,52 @@
+package com.nexusiam.infrastructure.messaging;
+
+import com.nexusiam.infrastructure.config.security.BroadcastConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import javax.sql.DataSource;
+
+@Slf4j
+public final class InvalidationTransports {
+
+    private InvalidationTransports() {
+    }
+
+    public static InvalidationTransport create(String mode, String channel,
+                                               RedisConnectionFactory redisConnectionFactory,
+                                               RedisTemplate<String, String> redisTemplate,
+                                               DataSource dataSource) {
+        switch (mode == null ? BroadcastConfig.TRANSPORT_AUTO : mode.toLowerCase()) {
+            case BroadcastConfig.TRANSPORT_NONE:
+                return null;
+            case BroadcastConfig.TRANSPORT_LOCAL:
+                return new LocalInvalidationTransport(channel);
+            case BroadcastConfig.TRANSPORT_REDIS:
+                return redis(channel, redisConnectionFactory, redisTemplate);
+            case BroadcastConfig.TRANSPORT_POSTGRES:
+                return postgres(channel, dataSource);
+            default:
+                if (RedisInvalidationTransport.isReachable(redisConnectionFactory)) {
+                    return redis(channel, redisConnectionFactory, redisTemplate);
+                }
+                log.info("Redis not reachable, using Postgres LISTEN/NOTIFY for channel {}", channel);
+                return postgres(channel, dataSource);
+        }
+    }
+
+    private static InvalidationTransport redis(String channel, RedisConnectionFactory factory,
+                                               RedisTemplate<String, String> template) {
+        if (factory == null || template == null) {
+            throw new IllegalStateException("Redis invalidation transport requested but Redis is not configured");
+        }
+        return new RedisInvalidationTransport(factory, template, channel);
+    }
+
+    private static InvalidationTransport postgres(String channel, DataSource dataSource) {
+        if (dataSource == null) {
+            throw new IllegalStateException("Postgres invalidation transport requested but no DataSource is available");
+        }
+        return new PostgresInvalidationTransport(dataSource, channel);
+    }
+}
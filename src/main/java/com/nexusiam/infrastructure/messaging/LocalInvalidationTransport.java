@@ -0,0 +1,45 @@
+package com.nexusiam.infrastructure.messaging;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+public class LocalInvalidationTransport implements InvalidationTransport {
+
+    private static final Map<String, List<Consumer<String>>> CHANNELS = new ConcurrentHashMap<>();
+
+    private final String channel;
+    private Consumer<String> listener;
+
+    public LocalInvalidationTransport(String channel) {
+        this.channel = channel;
+    }
+
+    @Override
+    public String getName() {
+        return "local";
+    }
+
+    @Override
+    public void publish(String payload) {
+        for (Consumer<String> subscriber : CHANNELS.getOrDefault(channel, List.of())) {
+            subscriber.accept(payload);
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<String> listener, Runnable onSubscribed) {
+        this.listener = listener;
+        CHANNELS.computeIfAbsent(channel, key -> new CopyOnWriteArrayList<>()).add(listener);
+        onSubscribed.run();
+    }
+
+    @Override
+    public void close() {
+        if (listener != null) {
+            CHANNELS.getOrDefault(channel, List.of()).remove(listener);
+        }
+    }
+}
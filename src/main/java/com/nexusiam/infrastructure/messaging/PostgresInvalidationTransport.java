@@ -0,0 +1,109 @@
+package com.nexusiam.infrastructure.messaging;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+@Slf4j
+public class PostgresInvalidationTransport implements InvalidationTransport {
+
+    private static final Pattern CHANNEL_NAME = Pattern.compile("[a-z_][a-z0-9_]{0,62}");
+    private static final int POLL_TIMEOUT_MS = 1000;
+    private static final long MAX_BACKOFF_MS = 30000;
+
+    private final DataSource dataSource;
+    private final String channel;
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    public PostgresInvalidationTransport(DataSource dataSource, String channel) {
+        if (!CHANNEL_NAME.matcher(channel).matches()) {
+            throw new IllegalArgumentException("Invalid Postgres notification channel: " + channel);
+        }
+        this.dataSource = dataSource;
+        this.channel = channel;
+    }
+
+    @Override
+    public String getName() {
+        return "postgres";
+    }
+
+    @Override
+    public void publish(String payload) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+            statement.setString(1, channel);
+            statement.setString(2, payload);
+            statement.execute();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to publish invalidation via pg_notify: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<String> listener, Runnable onSubscribed) {
+        running = true;
+        listenerThread = new Thread(() -> listen(listener, onSubscribed), "cluster-broadcast-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+    }
+
+    private void listen(Consumer<String> listener, Runnable onSubscribed) {
+        long backoffMs = 1000;
+
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                connection.setAutoCommit(true);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+
+                Class<?> pgConnectionClass = Class.forName("org.postgresql.PGConnection");
+                Object pgConnection = connection.unwrap(pgConnectionClass);
+                Method getNotifications = pgConnectionClass.getMethod("getNotifications", int.class);
+                Method getParameter = Class.forName("org.postgresql.PGNotification").getMethod("getParameter");
+
+                log.info("Listening for cluster broadcasts on Postgres channel {}", channel);
+                onSubscribed.run();
+                backoffMs = 1000;
+
+                while (running) {
+                    Object notifications = getNotifications.invoke(pgConnection, POLL_TIMEOUT_MS);
+                    int count = notifications == null ? 0 : Array.getLength(notifications);
+                    for (int i = 0; i < count; i++) {
+                        listener.accept((String) getParameter.invoke(Array.get(notifications, i)));
+                    }
+                }
+            } catch (Exception e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Postgres invalidation listener failed, retrying in {} ms: {}", backoffMs, e.getMessage());
+                try {
+                    Thread.sleep(backoffMs);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                backoffMs = Math.min(backoffMs * 2, MAX_BACKOFF_MS);
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.nexusiam.infrastructure.messaging;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+@Slf4j
+public class RedisInvalidationTransport implements InvalidationTransport {
+
+    private final RedisConnectionFactory connectionFactory;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final String channel;
+    private RedisMessageListenerContainer container;
+
+    public RedisInvalidationTransport(RedisConnectionFactory connectionFactory,
+                                      RedisTemplate<String, String> redisTemplate,
+                                      String channel) {
+        this.connectionFactory = connectionFactory;
+        this.redisTemplate = redisTemplate;
+        this.channel = channel;
+    }
+
+    public static boolean isReachable(RedisConnectionFactory connectionFactory) {
+        if (connectionFactory == null) {
+            return false;
+        }
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            return "PONG".equalsIgnoreCase(connection.ping());
+        } catch (Exception e) {
+            log.debug("Redis not reachable for invalidation bus: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "redis";
+    }
+
+    @Override
+    public void publish(String payload) {
+        redisTemplate.convertAndSend(channel, payload);
+    }
+
+    @Override
+    public void subscribe(Consumer<String> listener, Runnable onSubscribed) {
+        container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.setTaskExecutor(new SyncTaskExecutor());
+        container.addMessageListener(
+                (message, pattern) -> listener.accept(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(channel));
+        container.setErrorHandler(e -> {
+            log.warn("Redis invalidation subscription error, treating as missed messages: {}", e.getMessage());
+            onSubscribed.run();
+        });
+        container.afterPropertiesSet();
+        container.start();
+        onSubscribed.run();
+        log.info("Subscribed to Redis invalidation channel {}", channel);
+    }
+
+    @Override
+    public void close() {
+        if (container != null) {
+            try {
+                container.stop();
+                container.destroy();
+            } catch (Exception e) {
+                log.debug("Error stopping Redis invalidation listener: {}", e.getMessage());
+            }
+        }
+    }
+}
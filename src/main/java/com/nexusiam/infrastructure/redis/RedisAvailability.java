@@ -0,0 +1,132 @@
+package com.nexusiam.infrastructure.redis;
+
+import com.nexusiam.infrastructure.config.security.RedisAvailabilityConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Component
+public class RedisAvailability {
+
+    public static final String CIRCUIT_BREAKER_NAME = "redis";
+
+    private static final String METRIC_PREFIX = "iam.redis";
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final CircuitBreaker circuitBreaker;
+    private final RedisAvailabilityConfig config;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, Counter> fallbackCounters = new ConcurrentHashMap<>();
+    private ScheduledExecutorService prober;
+
+    public RedisAvailability(ObjectProvider<RedisTemplate<String, String>> redisTemplate,
+                             CircuitBreakerRegistry circuitBreakerRegistry,
+                             RedisAvailabilityConfig config,
+                             MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate.getIfAvailable();
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(CIRCUIT_BREAKER_NAME);
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void start() {
+        Gauge.builder(METRIC_PREFIX + ".available", this, availability -> availability.isAvailable() ? 1 : 0)
+                .description("Whether Redis is currently used (1) or bypassed in favour of the database (0)")
+                .register(meterRegistry);
+
+        circuitBreaker.getEventPublisher().onStateTransition(event -> {
+            CircuitBreaker.StateTransition transition = event.getStateTransition();
+            Counter.builder(METRIC_PREFIX + ".state.transitions")
+                    .tag("from", transition.getFromState().name())
+                    .tag("to", transition.getToState().name())
+                    .register(meterRegistry)
+                    .increment();
+            log.warn("Redis availability changed: {} -> {}", transition.getFromState(), transition.getToState());
+        });
+
+        if (redisTemplate == null) {
+            log.warn("Redis is not configured, dual-storage services will use the database only");
+            return;
+        }
+
+        prober = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "redis-availability-prober");
+            thread.setDaemon(true);
+            return thread;
+        });
+        prober.scheduleWithFixedDelay(this::probe, 0, Math.max(100, config.getProbeIntervalMs()), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (prober != null) {
+            prober.shutdownNow();
+        }
+    }
+
+    // HALF_OPEN lets trial traffic through so real calls can close the breaker alongside the prober
+    public boolean isAvailable() {
+        if (redisTemplate == null) {
+            return false;
+        }
+        CircuitBreaker.State state = circuitBreaker.getState();
+        return state != CircuitBreaker.State.OPEN && state != CircuitBreaker.State.FORCED_OPEN;
+    }
+
+    public void recordSuccess() {
+        if (isAvailable()) {
+            circuitBreaker.onSuccess(0, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void recordFailure(Throwable error) {
+        circuitBreaker.onError(0, TimeUnit.NANOSECONDS, error);
+    }
+
+    public void recordFallback(String component) {
+        fallbackCounters.computeIfAbsent(component, key -> Counter.builder(METRIC_PREFIX + ".fallbacks")
+                .description("Operations served from the database because Redis was unavailable")
+                .tag("component", key)
+                .register(meterRegistry))
+                .increment();
+    }
+
+    // Probes are ordinary calls to the breaker: they count towards the failure-rate window and,
+    // once the open wait has elapsed, act as half-open trial calls instead of forcing transitions
+    void probe() {
+        if (!circuitBreaker.tryAcquirePermission()) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            String reply = redisTemplate.execute((RedisCallback<String>) RedisConnection::ping);
+            if (!"PONG".equalsIgnoreCase(reply)) {
+                throw new DataAccessResourceFailureException("Unexpected PING reply: " + reply);
+            }
+            circuitBreaker.onSuccess(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        } catch (Exception e) {
+            log.debug("Redis probe failed: {}", e.getMessage());
+            circuitBreaker.onError(System.nanoTime() - start, TimeUnit.NANOSECONDS, e);
+        }
+    }
+}
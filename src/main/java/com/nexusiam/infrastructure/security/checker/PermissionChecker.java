@@ -2,12 +2,11 @@ package com.nexusiam.infrastructure.security.checker;
 
 import com.nexusiam.infrastructure.security.context.ExchangeUserDetails;
 import com.nexusiam.core.domain.entity.InternalUser;
-import com.nexusiam.core.domain.entity.UserApiMapping;
-import com.nexusiam.core.domain.entity.ApiSource;
-import com.nexusiam.core.domain.repository.UserApiMappingRepository;
 import com.nexusiam.core.domain.repository.InternalUserRepository;
-import com.nexusiam.core.domain.repository.ApiSourceRepository;
 import com.nexusiam.application.service.authorization.PermissionCacheService;
+import com.nexusiam.application.service.authorization.UserPermissionLoader;
+import com.nexusiam.infrastructure.util.JwtTokenUtil;
+import com.nexusiam.infrastructure.util.ParsedInternalToken;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.Authentication;
@@ -18,17 +17,16 @@ import org.springframework.stereotype.Component;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Slf4j
 @Component("permissionChecker")
 @RequiredArgsConstructor
 public class PermissionChecker {
 
-    private final UserApiMappingRepository mappingRepository;
     private final InternalUserRepository userRepository;
-    private final ApiSourceRepository apiSourceRepository;
     private final PermissionCacheService cacheService;
+    private final UserPermissionLoader permissionLoader;
+    private final JwtTokenUtil jwtTokenUtil;
 
     public boolean hasRole(String role) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -98,12 +96,7 @@ public class PermissionChecker {
 
         try {
 
-            List<UserApiMapping> mappings = mappingRepository.findUserAccessibleApisWithDetails(userId);
-            return mappings.stream()
-                    .anyMatch(mapping -> {
-                        ApiSource apiSource = apiSourceRepository.findById(mapping.getApiSourceId()).orElse(null);
-                        return apiSource != null && apiPath.equals(apiSource.getApiPath());
-                    });
+            return cacheService.hasAnyAccess(userId, apiPath);
         } catch (Exception e) {
             log.error("Error checking API access for user {}: {}", userId, e.getMessage());
             return false;
@@ -122,13 +115,7 @@ public class PermissionChecker {
             return List.of();
         }
 
-        List<UserApiMapping> mappings = mappingRepository.findUserAccessibleApisWithDetails(userId);
-        return mappings.stream()
-                .map(mapping -> apiSourceRepository.findById(mapping.getApiSourceId()).orElse(null))
-                .filter(apiSource -> apiSource != null)
-                .map(apiSource -> apiSource.getApiPath())
-                .distinct()
-                .collect(Collectors.toList());
+        return permissionLoader.load(userId).getApiPaths();
     }
 
     public boolean hasApiPermissionWithFallback(Long userId, String apiPath, String httpMethod, String... fallbackRoles) {
@@ -159,6 +146,12 @@ public class PermissionChecker {
                 String email = ((org.springframework.security.core.userdetails.User) principal).getUsername();
                 log.debug("Extracted email from principal: {}", email);
 
+                ParsedInternalToken parsedToken = jwtTokenUtil.getCurrentRequestToken();
+                if (parsedToken != null && email.equals(parsedToken.getEmail()) && parsedToken.getUserId() != null) {
+                    log.debug("Using user ID {} from request token for email {}", parsedToken.getUserId(), email);
+                    return parsedToken.getUserId();
+                }
+
                 Optional<InternalUser> userOpt = userRepository.findByEmailAndIsDeletedFalse(email);
                 if (userOpt.isPresent()) {
                     Long userId = userOpt.get().getId();
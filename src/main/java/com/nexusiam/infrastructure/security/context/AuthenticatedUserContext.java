@@ -9,6 +9,8 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 
+import java.util.Map;
+
 @Component
 @RequiredArgsConstructor
 @Slf4j
@@ -140,6 +142,14 @@ public class AuthenticatedUserContext {
                 return null;
             }
 
+            if (authentication.getPrincipal() instanceof ExchangeUserDetails) {
+                Map<String, Object> registrations = ((ExchangeUserDetails) authentication.getPrincipal()).getRegistrations();
+                if (registrations != null) {
+                    log.debug("[Auth Context] Extracted registrations from SSO principal");
+                    return registrations;
+                }
+            }
+
             Object credentials = authentication.getCredentials();
             if (credentials instanceof String) {
                 String token = (String) credentials;
@@ -1,16 +1,45 @@
 package com.nexusiam.infrastructure.security.context;
 
+import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 
 import java.util.Map;
+import java.util.function.Supplier;
 
 @Data
 @Builder
 public class ExchangeUserDetails {
     private String profileId;
     private String grpId;
-    private Map<String, Object> registrations;
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private volatile Map<String, Object> registrations;
     private String currentRole;
     private Object roles;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Supplier<Map<String, Object>> registrationsLoader;
+
+    public Map<String, Object> getRegistrations() {
+        Map<String, Object> loaded = registrations;
+        if (loaded != null) {
+            return loaded;
+        }
+
+        synchronized (this) {
+            if (registrations == null && registrationsLoader != null) {
+                registrations = registrationsLoader.get();
+                registrationsLoader = null;
+            }
+            return registrations;
+        }
+    }
 }
@@ -1,10 +1,12 @@
 package com.nexusiam.infrastructure.security.filter;
 
 import com.nexusiam.application.service.token.CustomTokenService;
+import com.nexusiam.application.service.token.RevocationEpochService;
 import com.nexusiam.infrastructure.security.context.CustomUserDetailsService;
 import com.nexusiam.infrastructure.security.context.ExchangeUserDetails;
 import com.nexusiam.application.service.session.SessionManagementService;
 import com.nexusiam.infrastructure.util.JwtTokenUtil;
+import com.nexusiam.infrastructure.util.ParsedInternalToken;
 import com.nimbusds.jwt.JWTClaimsSet;
 
 import org.springframework.lang.NonNull;
@@ -32,7 +34,6 @@ import lombok.extern.slf4j.Slf4j;
 
 import java.io.IOException;
 import java.util.Collection;
-import java.util.Map;
 
 @Slf4j
 @Component
@@ -43,6 +44,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final JwtTokenUtil jwtTokenUtil;
     private final SessionManagementService sessionManagementService;
     private final CustomUserDetailsService userDetailsService;
+    private final TokenDispatcher tokenDispatcher;
+    private final RevocationEpochService revocationEpochService;
 
     @Override
     protected void doFilterInternal(
@@ -61,11 +64,25 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         String token = extractToken(request);
 
         try {
-            if (token != null) {
-                if (customTokenService.isCustomToken(token)) {
+            TokenDispatcher.Route route = token != null ? tokenDispatcher.dispatch(token) : null;
+
+            if (route == TokenDispatcher.Route.REJECTED) {
+                log.warn("Rejected malformed or unsupported bearer token");
+            } else if (token != null) {
+                if (route == TokenDispatcher.Route.CUSTOM_SSO) {
                     JWTClaimsSet claims = customTokenService.validateAndParseToken(token);
                     String profileId = claims.getSubject();
 
+                    if (revocationEpochService.isRevoked(profileId, (String) claims.getClaim("grp_id"),
+                            (String) claims.getClaim("current_role"), claims.getIssueTime())) {
+                        log.warn("SSO token issued before revocation cutoff for profileId: {}", profileId);
+                        SecurityContextHolder.clearContext();
+                        response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+                        response.setContentType("application/json");
+                        response.getWriter().write("{\"error\":\"Token revoked\"}");
+                        return;
+                    }
+
                     if (!sessionManagementService.validateSSOSession(token)) {
                         log.warn("Invalid SSO session detected for profileId: {}", profileId);
                         SecurityContextHolder.clearContext();
@@ -78,7 +95,6 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                     log.debug("Processing SSO Exchange token for profileId: {}", profileId);
 
                     String grpId = (String) claims.getClaim("grp_id");
-                    Map<String, Object> registrations = claims.getJSONObjectClaim("registrations");
                     String currentRole = (String) claims.getClaim("current_role");
                     Object availableRolesObj = claims.getClaim("available_roles");
 
@@ -107,7 +123,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                     ExchangeUserDetails userDetails = ExchangeUserDetails.builder()
                             .profileId(profileId)
                             .grpId(grpId)
-                            .registrations(registrations)
+                            .registrationsLoader(() -> customTokenService.resolveRegistrations(claims))
                             .currentRole(currentRole)
                             .roles(availableRolesObj)
                             .build();
@@ -130,8 +146,20 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 else {
                     log.debug("Processing internal user JWT token");
 
-                    if (jwtTokenUtil.isTokenValid(token) && jwtTokenUtil.isAccessToken(token)) {
-                        String email = jwtTokenUtil.extractEmail(token);
+                    ParsedInternalToken parsedToken = jwtTokenUtil.resolve(token);
+
+                    if (parsedToken != null && parsedToken.isValid() && parsedToken.isAccessToken()) {
+                        String email = parsedToken.getEmail();
+
+                        if (revocationEpochService.isRevoked(email, null, parsedToken.getRole(),
+                                parsedToken.getClaims().getIssuedAt())) {
+                            log.warn("Internal token issued before revocation cutoff for email: {}", email);
+                            SecurityContextHolder.clearContext();
+                            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+                            response.setContentType("application/json");
+                            response.getWriter().write("{\"error\":\"Token revoked\"}");
+                            return;
+                        }
 
                         log.debug("Internal token validated for email: {}", email);
 
@@ -205,11 +233,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 try {
                     if (isSSORefresh) {
 
-                        if (customTokenService.isCustomToken(refreshToken)) {
+                        if (tokenDispatcher.dispatch(refreshToken) == TokenDispatcher.Route.CUSTOM_SSO) {
                             JWTClaimsSet claims = customTokenService.validateAndParseToken(refreshToken);
                             String profileId = claims.getSubject();
                             String currentRole = (String) claims.getClaim("current_role");
 
+                            if (revocationEpochService.isRevoked(profileId, (String) claims.getClaim("grp_id"),
+                                    currentRole, claims.getIssueTime())) {
+                                log.warn("SSO refresh token issued before revocation cutoff for profileId: {}", profileId);
+                                filterChain.doFilter(cachedRequest, response);
+                                return;
+                            }
+
                             log.debug("SSO refresh token valid for profileId: {}, role: {}", profileId, currentRole);
 
                             Collection<SimpleGrantedAuthority> authorities = new java.util.ArrayList<>();
@@ -242,10 +277,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                         }
                     } else {
 
-                        if (jwtTokenUtil.isTokenValid(refreshToken) && jwtTokenUtil.isRefreshToken(refreshToken)) {
+                        ParsedInternalToken parsedRefreshToken = jwtTokenUtil.resolve(refreshToken);
+
+                        if (parsedRefreshToken != null && parsedRefreshToken.isValid() && parsedRefreshToken.isRefreshToken()
+                                && !revocationEpochService.isRevoked(parsedRefreshToken.getEmail(), null,
+                                        parsedRefreshToken.getRole(), parsedRefreshToken.getClaims().getIssuedAt())) {
 
-                        String email = jwtTokenUtil.extractEmail(refreshToken);
-                        String role = jwtTokenUtil.getRole(refreshToken);
+                        String email = parsedRefreshToken.getEmail();
+                        String role = parsedRefreshToken.getRole();
 
                         log.debug("Refresh token valid for email: {}, role: {}", email, role);
 
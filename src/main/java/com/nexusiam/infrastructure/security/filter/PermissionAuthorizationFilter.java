@@ -1,10 +1,14 @@
 package com.nexusiam.infrastructure.security.filter;
 
+import com.nexusiam.application.service.authorization.ApiSourceIndex;
+import com.nexusiam.application.service.authorization.AuthorizationDecisionMemo;
+import com.nexusiam.application.service.authorization.PermissionCacheService;
+import com.nexusiam.application.service.authorization.PermissionInvalidationBus;
 import com.nexusiam.infrastructure.security.context.ExchangeUserDetails;
-import com.nexusiam.core.domain.entity.UserApiMapping;
 import com.nexusiam.core.domain.repository.UserApiMappingRepository;
+import com.nexusiam.infrastructure.security.matcher.RouteMatcherCache;
 import com.nexusiam.infrastructure.util.JwtTokenUtil;
-import com.nexusiam.core.domain.repository.ApiSourceRepository;
+import com.nexusiam.infrastructure.util.ParsedInternalToken;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -19,8 +23,8 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Slf4j
 @Component
@@ -29,7 +33,11 @@ public class PermissionAuthorizationFilter extends OncePerRequestFilter {
 
     private final JwtTokenUtil jwtTokenUtil;
     private final UserApiMappingRepository mappingRepository;
-    private final ApiSourceRepository apiSourceRepository;
+    private final ApiSourceIndex apiSourceIndex;
+    private final PermissionCacheService permissionCacheService;
+    private final AuthorizationDecisionMemo decisionMemo;
+    private final PermissionInvalidationBus invalidationBus;
+    private final RouteMatcherCache routeMatcherCache;
 
     private static final List<String> WHITELIST_PATHS = Arrays.asList(
         "/exchange/v1/int/auth/login",
@@ -99,21 +107,25 @@ public class PermissionAuthorizationFilter extends OncePerRequestFilter {
         }
 
         String token = authHeader.substring(7);
+        ParsedInternalToken parsedToken = jwtTokenUtil.resolve(token);
 
-        if (!hasEmbeddedPermissions(token)) {
+        if (!hasEmbeddedPermissions(parsedToken)) {
             log.debug("Token does not have embedded permissions, falling back to role-based auth");
             filterChain.doFilter(request, response);
             return;
         }
 
-        boolean hasPermission = checkPermission(token, requestPath, httpMethod);
+        boolean hasPermission = checkPermission(parsedToken, requestPath, httpMethod);
 
         if (hasPermission) {
             log.debug("Permission granted for {} {} by token", httpMethod, requestPath);
             filterChain.doFilter(request, response);
+        } else if (isDenialFinal(parsedToken, requestPath, httpMethod)) {
+            log.warn("Permission denied for {} {} - token permissions are current", httpMethod, requestPath);
+            sendPermissionDeniedResponse(response, requestPath, httpMethod);
         } else {
 
-            boolean hasDatabasePermission = checkDatabasePermission(token, requestPath, httpMethod);
+            boolean hasDatabasePermission = checkDatabasePermission(parsedToken, requestPath, httpMethod);
 
             if (hasDatabasePermission) {
                 log.debug("Permission granted for {} {} by database fallback", httpMethod, requestPath);
@@ -134,25 +146,23 @@ public class PermissionAuthorizationFilter extends OncePerRequestFilter {
         return PUBLIC_AUTHENTICATED_PATHS.stream().anyMatch(path::startsWith);
     }
 
-    private boolean hasEmbeddedPermissions(String token) {
-        try {
-            Integer permissionCount = jwtTokenUtil.getPermissionCount(token);
-            return permissionCount != null && permissionCount > 0;
-        } catch (Exception e) {
-            log.debug("Error checking for embedded permissions: {}", e.getMessage());
-            return false;
-        }
+    private boolean hasEmbeddedPermissions(ParsedInternalToken parsedToken) {
+        return parsedToken != null && parsedToken.getPermissionCount() > 0;
     }
 
-    private boolean checkPermission(String token, String requestPath, String httpMethod) {
+    private boolean checkPermission(ParsedInternalToken parsedToken, String requestPath, String httpMethod) {
         try {
 
-            if (jwtTokenUtil.hasPermissionInToken(token, requestPath, httpMethod)) {
+            if (parsedToken.hasPermissionBits()) {
+                return checkPermissionBits(parsedToken, requestPath, httpMethod);
+            }
+
+            if (parsedToken.hasPermission(requestPath, httpMethod)) {
                 return true;
             }
 
-            List<String> compactPermissions = jwtTokenUtil.getCompactPermissions(token);
-            return matchesWildcardPermission(compactPermissions, requestPath, httpMethod);
+            return routeMatcherCache.get(parsedToken.getPermissionSetKey(), parsedToken::getCompactPermissions)
+                    .matches(httpMethod, requestPath);
 
         } catch (Exception e) {
             log.error("Error checking permission from token: {}", e.getMessage());
@@ -160,121 +170,63 @@ public class PermissionAuthorizationFilter extends OncePerRequestFilter {
         }
     }
 
-    private boolean checkDatabasePermission(String token, String requestPath, String httpMethod) {
-        try {
-            Long userId = jwtTokenUtil.getUserId(token);
-            if (userId == null) {
-                return false;
-            }
-
-            if (mappingRepository.hasPermission(userId, requestPath, httpMethod)) {
-                return true;
-            }
-
-            return checkWildcardDatabasePermission(userId, requestPath, httpMethod);
-
-        } catch (Exception e) {
-            log.error("Error checking database permission: {}", e.getMessage());
+    private boolean checkPermissionBits(ParsedInternalToken parsedToken, String requestPath, String httpMethod) {
+        ApiSourceIndex.Snapshot snapshot = apiSourceIndex.forVersion(parsedToken.getPermissionIndexVersion());
+        if (snapshot == null) {
+            log.debug("Permission index version {} unavailable, deferring to database check",
+                    parsedToken.getPermissionIndexVersion());
             return false;
         }
-    }
-
-    private boolean matchesWildcardPermission(List<String> permissions, String requestPath, String httpMethod) {
-        String permString = httpMethod.toUpperCase() + ":" + requestPath;
-
-        for (String permission : permissions) {
-
-            if (permission.equals(permString)) {
-                return true;
-            }
 
-            if (matchesPattern(permission, permString)) {
-                return true;
-            }
+        BitSet bits = parsedToken.getPermissionBits();
+        if (snapshot.hasPermission(bits, requestPath, httpMethod)) {
+            return true;
         }
 
-        return false;
+        return routeMatcherCache.get(parsedToken.getPermissionSetKey(), () -> snapshot.decode(bits))
+                .matches(httpMethod, requestPath);
     }
 
-    private boolean checkWildcardDatabasePermission(Long userId, String requestPath, String httpMethod) {
-        try {
-
-            List<UserApiMapping> mappings = mappingRepository.findUserAccessibleApisWithDetails(userId);
-
-            List<String> accessiblePaths = mappings.stream()
-                    .map(m -> apiSourceRepository.findById(m.getApiSourceId()).orElse(null))
-                    .filter(apiSource -> apiSource != null)
-                    .map(apiSource -> apiSource.getApiPath())
-                    .distinct()
-                    .collect(Collectors.toList());
-
-            for (String apiPath : accessiblePaths) {
-                if (matchesPathPattern(apiPath, requestPath)) {
-
-                    return mappingRepository.hasPermission(userId, apiPath, httpMethod);
-                }
-            }
-
-            return false;
-        } catch (Exception e) {
-            log.error("Error checking wildcard database permission: {}", e.getMessage());
+    private boolean isDenialFinal(ParsedInternalToken parsedToken, String requestPath, String httpMethod) {
+        Long userId = parsedToken.getUserId();
+        if (userId == null || !parsedToken.hasPermissionVersion()) {
             return false;
         }
-    }
-
-    private boolean matchesPattern(String pattern, String actual) {
 
-        String[] patternParts = pattern.split(":", 2);
-        String[] actualParts = actual.split(":", 2);
-
-        if (patternParts.length != 2 || actualParts.length != 2) {
+        if (parsedToken.hasPermissionBits()
+                && apiSourceIndex.forVersion(parsedToken.getPermissionIndexVersion()) == null) {
             return false;
         }
 
-        String patternMethod = patternParts[0];
-        String patternPath = patternParts[1];
-        String actualMethod = actualParts[0];
-        String actualPath = actualParts[1];
-
-        if (!patternMethod.equals(actualMethod)) {
+        if (!invalidationBus.isTokenVersionCurrent(
+                userId, parsedToken.getPermissionVersion(), parsedToken.getPermissionAsOf())) {
             return false;
         }
 
-        return matchesPathPattern(patternPath, actualPath);
+        String normalizedPath = AuthorizationDecisionMemo.normalizePath(requestPath);
+        return normalizedPath.equals(requestPath) || !checkPermission(parsedToken, normalizedPath, httpMethod);
     }
 
-    private boolean matchesPathPattern(String pattern, String path) {
-
-        if (pattern.equals(path)) {
-            return true;
-        }
+    private boolean checkDatabasePermission(ParsedInternalToken parsedToken, String requestPath, String httpMethod) {
+        try {
+            Long userId = parsedToken.getUserId();
+            if (userId == null) {
+                return false;
+            }
 
-        if (pattern.endsWith("/*")) {
-            String prefix = pattern.substring(0, pattern.length() - 2);
-            return path.startsWith(prefix);
-        }
+            if (!invalidationBus.isDistributed()
+                    && mappingRepository.hasPermission(userId, requestPath, httpMethod)) {
+                return true;
+            }
 
-        String[] patternSegments = pattern.split("/");
-        String[] pathSegments = path.split("/");
+            String normalizedPath = AuthorizationDecisionMemo.normalizePath(requestPath);
+            return decisionMemo.decide(userId, httpMethod, normalizedPath,
+                    () -> permissionCacheService.hasPermission(userId, normalizedPath, httpMethod));
 
-        if (patternSegments.length != pathSegments.length) {
+        } catch (Exception e) {
+            log.error("Error checking database permission: {}", e.getMessage());
             return false;
         }
-
-        for (int i = 0; i < patternSegments.length; i++) {
-            String patternSegment = patternSegments[i];
-            String pathSegment = pathSegments[i];
-
-            if (patternSegment.startsWith(":")) {
-                continue;
-            }
-
-            if (!patternSegment.equals(pathSegment)) {
-                return false;
-            }
-        }
-
-        return true;
     }
 
     private void sendPermissionDeniedResponse(
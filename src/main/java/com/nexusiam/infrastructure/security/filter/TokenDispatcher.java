@@ -0,0 +1,96 @@
+package com.nexusiam.infrastructure.security.filter;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.util.Base64URL;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.text.ParseException;
+
+@Slf4j
+@Component
+public class TokenDispatcher {
+
+    private static final int MAX_TOKEN_LENGTH = 16 * 1024;
+    private static final int MAX_HEADER_SEGMENT_LENGTH = 1024;
+
+    public enum Route {
+        CUSTOM_SSO,
+        INTERNAL,
+        REJECTED
+    }
+
+    public Route dispatch(String token) {
+        JWSAlgorithm algorithm = peekAlgorithm(token);
+        if (algorithm == null) {
+            return Route.REJECTED;
+        }
+        return routeFor(algorithm);
+    }
+
+    private JWSAlgorithm peekAlgorithm(String token) {
+        if (token == null || token.isEmpty() || token.length() > MAX_TOKEN_LENGTH) {
+            return null;
+        }
+
+        int firstDot = token.indexOf('.');
+        if (firstDot <= 0 || firstDot > MAX_HEADER_SEGMENT_LENGTH) {
+            return null;
+        }
+
+        int secondDot = token.indexOf('.', firstDot + 1);
+        if (secondDot <= firstDot + 1 || secondDot == token.length() - 1
+                || token.indexOf('.', secondDot + 1) != -1) {
+            return null;
+        }
+
+        if (!isBase64Url(token, 0, firstDot)
+                || !isBase64Url(token, firstDot + 1, secondDot)
+                || !isBase64Url(token, secondDot + 1, token.length())) {
+            return null;
+        }
+
+        // Rejects "none" and any header that is not a JWS header
+        try {
+            return JWSHeader.parse(new Base64URL(token.substring(0, firstDot))).getAlgorithm();
+        } catch (ParseException e) {
+            return null;
+        }
+    }
+
+    private Route routeFor(JWSAlgorithm algorithm) {
+        if (JWSAlgorithm.Family.HMAC_SHA.contains(algorithm)) {
+            return Route.INTERNAL;
+        }
+
+        if (JWSAlgorithm.Family.RSA.contains(algorithm)
+                || JWSAlgorithm.Family.EC.contains(algorithm)
+                || JWSAlgorithm.Family.ED.contains(algorithm)) {
+            return Route.CUSTOM_SSO;
+        }
+
+        log.debug("Rejecting token with unsupported algorithm: {}", algorithm);
+        return Route.REJECTED;
+    }
+
+    private boolean isBase64Url(String value, int start, int end) {
+        int length = end - start;
+        if (length <= 0 || length % 4 == 1) {
+            return false;
+        }
+
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+            boolean valid = (c >= 'A' && c <= 'Z')
+                    || (c >= 'a' && c <= 'z')
+                    || (c >= '0' && c <= '9')
+                    || c == '-' || c == '_';
+            if (!valid) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,267 @@
+package com.nexusiam.infrastructure.security.matcher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntPredicate;
+
+public final class RouteMatcher {
+
+    private static final RouteMatcher EMPTY = new RouteMatcher(new Node(), 0);
+    private static final int[] NO_IDS = new int[0];
+
+    private final Node root;
+    private final int size;
+
+    private RouteMatcher(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    public static RouteMatcher empty() {
+        return EMPTY;
+    }
+
+    public static RouteMatcher compile(Collection<String> compactPermissions) {
+        Builder builder = builder();
+        for (String permission : compactPermissions) {
+            builder.addCompact(permission);
+        }
+        return builder.build();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public boolean matches(String httpMethod, String requestPath) {
+        if (size == 0 || httpMethod == null || requestPath == null) {
+            return false;
+        }
+        return match(root, split(requestPath), 0, httpMethod.toUpperCase());
+    }
+
+    public boolean matchesAnyMethod(String requestPath) {
+        if (size == 0 || requestPath == null) {
+            return false;
+        }
+        return match(root, split(requestPath), 0, null);
+    }
+
+    public boolean matches(String httpMethod, String requestPath, IntPredicate granted) {
+        if (size == 0 || httpMethod == null || requestPath == null) {
+            return false;
+        }
+        return matchIds(root, split(requestPath), 0, httpMethod.toUpperCase(), granted);
+    }
+
+    public boolean matchesAnyMethod(String requestPath, IntPredicate granted) {
+        if (size == 0 || requestPath == null) {
+            return false;
+        }
+        return matchIds(root, split(requestPath), 0, null, granted);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    private static boolean match(Node node, String[] segments, int index, String method) {
+        if (accepts(node.prefixMethods, method)) {
+            return true;
+        }
+
+        if (index == segments.length) {
+            return accepts(node.exactMethods, method);
+        }
+
+        if (node.literals != null) {
+            Node literal = node.literals.get(segments[index]);
+            if (literal != null && match(literal, segments, index + 1, method)) {
+                return true;
+            }
+        }
+
+        return node.param != null && match(node.param, segments, index + 1, method);
+    }
+
+    private static boolean matchIds(Node node, String[] segments, int index, String method, IntPredicate granted) {
+        if (acceptsAny(node.prefixMethods, method, granted)) {
+            return true;
+        }
+
+        if (index == segments.length) {
+            return acceptsAny(node.exactMethods, method, granted);
+        }
+
+        if (node.literals != null) {
+            Node literal = node.literals.get(segments[index]);
+            if (literal != null && matchIds(literal, segments, index + 1, method, granted)) {
+                return true;
+            }
+        }
+
+        return node.param != null && matchIds(node.param, segments, index + 1, method, granted);
+    }
+
+    private static boolean accepts(Map<String, int[]> methods, String method) {
+        if (methods == null) {
+            return false;
+        }
+        return method == null ? !methods.isEmpty() : methods.containsKey(method);
+    }
+
+    private static boolean acceptsAny(Map<String, int[]> methods, String method, IntPredicate granted) {
+        if (methods == null) {
+            return false;
+        }
+
+        if (method != null) {
+            return anyGranted(methods.get(method), granted);
+        }
+
+        for (int[] ids : methods.values()) {
+            if (anyGranted(ids, granted)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean anyGranted(int[] ids, IntPredicate granted) {
+        if (ids == null) {
+            return false;
+        }
+        for (int id : ids) {
+            if (granted.test(id)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static String[] split(String path) {
+        int end = path.length();
+        while (end > 0 && path.charAt(end - 1) == '/') {
+            end--;
+        }
+
+        List<String> segments = new ArrayList<>();
+        int start = 0;
+        for (int i = 0; i < end; i++) {
+            if (path.charAt(i) == '/') {
+                segments.add(path.substring(start, i));
+                start = i + 1;
+            }
+        }
+        if (start < end || end == 0) {
+            segments.add(path.substring(start, end));
+        }
+        return segments.toArray(new String[0]);
+    }
+
+    public static final class Builder {
+        private final Node root = new Node();
+        private int size;
+
+        private Builder() {
+        }
+
+        public Builder addCompact(String permission) {
+            if (permission == null) {
+                return this;
+            }
+
+            int separator = permission.indexOf(':');
+            if (separator <= 0) {
+                return this;
+            }
+            return add(permission.substring(0, separator), permission.substring(separator + 1));
+        }
+
+        public Builder add(String httpMethod, String pattern) {
+            return add(httpMethod, pattern, -1);
+        }
+
+        public Builder add(String httpMethod, String pattern, int id) {
+            if (httpMethod == null || pattern == null) {
+                return this;
+            }
+
+            boolean prefix = pattern.endsWith("/*");
+            String[] segments = split(prefix ? pattern.substring(0, pattern.length() - 2) : pattern);
+
+            Node node = root;
+            for (String segment : segments) {
+                node = segment.startsWith(":") ? node.paramChild() : node.literalChild(segment);
+            }
+
+            String method = httpMethod.toUpperCase();
+            boolean added = prefix ? node.addPrefixMethod(method, id) : node.addExactMethod(method, id);
+            if (added) {
+                size++;
+            }
+            return this;
+        }
+
+        public RouteMatcher build() {
+            return size == 0 ? EMPTY : new RouteMatcher(root, size);
+        }
+    }
+
+    private static final class Node {
+        Map<String, Node> literals;
+        Node param;
+        Map<String, int[]> exactMethods;
+        Map<String, int[]> prefixMethods;
+
+        Node literalChild(String segment) {
+            if (literals == null) {
+                literals = new HashMap<>(4);
+            }
+            return literals.computeIfAbsent(segment, key -> new Node());
+        }
+
+        Node paramChild() {
+            if (param == null) {
+                param = new Node();
+            }
+            return param;
+        }
+
+        boolean addExactMethod(String method, int id) {
+            if (exactMethods == null) {
+                exactMethods = new HashMap<>(4);
+            }
+            return addId(exactMethods, method, id);
+        }
+
+        boolean addPrefixMethod(String method, int id) {
+            if (prefixMethods == null) {
+                prefixMethods = new HashMap<>(4);
+            }
+            return addId(prefixMethods, method, id);
+        }
+
+        private static boolean addId(Map<String, int[]> methods, String method, int id) {
+            int[] ids = methods.get(method);
+            if (ids == null) {
+                methods.put(method, id < 0 ? NO_IDS : new int[] {id});
+                return true;
+            }
+            if (id >= 0) {
+                int[] extended = Arrays.copyOf(ids, ids.length + 1);
+                extended[ids.length] = id;
+                methods.put(method, extended);
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.nexusiam.infrastructure.security.matcher;
+
+import com.nexusiam.infrastructure.config.security.PermissionConfig;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+@Component
+public class RouteMatcherCache {
+
+    private final PermissionConfig permissionConfig;
+
+    private final Map<String, RouteMatcher> matchers = new ConcurrentHashMap<>();
+
+    public RouteMatcherCache(PermissionConfig permissionConfig) {
+        this.permissionConfig = permissionConfig;
+    }
+
+    public RouteMatcher get(String key, Supplier<? extends Collection<String>> permissions) {
+        RouteMatcher matcher = matchers.get(key);
+        if (matcher != null) {
+            return matcher;
+        }
+
+        matcher = RouteMatcher.compile(permissions.get());
+
+        int maxSize = Math.max(1, permissionConfig.getRouteMatcherCacheMaxSize());
+        if (matchers.size() >= maxSize) {
+            makeRoom(maxSize);
+        }
+
+        RouteMatcher existing = matchers.putIfAbsent(key, matcher);
+        return existing != null ? existing : matcher;
+    }
+
+    public int size() {
+        return matchers.size();
+    }
+
+    public void clear() {
+        matchers.clear();
+    }
+
+    private void makeRoom(int maxSize) {
+        int toRemove = Math.max(1, maxSize / 10);
+        Iterator<String> iterator = matchers.keySet().iterator();
+        while (toRemove > 0 && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            toRemove--;
+        }
+    }
+}
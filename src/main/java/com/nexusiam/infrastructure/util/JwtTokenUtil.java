@@ -1,11 +1,14 @@
 package com.nexusiam.infrastructure.util;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 
 import org.springframework.stereotype.Component;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
 import jakarta.annotation.PostConstruct;
 
@@ -20,18 +23,22 @@ import java.util.Map;
 @Component
 public class JwtTokenUtil {
 
-    private static final long ACCESS_TOKEN_VALIDITY_SECONDS = 15 * 60;
+    public static final long ACCESS_TOKEN_VALIDITY_SECONDS = 15 * 60;
     private static final long REFRESH_TOKEN_VALIDITY_SECONDS = 24 * 60 * 60;
 
     @Value("${jwt.secret}")
     private String jwtSecret;
 
     private Key key;
+    private JwtParser parser;
 
     @PostConstruct
     public void init() {
         byte[] keyBytes = Base64.getDecoder().decode(jwtSecret);
         this.key = Keys.hmacShaKeyFor(keyBytes);
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build();
     }
 
     public String generateToken(Map<String, Object> claims, String subject, long ttlSeconds) {
@@ -70,13 +77,38 @@ public class JwtTokenUtil {
             String email,
             Long userId,
             String role,
-            List<String> compactPermissions) {
+            List<String> compactPermissions,
+            long permissionVersion,
+            long permissionAsOf) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("tokenType", "ACCESS");
         claims.put("userId", userId);
         claims.put("role", role);
         claims.put("permissions", compactPermissions);
         claims.put("permissionCount", compactPermissions.size());
+        claims.put("permVersion", permissionVersion);
+        claims.put("permAsOf", permissionAsOf);
+        return generateToken(claims, email, ACCESS_TOKEN_VALIDITY_SECONDS);
+    }
+
+    public String generateAccessTokenWithPermissionBits(
+            String email,
+            Long userId,
+            String role,
+            String permissionIndexVersion,
+            String permissionBits,
+            int permissionCount,
+            long permissionVersion,
+            long permissionAsOf) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("tokenType", "ACCESS");
+        claims.put("userId", userId);
+        claims.put("role", role);
+        claims.put("permIndexVersion", permissionIndexVersion);
+        claims.put("permBits", permissionBits);
+        claims.put("permissionCount", permissionCount);
+        claims.put("permVersion", permissionVersion);
+        claims.put("permAsOf", permissionAsOf);
         return generateToken(claims, email, ACCESS_TOKEN_VALIDITY_SECONDS);
     }
 
@@ -88,21 +120,51 @@ public class JwtTokenUtil {
     }
 
     public Claims parseToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
     }
 
-    public boolean isTokenType(String token, String type) {
+    public ParsedInternalToken parse(String token) {
+        return new ParsedInternalToken(token, parseToken(token));
+    }
+
+    public ParsedInternalToken resolve(String token) {
+        if (token == null) {
+            return null;
+        }
+
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            Object cached = attributes.getAttribute(ParsedInternalToken.REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+            if (cached instanceof ParsedInternalToken && token.equals(((ParsedInternalToken) cached).getToken())) {
+                return (ParsedInternalToken) cached;
+            }
+        }
+
         try {
-            return type.equals(parseToken(token).get("tokenType", String.class));
+            ParsedInternalToken parsed = parse(token);
+            if (attributes != null) {
+                attributes.setAttribute(ParsedInternalToken.REQUEST_ATTRIBUTE, parsed, RequestAttributes.SCOPE_REQUEST);
+            }
+            return parsed;
         } catch (Exception e) {
-            return false;
+            return null;
         }
     }
 
+    public ParsedInternalToken getCurrentRequestToken() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        Object cached = attributes.getAttribute(ParsedInternalToken.REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        return cached instanceof ParsedInternalToken ? (ParsedInternalToken) cached : null;
+    }
+
+    public boolean isTokenType(String token, String type) {
+        ParsedInternalToken parsed = resolve(token);
+        return parsed != null && parsed.isTokenType(type);
+    }
+
     public boolean isAccessToken(String token) {
         return isTokenType(token, "ACCESS");
     }
@@ -112,20 +174,16 @@ public class JwtTokenUtil {
     }
 
     public boolean isTokenValid(String token) {
-        try {
-            Date expiration = parseToken(token).getExpiration();
-            return expiration != null && expiration.after(new Date());
-        } catch (Exception e) {
-            return false;
-        }
+        ParsedInternalToken parsed = resolve(token);
+        return parsed != null && parsed.isValid();
     }
 
     public String getSubject(String token) {
-        return parseToken(token).getSubject();
+        return parseOrThrow(token).getSubject();
     }
 
     public String getRole(String token) {
-        return parseToken(token).get("role", String.class);
+        return parseOrThrow(token).getRole();
     }
 
     public String extractEmail(String token) {
@@ -133,94 +191,32 @@ public class JwtTokenUtil {
     }
 
     public Long getUserId(String token) {
-        try {
-            Object userId = parseToken(token).get("userId");
-            if (userId instanceof Number) {
-                return ((Number) userId).longValue();
-            }
-            return null;
-        } catch (Exception e) {
-            return null;
-        }
+        ParsedInternalToken parsed = resolve(token);
+        return parsed != null ? parsed.getUserId() : null;
     }
 
     public List<String> getCompactPermissions(String token) {
-        try {
-            Object permissions = parseToken(token).get("permissions");
-            if (permissions instanceof List<?>) {
-                List<?> permList = (List<?>) permissions;
-                List<String> result = new java.util.ArrayList<>();
-                for (Object perm : permList) {
-                    if (perm instanceof String) {
-                        result.add((String) perm);
-                    }
-                }
-                return result;
-            }
-            return List.of();
-        } catch (Exception e) {
-            return List.of();
-        }
+        ParsedInternalToken parsed = resolve(token);
+        return parsed != null ? List.copyOf(parsed.getCompactPermissions()) : List.of();
     }
 
     public Map<String, List<String>> getPermissionsMap(String token) {
-        try {
-            Object permissions = parseToken(token).get("permissions");
-            if (permissions instanceof Map<?, ?>) {
-                Map<?, ?> permMap = (Map<?, ?>) permissions;
-                Map<String, List<String>> result = new java.util.HashMap<>();
-                for (Map.Entry<?, ?> entry : permMap.entrySet()) {
-                    if (entry.getKey() instanceof String && entry.getValue() instanceof List<?>) {
-                        String key = (String) entry.getKey();
-                        List<?> valueList = (List<?>) entry.getValue();
-                        List<String> methods = new java.util.ArrayList<>();
-                        for (Object method : valueList) {
-                            if (method instanceof String) {
-                                methods.add((String) method);
-                            }
-                        }
-                        result.put(key, methods);
-                    }
-                }
-                return result;
-            }
-            return Map.of();
-        } catch (Exception e) {
-            return Map.of();
-        }
+        ParsedInternalToken parsed = resolve(token);
+        return parsed != null ? parsed.getPermissionsMap() : Map.of();
     }
 
     public boolean hasPermissionInToken(String token, String apiPath, String httpMethod) {
-        try {
-            Object permissions = parseToken(token).get("permissions");
-
-            if (permissions instanceof List) {
-                List<String> compactPerms = getCompactPermissions(token);
-                String permString = httpMethod.toUpperCase() + ":" + apiPath;
-                return compactPerms.contains(permString);
-            }
-
-            if (permissions instanceof Map) {
-                Map<String, List<String>> permMap = getPermissionsMap(token);
-                List<String> methods = permMap.get(apiPath);
-                return methods != null && methods.contains(httpMethod.toUpperCase());
-            }
-
-            return false;
-        } catch (Exception e) {
-            return false;
-        }
+        ParsedInternalToken parsed = resolve(token);
+        return parsed != null && parsed.hasPermission(apiPath, httpMethod);
     }
 
     public Integer getPermissionCount(String token) {
-        try {
-            Object count = parseToken(token).get("permissionCount");
-            if (count instanceof Number) {
-                return ((Number) count).intValue();
-            }
-            return 0;
-        } catch (Exception e) {
-            return 0;
-        }
+        ParsedInternalToken parsed = resolve(token);
+        return parsed != null ? parsed.getPermissionCount() : 0;
+    }
+
+    private ParsedInternalToken parseOrThrow(String token) {
+        ParsedInternalToken parsed = resolve(token);
+        return parsed != null ? parsed : parse(token);
     }
 }
@@ -0,0 +1,213 @@
+package com.nexusiam.infrastructure.util;
+
+import io.jsonwebtoken.Claims;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+public final class ParsedInternalToken {
+
+    public static final String REQUEST_ATTRIBUTE = ParsedInternalToken.class.getName();
+
+    private final String token;
+    private final Claims claims;
+    private final Set<String> compactPermissions;
+    private final Map<String, List<String>> permissionsMap;
+    private volatile BitSet permissionBits;
+    private volatile String permissionSetKey;
+
+    ParsedInternalToken(String token, Claims claims) {
+        this.token = token;
+        this.claims = claims;
+
+        Object permissions = claims.get("permissions");
+        this.compactPermissions = toCompactPermissions(permissions);
+        this.permissionsMap = toPermissionsMap(permissions);
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public Claims getClaims() {
+        return claims;
+    }
+
+    public boolean isValid() {
+        Date expiration = claims.getExpiration();
+        return expiration != null && expiration.after(new Date());
+    }
+
+    public boolean isTokenType(String type) {
+        return type.equals(claims.get("tokenType", String.class));
+    }
+
+    public boolean isAccessToken() {
+        return isTokenType("ACCESS");
+    }
+
+    public boolean isRefreshToken() {
+        return isTokenType("REFRESH");
+    }
+
+    public String getSubject() {
+        return claims.getSubject();
+    }
+
+    public String getEmail() {
+        return getSubject();
+    }
+
+    public String getRole() {
+        return claims.get("role", String.class);
+    }
+
+    public Long getUserId() {
+        Object userId = claims.get("userId");
+        if (userId instanceof Number) {
+            return ((Number) userId).longValue();
+        }
+        return null;
+    }
+
+    public int getPermissionCount() {
+        Object count = claims.get("permissionCount");
+        if (count instanceof Number) {
+            return ((Number) count).intValue();
+        }
+        return 0;
+    }
+
+    public boolean hasPermissionVersion() {
+        return claims.get("permVersion") instanceof Number && claims.get("permAsOf") instanceof Number;
+    }
+
+    public long getPermissionVersion() {
+        Object version = claims.get("permVersion");
+        return version instanceof Number ? ((Number) version).longValue() : -1L;
+    }
+
+    public long getPermissionAsOf() {
+        Object asOf = claims.get("permAsOf");
+        return asOf instanceof Number ? ((Number) asOf).longValue() : -1L;
+    }
+
+    public Set<String> getCompactPermissions() {
+        return compactPermissions;
+    }
+
+    public Map<String, List<String>> getPermissionsMap() {
+        return permissionsMap;
+    }
+
+    public boolean hasPermissionBits() {
+        return claims.get("permBits") instanceof String;
+    }
+
+    public String getPermissionIndexVersion() {
+        return claims.get("permIndexVersion", String.class);
+    }
+
+    public String getEncodedPermissionBits() {
+        return claims.get("permBits", String.class);
+    }
+
+    public BitSet getPermissionBits() {
+        BitSet bits = permissionBits;
+        if (bits == null) {
+            Object encoded = claims.get("permBits");
+            try {
+                bits = encoded instanceof String
+                        ? BitSet.valueOf(Base64.getUrlDecoder().decode((String) encoded))
+                        : new BitSet();
+            } catch (IllegalArgumentException e) {
+                bits = new BitSet();
+            }
+            permissionBits = bits;
+        }
+        return bits;
+    }
+
+    // Identifies the granted permission set rather than the token, so every token carrying the same
+    // grants shares one compiled route matcher
+    public String getPermissionSetKey() {
+        String key = permissionSetKey;
+        if (key == null) {
+            key = hasPermissionBits()
+                    ? getPermissionIndexVersion() + ":" + Base64.getUrlEncoder().withoutPadding()
+                            .encodeToString(getPermissionBits().toByteArray())
+                    : digest(new TreeSet<>(compactPermissions));
+            permissionSetKey = key;
+        }
+        return key;
+    }
+
+    public boolean hasPermission(String apiPath, String httpMethod) {
+        String method = httpMethod.toUpperCase();
+
+        if (!compactPermissions.isEmpty()) {
+            return compactPermissions.contains(method + ":" + apiPath);
+        }
+
+        List<String> methods = permissionsMap.get(apiPath);
+        return methods != null && methods.contains(method);
+    }
+
+    private static String digest(Set<String> sortedPermissions) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String permission : sortedPermissions) {
+                digest.update(permission.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) '\n');
+            }
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static Set<String> toCompactPermissions(Object permissions) {
+        if (!(permissions instanceof List<?>)) {
+            return Collections.emptySet();
+        }
+
+        Set<String> result = new LinkedHashSet<>();
+        for (Object perm : (List<?>) permissions) {
+            if (perm instanceof String) {
+                result.add((String) perm);
+            }
+        }
+        return Collections.unmodifiableSet(result);
+    }
+
+    private static Map<String, List<String>> toPermissionsMap(Object permissions) {
+        if (!(permissions instanceof Map<?, ?>)) {
+            return Collections.emptyMap();
+        }
+
+        Map<String, List<String>> result = new HashMap<>();
+        for (Map.Entry<?, ?> entry : ((Map<?, ?>) permissions).entrySet()) {
+            if (entry.getKey() instanceof String && entry.getValue() instanceof List<?>) {
+                List<String> methods = new java.util.ArrayList<>();
+                for (Object method : (List<?>) entry.getValue()) {
+                    if (method instanceof String) {
+                        methods.add((String) method);
+                    }
+                }
+                result.put((String) entry.getKey(), methods);
+            }
+        }
+        return Collections.unmodifiableMap(result);
+    }
+}
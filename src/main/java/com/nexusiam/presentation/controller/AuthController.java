@@ -5,15 +5,16 @@ import com.nexusiam.application.dto.request.LoginRequest;
 import com.nexusiam.application.dto.request.RefreshTokenRequest;
 import com.nexusiam.application.dto.response.InternalUserResponse;
 import com.nexusiam.core.domain.entity.InternalUser;
-import com.nexusiam.core.domain.entity.ApiSource;
 import com.nexusiam.core.domain.repository.InternalUserRepository;
-import com.nexusiam.core.domain.repository.UserApiMappingRepository;
-import com.nexusiam.core.domain.repository.ApiSourceRepository;
-import com.nexusiam.core.domain.entity.UserApiMapping;
 import com.nexusiam.application.service.utility.DeviceFingerprintService;
 import com.nexusiam.application.service.session.SessionManagementService;
 import com.nexusiam.infrastructure.util.JwtTokenUtil;
+import com.nexusiam.infrastructure.util.ParsedInternalToken;
 import com.nexusiam.application.service.user.InternalUserService;
+import com.nexusiam.application.service.authorization.ApiSourceIndex;
+import com.nexusiam.application.service.authorization.PermissionInvalidationBus;
+import com.nexusiam.application.service.authorization.UserPermissionLoader;
+import com.nexusiam.infrastructure.config.security.PermissionConfig;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -28,7 +29,6 @@ import lombok.RequiredArgsConstructor;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -39,13 +39,15 @@ import java.util.Map;
 public class AuthController {
 
     private final InternalUserRepository userRepo;
-    private final UserApiMappingRepository userApiMappingRepository;
-    private final ApiSourceRepository apiSourceRepository;
     private final PasswordEncoder encoder;
     private final JwtTokenUtil jwt;
     private final InternalUserService userService;
     private final SessionManagementService sessionManagementService;
     private final DeviceFingerprintService deviceFingerprintService;
+    private final ApiSourceIndex apiSourceIndex;
+    private final PermissionConfig permissionConfig;
+    private final UserPermissionLoader permissionLoader;
+    private final PermissionInvalidationBus invalidationBus;
 
     @PostMapping("/register")
     public ResponseEntity<?> register(@RequestBody InternalUser user) {
@@ -86,13 +88,7 @@ public class AuthController {
 
             sessionManagementService.trackInternalDevice(user.getEmail(), deviceFingerprint, browserFingerprint, request);
 
-            List<String> compactPermissions = buildCompactPermissions(user.getId());
-            String accessToken = jwt.generateAccessTokenWithCompactPermissions(
-                user.getEmail(),
-                user.getId(),
-                role,
-                compactPermissions
-            );
+            String accessToken = generateAccessToken(user.getEmail(), user.getId(), role);
             String refreshToken = jwt.generateRefreshToken(user.getEmail(), role);
 
             sessionManagementService.storeUserActiveToken(user.getEmail(), accessToken, false);
@@ -182,13 +178,15 @@ public class AuthController {
         try {
             String refreshToken = request.getRefreshToken();
 
-            if (!jwt.isTokenValid(refreshToken) || !jwt.isRefreshToken(refreshToken)) {
+            ParsedInternalToken parsedRefreshToken = jwt.resolve(refreshToken);
+
+            if (parsedRefreshToken == null || !parsedRefreshToken.isValid() || !parsedRefreshToken.isRefreshToken()) {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                         .body(Map.of("error", "Invalid or expired refresh token"));
             }
 
-            String email = jwt.extractEmail(refreshToken);
-            String role = jwt.getRole(refreshToken);
+            String email = parsedRefreshToken.getEmail();
+            String role = parsedRefreshToken.getRole();
 
             InternalUser user = userRepo.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("User not found"));
@@ -198,13 +196,7 @@ public class AuthController {
                     .body(Map.of("error", "User account is deactivated"));
             }
 
-            List<String> compactPermissions = buildCompactPermissions(user.getId());
-            String newAccessToken = jwt.generateAccessTokenWithCompactPermissions(
-                email,
-                user.getId(),
-                role,
-                compactPermissions
-            );
+            String newAccessToken = generateAccessToken(email, user.getId(), role);
 
             return ResponseEntity.ok(Map.of(
                 "accessToken", newAccessToken,
@@ -232,8 +224,9 @@ public class AuthController {
             boolean isValid = sessionManagementService.validateInternalSession(token);
 
             if (isValid) {
-                String email = jwt.extractEmail(token);
-                String role = jwt.getRole(token);
+                ParsedInternalToken parsedToken = jwt.resolve(token);
+                String email = parsedToken.getEmail();
+                String role = parsedToken.getRole();
 
                 return ResponseEntity.ok(Map.of(
                     "valid", true,
@@ -255,23 +248,49 @@ public class AuthController {
         }
     }
 
-    private List<String> buildCompactPermissions(Long userId) {
+    private String generateAccessToken(String email, Long userId, String role) {
+        long permissionVersion = invalidationBus.getUserVersion(userId);
+        long permissionAsOf = invalidationBus.issueVersion();
+
+        if (permissionConfig.isBitsetTokenEncoding()) {
+            String accessToken = generateBitsetAccessToken(email, userId, role, permissionVersion, permissionAsOf);
+            if (accessToken != null) {
+                return accessToken;
+            }
+        }
+
+        return jwt.generateAccessTokenWithCompactPermissions(
+            email, userId, role, buildCompactPermissions(userId), permissionVersion, permissionAsOf);
+    }
+
+    private String generateBitsetAccessToken(
+            String email, Long userId, String role, long permissionVersion, long permissionAsOf) {
         try {
-            List<UserApiMapping> mappings =
-                userApiMappingRepository.findUserAccessibleApisWithDetails(userId);
-
-            List<String> compactPermissions = new ArrayList<>();
-
-            for (UserApiMapping mapping : mappings) {
-                ApiSource apiSource = apiSourceRepository.findById(mapping.getApiSourceId()).orElse(null);
-                if (apiSource != null) {
-                    String method = apiSource.getApiMethod();
-                    String path = apiSource.getApiPath();
-                    compactPermissions.add(method.toUpperCase() + ":" + path);
-                }
+            List<Long> apiSourceIds = permissionLoader.load(userId).getApiSourceIds();
+
+            ApiSourceIndex.Snapshot snapshot = apiSourceIndex.current();
+            String permissionBits = snapshot.encode(apiSourceIds);
+
+            if (permissionBits == null) {
+                snapshot = apiSourceIndex.refresh();
+                permissionBits = snapshot.encode(apiSourceIds);
             }
 
-            return compactPermissions;
+            if (permissionBits == null) {
+                return null;
+            }
+
+            return jwt.generateAccessTokenWithPermissionBits(
+                email, userId, role, snapshot.getVersion(), permissionBits, apiSourceIds.size(),
+                permissionVersion, permissionAsOf);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private List<String> buildCompactPermissions(Long userId) {
+        try {
+            return permissionLoader.load(userId).getCompactPermissions();
         } catch (Exception e) {
             return List.of();
         }
@@ -0,0 +1,74 @@
+package com.nexusiam.presentation.controller;
+
+import com.nexusiam.application.service.authorization.PolicySnapshotService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@Slf4j
+@RestController
+@RequestMapping("/exchange/v1/int/policy-snapshot")
+@RequiredArgsConstructor
+@Tag(name = "Policy Snapshot", description = "Export the authorization graph for local evaluation by gateways")
+@SecurityRequirement(name = "bearerAuth")
+public class PolicySnapshotController {
+
+    private final PolicySnapshotService snapshotService;
+
+    @GetMapping
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    @Operation(
+        summary = "Export the permission policy snapshot",
+        description = "Returns the API source registry and user grants as a gzip-compressed binary snapshot. " +
+                "Pass the ETag of a previously loaded snapshot as 'since' to receive only the changes, " +
+                "or as If-None-Match to get 304 when nothing changed"
+    )
+    public ResponseEntity<byte[]> getSnapshot(
+            @RequestParam(required = false) @Parameter(description = "Version tag the caller already holds")
+            String since,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+
+        String currentTag = snapshotService.getCurrentTag();
+        if (ifNoneMatch != null && ifNoneMatch.replace("W/", "").replace("\"", "").trim().equals(currentTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(currentTag)
+                    .cacheControl(CacheControl.noCache())
+                    .build();
+        }
+
+        PolicySnapshotService.Export export = snapshotService.export(since);
+        if (export.isNotModified()) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(export.getTag())
+                    .cacheControl(CacheControl.noCache())
+                    .build();
+        }
+
+        log.info("Serving {} policy snapshot {} ({} bytes)",
+                export.isDelta() ? "delta" : "full", export.getTag(), export.getBody().length);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(export.getTag())
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header("X-Policy-Snapshot-Kind", export.isDelta() ? "delta" : "full");
+        if (export.isDelta()) {
+            response.header("X-Policy-Snapshot-Base", export.getBaseTag());
+        }
+        return response.body(export.getBody());
+    }
+}
@@ -109,7 +109,7 @@ public class SSOExchangeController {
         response.put("issued_at", claims.getIssueTime());
         response.put("expires_at", claims.getExpirationTime());
 
-        Map<String, Object> registrations = claims.getJSONObjectClaim("registrations");
+        Map<String, Object> registrations = customTokenService.resolveRegistrations(claims);
         response.put("registrations", registrations);
 
         return ResponseEntity.ok()
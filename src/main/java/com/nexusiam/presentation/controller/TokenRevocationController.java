@@ -0,0 +1,64 @@
+package com.nexusiam.presentation.controller;
+
+import com.nexusiam.application.dto.response.ApiResponse;
+import com.nexusiam.application.service.token.RevocationEpochService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@Slf4j
+@RestController
+@RequestMapping("/exchange/v1/int/revocations")
+@RequiredArgsConstructor
+@Tag(name = "Token Revocation", description = "Revoke every token issued to a subject, group or role")
+@SecurityRequirement(name = "bearerAuth")
+public class TokenRevocationController {
+
+    private final RevocationEpochService revocationEpochService;
+
+    @PostMapping("/subjects/{subject}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    @Operation(summary = "Log a user out everywhere",
+            description = "Invalidates all tokens issued so far to an SSO profileId or internal user email")
+    public ResponseEntity<ApiResponse<Map<String, String>>> revokeSubject(@PathVariable String subject) {
+        return revoke(RevocationEpochService.Scope.SUBJECT, subject);
+    }
+
+    @PostMapping("/groups/{grpId}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    @Operation(summary = "Log out all users of a group",
+            description = "Invalidates all SSO tokens issued so far for the given grpId")
+    public ResponseEntity<ApiResponse<Map<String, String>>> revokeGroup(@PathVariable String grpId) {
+        return revoke(RevocationEpochService.Scope.GROUP, grpId);
+    }
+
+    @PostMapping("/roles/{role}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    @Operation(summary = "Log out all users of a role",
+            description = "Invalidates all tokens issued so far that carry the given role")
+    public ResponseEntity<ApiResponse<Map<String, String>>> revokeRole(@PathVariable String role) {
+        return revoke(RevocationEpochService.Scope.ROLE, role);
+    }
+
+    private ResponseEntity<ApiResponse<Map<String, String>>> revoke(RevocationEpochService.Scope scope, String id) {
+        revocationEpochService.revoke(scope, id);
+        log.info("Revoked tokens for {} {}", scope, id);
+        return ResponseEntity.ok(new ApiResponse<>(
+                "success",
+                "Tokens revoked successfully",
+                Map.of("scope", scope.name(), "id", id),
+                HttpStatus.OK.value()
+        ));
+    }
+}
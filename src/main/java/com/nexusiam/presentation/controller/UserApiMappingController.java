@@ -1,9 +1,11 @@
 package com.nexusiam.presentation.controller;
 
+import com.nexusiam.application.dto.request.BulkPermissionCheckRequest;
 import com.nexusiam.application.dto.request.BulkUserApiMappingRequest;
 import com.nexusiam.application.dto.request.PermissionCheckRequest;
 import com.nexusiam.application.dto.request.UserApiMappingRequest;
 import com.nexusiam.application.dto.response.ApiResponse;
+import com.nexusiam.application.dto.response.BulkPermissionCheckResponse;
 import com.nexusiam.application.dto.response.PermissionCheckResponse;
 import com.nexusiam.application.dto.response.UserAccessibleApisResponse;
 import com.nexusiam.application.dto.response.UserApiMappingResponse;
@@ -349,4 +351,31 @@ public class UserApiMappingController {
 
         return ResponseEntity.ok(apiResponse);
     }
+
+    @PostMapping("/check/bulk")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN', 'USER')")
+    @Operation(
+        summary = "Check many permissions at once",
+        description = "Evaluate a list of (method, path) actions for one or more users. Each user gets a decision " +
+                "string with one character per action, in request order: '1' = allowed, '0' = denied"
+    )
+    public ResponseEntity<ApiResponse<BulkPermissionCheckResponse>> checkPermissionsBulk(
+            @Valid @RequestBody BulkPermissionCheckRequest request) {
+
+        log.info("Bulk permission check for user {} / {} users on {} actions",
+                request.getUserId(), request.getUserIds() != null ? request.getUserIds().size() : 0,
+                request.getActions().size());
+
+        BulkPermissionCheckResponse response = mappingService.checkPermissions(request);
+
+        ApiResponse<BulkPermissionCheckResponse> apiResponse = new ApiResponse<>(
+                "success",
+                String.format("Evaluated %d actions for %d users",
+                             response.getTotalActions(), response.getDecisions().size()),
+                response,
+                HttpStatus.OK.value()
+        );
+
+        return ResponseEntity.ok(apiResponse);
+    }
 }
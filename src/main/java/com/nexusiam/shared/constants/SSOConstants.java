@@ -23,7 +23,6 @@ public final class SSOConstants {
     public static final String GRANT_TYPE_REFRESH = "refresh_token";
     public static final String RESPONSE_TYPE_CODE = "code";
 
-    public static final String HEALTH_CHECK_KEY = "health:check";
     public static final int MAX_CONCURRENT_SESSIONS = 1;
 
     public static final int MAX_REGISTRATIONS_PER_USER = 50;
@@ -0,0 +1,54 @@
+package com.nexusiam.application.service.authorization;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("PermissionGrants Tests")
+class PermissionGrantsTest {
+
+    @Test
+    @DisplayName("Should store sparse grants as a sorted int array")
+    void shouldSizeSparseGrants() {
+        PermissionGrants grants = PermissionGrants.of(new int[]{40_000, 5, 900, 5});
+
+        assertThat(grants.size()).isEqualTo(3);
+        assertThat(grants.contains(900)).isTrue();
+        assertThat(grants.contains(901)).isFalse();
+        // 24-byte instance + 16-byte array header + 3 ints, aligned to 8
+        assertThat(grants.estimatedBytes()).isEqualTo(24 + 32);
+    }
+
+    @Test
+    @DisplayName("Should switch to a bitset when it is at most half the size of the id array")
+    void shouldSizeDenseGrants() {
+        PermissionGrants grants = PermissionGrants.of(IntStream.range(0, 1000).toArray());
+
+        assertThat(grants.size()).isEqualTo(1000);
+        assertThat(grants.contains(999)).isTrue();
+        assertThat(grants.contains(1000)).isFalse();
+        // 16 words cover ids 0..1023
+        assertThat(grants.estimatedBytes()).isEqualTo(24 + 16 + 16 * 8);
+    }
+
+    @Test
+    @DisplayName("Should keep 1000 grants well below the footprint of a boxed set")
+    void shouldStayBelowBoxedFootprint() {
+        int[] ids = IntStream.range(0, 1000).map(i -> i * 3).toArray();
+        PermissionGrants grants = PermissionGrants.of(ids);
+
+        // A HashSet<Long> spends roughly 48 bytes per element on nodes and boxes alone
+        assertThat(grants.estimatedBytes()).isLessThanOrEqualTo(24 + 16 + ids.length * Integer.BYTES);
+        assertThat(grants.estimatedBytes()).isLessThan(ids.length * 48L / 10);
+    }
+
+    @Test
+    @DisplayName("Should not charge the shared empty instance")
+    void shouldNotChargeEmptyGrants() {
+        assertThat(PermissionGrants.of(new int[]{-1}).estimatedBytes()).isZero();
+        assertThat(PermissionGrants.empty().isEmpty()).isTrue();
+    }
+}
@@ -0,0 +1,83 @@
+package com.nexusiam.application.service.authorization;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("TinyLfuPolicy Tests")
+class TinyLfuPolicyTest {
+
+    @Test
+    @DisplayName("Should reject a cold candidate leaving the window when the probation victim is hotter")
+    void shouldRejectColdCandidate() {
+        TinyLfuPolicy<Integer> policy = filled(10);
+        for (int round = 0; round < 3; round++) {
+            for (int key = 1; key <= 9; key++) {
+                policy.recordAccess(key);
+            }
+        }
+
+        assertThat(policy.recordInsert(11)).containsExactly(10);
+        assertThat(policy.recordInsert(12)).containsExactly(11);
+    }
+
+    @Test
+    @DisplayName("Should admit a frequently requested candidate over a colder probation victim")
+    void shouldAdmitHotCandidate() {
+        TinyLfuPolicy<Integer> policy = filled(10);
+        for (int round = 0; round < 3; round++) {
+            for (int key = 1; key <= 9; key++) {
+                policy.recordAccess(key);
+            }
+        }
+        for (int i = 0; i < 12; i++) {
+            policy.recordAccess(99);
+        }
+
+        assertThat(policy.recordInsert(99)).containsExactly(10);
+        assertThat(policy.frequency(99)).isGreaterThan(policy.frequency(1));
+        assertThat(policy.recordInsert(13)).hasSize(1).doesNotContain(99, 13);
+    }
+
+    @Test
+    @DisplayName("Should move window overflow to probation and shield entries promoted to protected")
+    void shouldPromoteProbationHits() {
+        TinyLfuPolicy<Integer> policy = filled(10);
+        policy.recordAccess(5);
+
+        List<Integer> evicted = new ArrayList<>();
+        for (int key = 100; key < 112; key++) {
+            for (int i = 0; i < 5; i++) {
+                policy.recordAccess(key);
+            }
+            List<Integer> victims = policy.recordInsert(key);
+            assertThat(victims).doesNotContain(key);
+            evicted.addAll(victims);
+        }
+
+        assertThat(evicted).startsWith(10, 1, 2, 3, 4, 6, 7, 8, 9).doesNotContain(5);
+    }
+
+    @Test
+    @DisplayName("Should not evict anything while below the maximum size")
+    void shouldNotEvictBelowMaximum() {
+        TinyLfuPolicy<Integer> policy = new TinyLfuPolicy<>(10);
+
+        for (int key = 1; key <= 10; key++) {
+            assertThat(policy.recordInsert(key)).isEmpty();
+        }
+        assertThat(policy.recordInsert(5)).isEmpty();
+    }
+
+    private static TinyLfuPolicy<Integer> filled(int maximumSize) {
+        TinyLfuPolicy<Integer> policy = new TinyLfuPolicy<>(maximumSize);
+        for (int key = 1; key <= maximumSize; key++) {
+            policy.recordInsert(key);
+        }
+        return policy;
+    }
+}
@@ -0,0 +1,110 @@
+package com.nexusiam.infrastructure.redis;
+
+import com.nexusiam.infrastructure.config.security.RedisAvailabilityConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RedisAvailability Tests")
+class RedisAvailabilityTest {
+
+    private static final RedisConnectionFailureException DOWN = new RedisConnectionFailureException("down");
+
+    @Mock
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Mock
+    private ObjectProvider<RedisTemplate<String, String>> redisTemplateProvider;
+
+    private CircuitBreaker circuitBreaker;
+    private RedisAvailability availability;
+
+    @BeforeEach
+    void setUp() {
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .slidingWindowSize(4)
+                .minimumNumberOfCalls(4)
+                .failureRateThreshold(50)
+                .permittedNumberOfCallsInHalfOpenState(2)
+                .waitDurationInOpenState(Duration.ofMillis(1))
+                .recordExceptions(DataAccessException.class)
+                .build());
+        when(redisTemplateProvider.getIfAvailable()).thenReturn(redisTemplate);
+        availability = new RedisAvailability(redisTemplateProvider, registry, new RedisAvailabilityConfig(),
+                new SimpleMeterRegistry());
+        circuitBreaker = registry.circuitBreaker(RedisAvailability.CIRCUIT_BREAKER_NAME);
+    }
+
+    @Test
+    @DisplayName("Should keep the breaker closed after a single failed probe")
+    void shouldNotOpenOnSingleFailedProbe() {
+        when(redisTemplate.execute(any(RedisCallback.class))).thenThrow(DOWN).thenReturn("PONG");
+
+        availability.probe();
+        availability.probe();
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(availability.isAvailable()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should open once failed probes exceed the failure-rate threshold")
+    void shouldOpenOnFailureRate() {
+        when(redisTemplate.execute(any(RedisCallback.class))).thenThrow(DOWN);
+
+        for (int i = 0; i < 4; i++) {
+            availability.probe();
+        }
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(availability.isAvailable()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should close only after the permitted half-open trial calls succeed")
+    void shouldCloseThroughHalfOpenTrials() throws InterruptedException {
+        circuitBreaker.transitionToOpenState();
+        when(redisTemplate.execute(any(RedisCallback.class))).thenReturn("PONG");
+        Thread.sleep(10);
+
+        availability.probe();
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(availability.isAvailable()).isTrue();
+
+        availability.recordSuccess();
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    @DisplayName("Should reopen when the half-open trial calls fail")
+    void shouldReopenOnFailedTrials() throws InterruptedException {
+        circuitBreaker.transitionToOpenState();
+        when(redisTemplate.execute(any(RedisCallback.class))).thenThrow(DOWN);
+        Thread.sleep(10);
+
+        availability.probe();
+        availability.probe();
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(availability.isAvailable()).isFalse();
+    }
+}
@@ -0,0 +1,89 @@
+package com.nexusiam.infrastructure.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@DisplayName("JwtTokenUtil Tests")
+class JwtTokenUtilTest {
+
+    private JwtTokenUtil jwtTokenUtil;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        JwtTokenUtil util = new JwtTokenUtil();
+        ReflectionTestUtils.setField(util, "jwtSecret", Base64.getEncoder().encodeToString(
+                "0123456789abcdef0123456789abcdef".getBytes(StandardCharsets.UTF_8)));
+        util.init();
+        jwtTokenUtil = spy(util);
+        token = util.generateAccessTokenWithCompactPermissions("user@example.com", 7L, "USER",
+                List.of("GET:/api/orders", "POST:/api/orders"), 1L, 2L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    @DisplayName("Should verify and decode a token once per request, however many accessors read it")
+    void shouldParseOncePerRequest() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        ParsedInternalToken parsed = jwtTokenUtil.resolve(token);
+
+        assertThat(jwtTokenUtil.isTokenValid(token)).isTrue();
+        assertThat(jwtTokenUtil.isAccessToken(token)).isTrue();
+        assertThat(jwtTokenUtil.extractEmail(token)).isEqualTo("user@example.com");
+        assertThat(jwtTokenUtil.getUserId(token)).isEqualTo(7L);
+        assertThat(jwtTokenUtil.getPermissionCount(token)).isEqualTo(2);
+        assertThat(jwtTokenUtil.hasPermissionInToken(token, "/api/orders", "POST")).isTrue();
+        assertThat(jwtTokenUtil.getCompactPermissions(token)).containsExactlyInAnyOrder("GET:/api/orders", "POST:/api/orders");
+        assertThat(jwtTokenUtil.resolve(token)).isSameAs(parsed);
+        assertThat(jwtTokenUtil.getCurrentRequestToken()).isSameAs(parsed);
+        verify(jwtTokenUtil, times(1)).parseToken(token);
+    }
+
+    @Test
+    @DisplayName("Should parse a different token presented in the same request")
+    void shouldReparseDifferentToken() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        String refreshToken = jwtTokenUtil.generateRefreshToken("user@example.com", "USER");
+
+        assertThat(jwtTokenUtil.isAccessToken(token)).isTrue();
+        assertThat(jwtTokenUtil.isRefreshToken(refreshToken)).isTrue();
+        assertThat(jwtTokenUtil.getCurrentRequestToken().getToken()).isEqualTo(refreshToken);
+        verify(jwtTokenUtil, times(2)).parseToken(anyString());
+    }
+
+    @Test
+    @DisplayName("Should parse on every call outside a request and reject tampered tokens")
+    void shouldParseWithoutRequestContext() {
+        assertThat(jwtTokenUtil.isAccessToken(token)).isTrue();
+        assertThat(jwtTokenUtil.getUserId(token)).isEqualTo(7L);
+        verify(jwtTokenUtil, times(2)).parseToken(token);
+
+        String[] parts = token.split("\\.");
+        String forgedPayload = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                "{\"sub\":\"admin@example.com\",\"tokenType\":\"ACCESS\"}".getBytes(StandardCharsets.UTF_8));
+        String tampered = parts[0] + "." + forgedPayload + "." + parts[2];
+        assertThat(jwtTokenUtil.resolve(tampered)).isNull();
+        assertThat(jwtTokenUtil.isTokenValid(tampered)).isFalse();
+    }
+}
@@ -0,0 +1,43 @@
+package com.nexusiam.infrastructure.util;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ParsedInternalToken Tests")
+class ParsedInternalTokenTest {
+
+    @Test
+    @DisplayName("Should key the permission set independently of token and grant order")
+    void shouldKeyCompactPermissionSet() {
+        ParsedInternalToken first = token("a.b.sig1", Map.of("permissions", List.of("GET:/api/a", "POST:/api/b")));
+        ParsedInternalToken reordered = token("a.b.sig2", Map.of("permissions", List.of("POST:/api/b", "GET:/api/a")));
+        ParsedInternalToken other = token("a.b.sig3", Map.of("permissions", List.of("GET:/api/a")));
+
+        assertThat(reordered.getPermissionSetKey()).isEqualTo(first.getPermissionSetKey());
+        assertThat(other.getPermissionSetKey()).isNotEqualTo(first.getPermissionSetKey());
+    }
+
+    @Test
+    @DisplayName("Should key bitset permissions by index version and bits")
+    void shouldKeyPermissionBits() {
+        ParsedInternalToken first = token("a.b.sig1", Map.of("permIndexVersion", "v1", "permBits", "Bw"));
+        ParsedInternalToken same = token("a.b.sig2", Map.of("permIndexVersion", "v1", "permBits", "Bw"));
+        ParsedInternalToken newerIndex = token("a.b.sig3", Map.of("permIndexVersion", "v2", "permBits", "Bw"));
+
+        assertThat(same.getPermissionSetKey()).isEqualTo(first.getPermissionSetKey());
+        assertThat(newerIndex.getPermissionSetKey()).isNotEqualTo(first.getPermissionSetKey());
+        assertThat(first.getPermissionSetKey()).startsWith("v1:");
+    }
+
+    private static ParsedInternalToken token(String token, Map<String, Object> claims) {
+        Claims body = Jwts.claims(claims);
+        return new ParsedInternalToken(token, body);
+    }
+}
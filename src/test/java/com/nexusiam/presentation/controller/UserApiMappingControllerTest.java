@@ -0,0 +1,98 @@
+package com.nexusiam.presentation.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nexusiam.application.dto.request.BulkPermissionCheckRequest;
+import com.nexusiam.application.dto.response.BulkPermissionCheckResponse;
+import com.nexusiam.application.service.authorization.UserApiMappingService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UserApiMappingController Bulk Check Tests")
+class UserApiMappingControllerTest {
+
+    private static final String BULK_CHECK_URL = "/exchange/v1/int/user-api-mappings/check/bulk";
+
+    @Mock
+    private UserApiMappingService mappingService;
+
+    private MockMvc mockMvc;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(new UserApiMappingController(mappingService)).build();
+    }
+
+    @Test
+    @DisplayName("Should return one decision string per user")
+    void shouldReturnDecisions() throws Exception {
+        when(mappingService.checkPermissions(any(BulkPermissionCheckRequest.class)))
+                .thenReturn(BulkPermissionCheckResponse.builder()
+                        .totalActions(2)
+                        .decisions(Map.of(1L, "10"))
+                        .allowedCounts(Map.of(1L, 1))
+                        .build());
+
+        mockMvc.perform(post(BULK_CHECK_URL)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(request(1L, List.of(1L)))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.totalActions").value(2))
+                .andExpect(jsonPath("$.data.decisions['1']").value("10"))
+                .andExpect(jsonPath("$.message").value("Evaluated 2 actions for 1 users"));
+    }
+
+    @Test
+    @DisplayName("Should reject 101 distinct users when userId is merged into userIds")
+    void shouldRejectTooManyCombinedUsers() throws Exception {
+        List<Long> userIds = LongStream.rangeClosed(1, 100).boxed().collect(Collectors.toList());
+
+        mockMvc.perform(post(BULK_CHECK_URL)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(request(0L, userIds))))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(mappingService);
+    }
+
+    @Test
+    @DisplayName("Should reject a request without actions")
+    void shouldRejectMissingActions() throws Exception {
+        mockMvc.perform(post(BULK_CHECK_URL)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"userId\":1,\"actions\":[]}"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(mappingService);
+    }
+
+    private static BulkPermissionCheckRequest request(Long userId, List<Long> userIds) {
+        return BulkPermissionCheckRequest.builder()
+                .userId(userId)
+                .userIds(userIds)
+                .actions(List.of(
+                        BulkPermissionCheckRequest.ActionEntry.builder().httpMethod("GET").apiPath("/api/a").build(),
+                        BulkPermissionCheckRequest.ActionEntry.builder().httpMethod("POST").apiPath("/api/b").build()))
+                .build();
+    }
+}
@@ -0,0 +1,79 @@
+package com.nexusiam.service;
+
+import com.nexusiam.application.service.authorization.ApiSourceIndex;
+import com.nexusiam.core.domain.entity.ApiSource;
+import com.nexusiam.core.domain.repository.ApiSourceRepository;
+import com.nexusiam.infrastructure.config.security.PermissionConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ApiSourceIndex Tests")
+class ApiSourceIndexTest {
+
+    @Mock
+    private ApiSourceRepository apiSourceRepository;
+
+    private ApiSourceIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ApiSourceIndex(apiSourceRepository, new PermissionConfig());
+    }
+
+    @Test
+    @DisplayName("Should round-trip granted API sources through the bitset encoding")
+    void shouldRoundTripBitset() {
+        when(apiSourceRepository.findAll()).thenReturn(apiSources(3));
+        ApiSourceIndex.Snapshot snapshot = index.refresh();
+
+        String encoded = snapshot.encode(List.of(1L, 3L));
+        BitSet bits = BitSet.valueOf(Base64.getUrlDecoder().decode(encoded));
+
+        assertThat(snapshot.hasPermission(bits, "/api/1", "get")).isTrue();
+        assertThat(snapshot.hasPermission(bits, "/api/2", "GET")).isFalse();
+        assertThat(snapshot.decode(bits)).containsExactly("GET:/api/1", "GET:/api/3");
+    }
+
+    @Test
+    @DisplayName("Should refuse to encode API sources missing from the index")
+    void shouldRejectUnknownApiSource() {
+        when(apiSourceRepository.findAll()).thenReturn(apiSources(2));
+
+        assertThat(index.refresh().encode(List.of(1L, 99L))).isNull();
+    }
+
+    @Test
+    @DisplayName("Should keep previous versions resolvable after the registry changes")
+    void shouldKeepPreviousVersions() {
+        when(apiSourceRepository.findAll()).thenReturn(apiSources(2));
+        String oldVersion = index.refresh().getVersion();
+
+        when(apiSourceRepository.findAll()).thenReturn(apiSources(3));
+        String newVersion = index.refresh().getVersion();
+
+        assertThat(newVersion).isNotEqualTo(oldVersion);
+        assertThat(index.forVersion(oldVersion)).isNotNull();
+        assertThat(index.current().getVersion()).isEqualTo(newVersion);
+    }
+
+    private List<ApiSource> apiSources(int count) {
+        List<ApiSource> result = new ArrayList<>();
+        for (long id = count; id >= 1; id--) {
+            result.add(ApiSource.builder().id(id).apiPath("/api/" + id).apiMethod("GET").build());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,104 @@
+package com.nexusiam.service;
+
+import com.nexusiam.application.service.authorization.AuthorizationDecisionMemo;
+import com.nexusiam.application.service.authorization.PermissionInvalidationBus;
+import com.nexusiam.infrastructure.config.security.PermissionConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AuthorizationDecisionMemo Tests")
+class AuthorizationDecisionMemoTest {
+
+    @Mock
+    private PermissionInvalidationBus invalidationBus;
+
+    private PermissionConfig permissionConfig;
+    private AuthorizationDecisionMemo memo;
+    private final AtomicInteger evaluations = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        permissionConfig = new PermissionConfig();
+        memo = new AuthorizationDecisionMemo(invalidationBus, permissionConfig, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("Should memoize denials until the user's permission version changes")
+    void shouldInvalidateOnUserVersion() {
+        when(invalidationBus.isDistributed()).thenReturn(true);
+        when(invalidationBus.getUserVersion(1L)).thenReturn(10L, 10L, 11L);
+
+        assertThat(decide(1L, "/api/orders", false)).isFalse();
+        assertThat(decide(1L, "/api/orders", true)).isFalse();
+        assertThat(decide(1L, "/api/orders", true)).isTrue();
+        assertThat(evaluations).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Should discard every user's decisions when the catalog version changes")
+    void shouldInvalidateOnCatalogVersion() {
+        when(invalidationBus.isDistributed()).thenReturn(true);
+        when(invalidationBus.getCatalogVersion()).thenReturn(1L, 1L, 2L);
+
+        assertThat(decide(1L, "/api/orders", true)).isTrue();
+        assertThat(decide(1L, "/api/orders", false)).isTrue();
+        assertThat(decide(1L, "/api/orders", false)).isFalse();
+        assertThat(evaluations).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Should keep only the most recently used decisions per user")
+    void shouldBoundEntriesPerUser() {
+        when(invalidationBus.isDistributed()).thenReturn(true);
+        permissionConfig.setDecisionMemoMaxEntriesPerUser(2);
+
+        decide(1L, "/a", true);
+        decide(1L, "/b", true);
+        decide(1L, "/a", true);
+        decide(1L, "/c", true);
+        assertThat(evaluations).hasValue(3);
+
+        decide(1L, "/a", true);
+        decide(1L, "/b", true);
+        assertThat(evaluations).hasValue(4);
+    }
+
+    @Test
+    @DisplayName("Should evaluate every time when invalidations are not shared across replicas")
+    void shouldBypassWithoutTransport() {
+        when(invalidationBus.isDistributed()).thenReturn(false);
+
+        assertThat(decide(1L, "/api/orders", false)).isFalse();
+        assertThat(decide(1L, "/api/orders", true)).isTrue();
+        assertThat(evaluations).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Should normalize duplicate slashes, trailing slashes and matrix parameters")
+    void shouldNormalizePath() {
+        assertThat(AuthorizationDecisionMemo.normalizePath("//api///orders/")).isEqualTo("/api/orders");
+        assertThat(AuthorizationDecisionMemo.normalizePath("/api/orders;jsessionid=1")).isEqualTo("/api/orders");
+        assertThat(AuthorizationDecisionMemo.normalizePath("/api/orders?x=1")).isEqualTo("/api/orders");
+        assertThat(AuthorizationDecisionMemo.normalizePath("")).isEqualTo("/");
+        assertThat(AuthorizationDecisionMemo.normalizePath("///")).isEqualTo("/");
+        assertThat(AuthorizationDecisionMemo.normalizePath(null)).isEqualTo("/");
+    }
+
+    private boolean decide(Long userId, String path, boolean result) {
+        return memo.decide(userId, "get", path, () -> {
+            evaluations.incrementAndGet();
+            return result;
+        });
+    }
+}
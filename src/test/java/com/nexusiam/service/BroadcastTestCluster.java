@@ -0,0 +1,43 @@
+package com.nexusiam.service;
+
+import com.nexusiam.infrastructure.config.security.BroadcastConfig;
+import com.nexusiam.infrastructure.messaging.ClusterBroadcaster;
+import com.nexusiam.infrastructure.messaging.LocalInvalidationTransport;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.Mockito.mock;
+
+final class BroadcastTestCluster implements AutoCloseable {
+
+    private final String channel = "test_" + UUID.randomUUID().toString().replace("-", "");
+    private final List<ClusterBroadcaster> nodes = new ArrayList<>();
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    ClusterBroadcaster join() {
+        BroadcastConfig config = new BroadcastConfig();
+        config.setTransport(BroadcastConfig.TRANSPORT_LOCAL);
+        config.setChannel(channel);
+
+        ObjectProvider provider = mock(ObjectProvider.class);
+        ClusterBroadcaster broadcaster = new ClusterBroadcaster(config, new SimpleMeterRegistry(),
+                provider, provider, provider);
+        broadcaster.start();
+        nodes.add(broadcaster);
+        return broadcaster;
+    }
+
+    void publishRaw(String payload) {
+        new LocalInvalidationTransport(channel).publish(payload);
+    }
+
+    @Override
+    public void close() {
+        nodes.forEach(ClusterBroadcaster::stop);
+        nodes.clear();
+    }
+}
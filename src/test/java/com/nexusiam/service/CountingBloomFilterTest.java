@@ -0,0 +1,63 @@
+package com.nexusiam.service;
+
+import com.nexusiam.application.service.token.CountingBloomFilter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("CountingBloomFilter Tests")
+class CountingBloomFilterTest {
+
+    @Test
+    @DisplayName("Should never report a revoked id as absent")
+    void shouldHaveNoFalseNegatives() {
+        CountingBloomFilter filter = new CountingBloomFilter(10_000, 0.001);
+        String[] ids = new String[10_000];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = UUID.randomUUID().toString();
+            filter.add(ids[i]);
+        }
+
+        for (String id : ids) {
+            assertThat(filter.mightContain(id)).isTrue();
+        }
+        assertThat(filter.size()).isEqualTo(ids.length);
+    }
+
+    @Test
+    @DisplayName("Should keep false positives close to the configured rate")
+    void shouldKeepFalsePositivesNearTarget() {
+        CountingBloomFilter filter = new CountingBloomFilter(10_000, 0.001);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add(UUID.randomUUID().toString());
+        }
+
+        int falsePositives = 0;
+        int probes = 100_000;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain(UUID.randomUUID().toString())) {
+                falsePositives++;
+            }
+        }
+
+        assertThat((double) falsePositives / probes).isLessThan(0.005);
+        assertThat(filter.expectedFalsePositiveRate()).isLessThan(0.002);
+    }
+
+    @Test
+    @DisplayName("Should forget an id once it is removed")
+    void shouldRemoveEntries() {
+        CountingBloomFilter filter = new CountingBloomFilter(1_000, 0.001);
+        filter.add("jti-1");
+        filter.add("jti-2");
+
+        filter.remove("jti-1");
+
+        assertThat(filter.mightContain("jti-1")).isFalse();
+        assertThat(filter.mightContain("jti-2")).isTrue();
+        assertThat(filter.size()).isEqualTo(1);
+    }
+}
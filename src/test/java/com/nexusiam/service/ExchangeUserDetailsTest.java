@@ -0,0 +1,105 @@
+package com.nexusiam.service;
+
+import com.nexusiam.infrastructure.security.context.ExchangeUserDetails;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ExchangeUserDetails Tests")
+class ExchangeUserDetailsTest {
+
+    @Test
+    @DisplayName("Should not materialize registrations until they are read")
+    void shouldDeferLoader() {
+        AtomicInteger loads = new AtomicInteger();
+        ExchangeUserDetails details = ExchangeUserDetails.builder()
+                .profileId("profile-1")
+                .registrationsLoader(() -> {
+                    loads.incrementAndGet();
+                    return Map.of("kyc", "verified");
+                })
+                .build();
+
+        assertThat(details.getProfileId()).isEqualTo("profile-1");
+        assertThat(details.toString()).doesNotContain("kyc");
+        assertThat(details).isEqualTo(ExchangeUserDetails.builder().profileId("profile-1").build());
+        assertThat(loads.get()).isZero();
+
+        assertThat(details.getRegistrations()).containsEntry("kyc", "verified");
+        assertThat(details.getRegistrations()).isSameAs(details.getRegistrations());
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should call the loader once when many threads read registrations together")
+    void shouldLoadOnceUnderContention() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        ExchangeUserDetails details = ExchangeUserDetails.builder()
+                .registrationsLoader(() -> {
+                    loads.incrementAndGet();
+                    return Map.of("kyc", "verified");
+                })
+                .build();
+
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Map<String, Object>>> reads = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                reads.add(executor.submit(() -> {
+                    start.await();
+                    return details.getRegistrations();
+                }));
+            }
+            start.countDown();
+
+            Map<String, Object> first = reads.get(0).get();
+            for (Future<Map<String, Object>> read : reads) {
+                assertThat(read.get()).isSameAs(first);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should not retry a loader that found no registrations")
+    void shouldNotRetryEmptyLoad() {
+        AtomicInteger loads = new AtomicInteger();
+        ExchangeUserDetails details = ExchangeUserDetails.builder()
+                .registrationsLoader(() -> {
+                    loads.incrementAndGet();
+                    return null;
+                })
+                .build();
+
+        assertThat(details.getRegistrations()).isNull();
+        assertThat(details.getRegistrations()).isNull();
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should prefer registrations set directly over the loader")
+    void shouldPreferEagerRegistrations() {
+        ExchangeUserDetails details = ExchangeUserDetails.builder()
+                .registrations(Map.of("kyc", "pending"))
+                .registrationsLoader(() -> {
+                    throw new AssertionError("loader must not run");
+                })
+                .build();
+
+        assertThat(details.getRegistrations()).containsEntry("kyc", "pending");
+    }
+}
@@ -0,0 +1,197 @@
+package com.nexusiam.service;
+
+import com.nexusiam.application.service.token.JwksService;
+import com.nexusiam.infrastructure.config.oauth.OktaOAuth2Config;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("JwksService Tests")
+class JwksServiceTest {
+
+    private static final String ISSUER = "https://test.okta.com";
+    private static final String CLIENT_ID = "test-client-id";
+
+    private static RSAKey signingKey;
+    private static RSAKey unknownKey;
+
+    @Mock
+    private WebClient failingClient;
+
+    @TempDir
+    Path tempDir;
+
+    private final AtomicInteger fetches = new AtomicInteger();
+    private Supplier<Mono<ClientResponse>> nextResponse;
+    private OktaOAuth2Config config;
+    private JwksService service;
+
+    @BeforeAll
+    static void generateKeys() throws JOSEException {
+        signingKey = new RSAKeyGenerator(2048).keyID("k1").generate();
+        unknownKey = new RSAKeyGenerator(2048).keyID("k2").generate();
+    }
+
+    @BeforeEach
+    void setUp() {
+        config = new OktaOAuth2Config();
+        config.setIssuer(ISSUER);
+        config.setClientId(CLIENT_ID);
+        config.setJwksUri(ISSUER + "/oauth2/v1/keys");
+        config.setJwksFetchTimeoutSeconds(2);
+
+        nextResponse = () -> ok(jwks());
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    fetches.incrementAndGet();
+                    return nextResponse.get();
+                })
+                .build();
+        service = new JwksService(webClient, config);
+    }
+
+    @Test
+    @DisplayName("Should share one in-flight JWKS fetch between concurrent refreshes")
+    void shouldShareInFlightRefresh() throws Exception {
+        CompletableFuture<ClientResponse> gate = new CompletableFuture<>();
+        nextResponse = () -> Mono.fromFuture(gate);
+
+        service.refreshAhead();
+        service.refreshAhead();
+        assertThat(fetches).hasValue(1);
+
+        gate.complete(ok(jwks()).block());
+        assertThat(service.validateAndParseToken(token(signingKey)).getSubject()).isEqualTo("user-1");
+        assertThat(fetches).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Should clear the in-flight refresh when the fetch fails before it starts")
+    void shouldClearRefreshAfterSynchronousFailure() throws Exception {
+        when(failingClient.get()).thenThrow(new IllegalStateException("client closed"));
+        service = new JwksService(failingClient, config);
+
+        assertThatThrownBy(() -> service.validateAndParseToken(token(signingKey)))
+                .isInstanceOf(RuntimeException.class);
+        service.refreshAhead();
+
+        verify(failingClient, times(2)).get();
+    }
+
+    @Test
+    @DisplayName("Should serve expired keys within max staleness while refreshing in the background")
+    void shouldServeStaleKeys() throws Exception {
+        config.setJwksCacheDurationSeconds(3600);
+        writeSnapshot(Instant.now().minus(2, ChronoUnit.HOURS));
+        service.loadSnapshotFromDisk();
+        nextResponse = Mono::never;
+
+        assertThat(service.validateAndParseToken(token(signingKey)).getSubject()).isEqualTo("user-1");
+        assertThat(fetches).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Should validate from the on-disk snapshot without fetching at startup")
+    void shouldLoadSnapshotFromDisk() throws Exception {
+        writeSnapshot(Instant.now().minus(5, ChronoUnit.MINUTES));
+        service.loadSnapshotFromDisk();
+
+        assertThat(service.validateAndParseToken(token(signingKey)).getSubject()).isEqualTo("user-1");
+        assertThat(fetches).hasValue(0);
+    }
+
+    @Test
+    @DisplayName("Should ignore an on-disk snapshot older than max staleness")
+    void shouldIgnoreSnapshotBeyondMaxStaleness() throws Exception {
+        config.setJwksMaxStalenessSeconds(3600);
+        writeSnapshot(Instant.now().minus(2, ChronoUnit.HOURS));
+        service.loadSnapshotFromDisk();
+
+        assertThat(service.validateAndParseToken(token(signingKey)).getSubject()).isEqualTo("user-1");
+        assertThat(fetches).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Should refresh once for an unknown key ID and rate-limit further attempts")
+    void shouldRateLimitUnknownKidRefresh() throws Exception {
+        assertThat(service.validateAndParseToken(token(signingKey)).getSubject()).isEqualTo("user-1");
+        assertThat(fetches).hasValue(1);
+
+        String forged = token(unknownKey);
+        assertThatThrownBy(() -> service.validateAndParseToken(forged)).hasMessageContaining("k2");
+        assertThat(fetches).hasValue(2);
+
+        assertThatThrownBy(() -> service.validateAndParseToken(forged)).hasMessageContaining("k2");
+        String other = token(new RSAKeyGenerator(2048).keyID("k3").generate());
+        assertThatThrownBy(() -> service.validateAndParseToken(other)).hasMessageContaining("k3");
+        assertThat(fetches).hasValue(2);
+    }
+
+    private void writeSnapshot(Instant fetchedAt) throws Exception {
+        Path snapshot = tempDir.resolve("jwks.json");
+        Files.writeString(snapshot, jwks());
+        Files.setLastModifiedTime(snapshot, FileTime.from(fetchedAt));
+        config.setJwksSnapshotPath(snapshot.toString());
+    }
+
+    private static String jwks() {
+        return new JWKSet(signingKey.toPublicJWK()).toString();
+    }
+
+    private static Mono<ClientResponse> ok(String body) {
+        return Mono.just(ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(body)
+                .build());
+    }
+
+    private static String token(RSAKey key) throws JOSEException {
+        SignedJWT jwt = new SignedJWT(
+                new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(key.getKeyID()).build(),
+                new JWTClaimsSet.Builder()
+                        .issuer(ISSUER)
+                        .audience(CLIENT_ID)
+                        .subject("user-1")
+                        .expirationTime(new Date(System.currentTimeMillis() + 300_000))
+                        .build());
+        jwt.sign(new RSASSASigner(key));
+        return jwt.serialize();
+    }
+}
@@ -0,0 +1,169 @@
+package com.nexusiam.service;
+
+import com.nexusiam.application.service.authorization.ApiSourceIndex;
+import com.nexusiam.application.service.authorization.PermissionCacheService;
+import com.nexusiam.application.service.authorization.UserPermissionLoader;
+import com.nexusiam.core.domain.entity.ApiSource;
+import com.nexusiam.core.domain.repository.ApiSourceRepository;
+import com.nexusiam.core.domain.repository.UserApiMappingRepository;
+import com.nexusiam.core.domain.repository.UserApiPermissionView;
+import com.nexusiam.infrastructure.config.security.PermissionConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PermissionCacheService Tests")
+class PermissionCacheServiceTest {
+
+    private static final String[] METHODS = {"GET", "POST", "PUT", "DELETE"};
+    private static final int API_COUNT = 1000;
+
+    @Mock
+    private ApiSourceRepository apiSourceRepository;
+
+    @Mock
+    private UserApiMappingRepository mappingRepository;
+
+    private ApiSourceIndex index;
+    private PermissionCacheService cacheService;
+
+    @BeforeEach
+    void setUp() {
+        PermissionConfig config = new PermissionConfig();
+        index = new ApiSourceIndex(apiSourceRepository, config);
+        UserPermissionLoader loader = new UserPermissionLoader(mappingRepository, config);
+        cacheService = new PermissionCacheService(loader, index, config, new SimpleMeterRegistry());
+        cacheService.init();
+
+        when(apiSourceRepository.findAll()).thenReturn(apiSources());
+    }
+
+    @AfterEach
+    void tearDown() {
+        cacheService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should match requests against interned grants, including path parameters")
+    void shouldMatchInternedGrants() {
+        when(mappingRepository.findEffectivePermissions(7L))
+                .thenReturn(List.of(view(7L, 1), view(7L, 2), view(7L, API_COUNT + 1)));
+
+        assertThat(cacheService.hasPermission(7L, "/api/module1/resource0", "post")).isTrue();
+        assertThat(cacheService.hasPermission(7L, "/api/module2/resource0", "PUT")).isTrue();
+        assertThat(cacheService.hasPermission(7L, "/api/users/42", "GET")).isTrue();
+        assertThat(cacheService.hasPermission(7L, "/api/module3/resource0", "DELETE")).isFalse();
+        assertThat(cacheService.hasAnyAccess(7L, "/api/module1/resource0")).isTrue();
+        assertThat(cacheService.getUserPermissions(7L))
+                .extracting(PermissionCacheService.CachedPermission::getApiPath)
+                .containsExactlyInAnyOrder("/api/module1/resource0", "/api/module2/resource0", "/api/users/:id");
+    }
+
+    @Test
+    @DisplayName("Should re-base only the users holding a changed API source, without reloading")
+    void shouldRebaseAffectedUsersOnly() {
+        when(mappingRepository.findEffectivePermissions(1L)).thenReturn(List.of(view(1L, 1)));
+        when(mappingRepository.findEffectivePermissions(2L)).thenReturn(List.of(view(2L, 2)));
+        assertThat(cacheService.hasPermission(1L, "/api/module1/resource0", "POST")).isTrue();
+        assertThat(cacheService.hasPermission(2L, "/api/module2/resource0", "PUT")).isTrue();
+
+        List<ApiSource> changed = apiSources();
+        changed.get(0).setApiPath("/api/v2/module1/resource0");
+        when(apiSourceRepository.findAll()).thenReturn(changed);
+
+        assertThat(cacheService.applyApiSourceChange(1L, index.refresh())).isEqualTo(1);
+
+        assertThat(cacheService.hasPermission(1L, "/api/v2/module1/resource0", "POST")).isTrue();
+        assertThat(cacheService.hasPermission(1L, "/api/module1/resource0", "POST")).isFalse();
+        assertThat(cacheService.hasPermission(2L, "/api/module2/resource0", "PUT")).isTrue();
+        verify(mappingRepository, times(1)).findEffectivePermissions(1L);
+        verify(mappingRepository, times(1)).findEffectivePermissions(2L);
+    }
+
+    @Test
+    @DisplayName("Should still cache a user whose load overlapped another user's invalidation")
+    void shouldCacheLoadAcrossOtherUsersInvalidation() {
+        when(mappingRepository.findEffectivePermissions(1L)).thenAnswer(invocation -> {
+            cacheService.invalidateUser(2L);
+            return List.of(view(1L, 1));
+        });
+
+        assertThat(cacheService.hasPermission(1L, "/api/module1/resource0", "POST")).isTrue();
+        assertThat(cacheService.hasPermission(1L, "/api/module1/resource0", "POST")).isTrue();
+        verify(mappingRepository, times(1)).findEffectivePermissions(1L);
+    }
+
+    @Test
+    @DisplayName("Should discard a load that overlapped the same user's invalidation")
+    void shouldDiscardLoadAcrossOwnInvalidation() {
+        when(mappingRepository.findEffectivePermissions(1L)).thenAnswer(invocation -> {
+            cacheService.invalidateUser(1L);
+            return List.of(view(1L, 1));
+        });
+
+        assertThat(cacheService.hasPermission(1L, "/api/module1/resource0", "POST")).isTrue();
+        assertThat(cacheService.hasPermission(1L, "/api/module1/resource0", "POST")).isTrue();
+        verify(mappingRepository, times(2)).findEffectivePermissions(1L);
+    }
+
+    @Test
+    @DisplayName("Should evaluate many actions for many users with a single batched load")
+    void shouldCheckActionsInBulk() {
+        when(mappingRepository.findEffectivePermissions(1L)).thenReturn(List.of(view(1L, 1)));
+        assertThat(cacheService.hasPermission(1L, "/api/module1/resource0", "POST")).isTrue();
+        when(mappingRepository.findEffectivePermissionsForUsers(anyCollection()))
+                .thenReturn(List.of(view(2L, 2), view(2L, API_COUNT + 1)));
+
+        List<PermissionCacheService.Action> actions = List.of(
+                new PermissionCacheService.Action("POST", "/api/module1/resource0"),
+                new PermissionCacheService.Action("PUT", "/api/module2/resource0"),
+                new PermissionCacheService.Action("GET", "/api/users/9"));
+        Map<Long, BitSet> decisions = cacheService.checkAll(List.of(1L, 2L, 3L), actions);
+
+        assertThat(decisions.get(1L)).isEqualTo(BitSet.valueOf(new long[]{0b001}));
+        assertThat(decisions.get(2L)).isEqualTo(BitSet.valueOf(new long[]{0b110}));
+        assertThat(decisions.get(3L).isEmpty()).isTrue();
+        verify(mappingRepository, times(1)).findEffectivePermissionsForUsers(List.of(2L, 3L));
+    }
+
+    private List<ApiSource> apiSources() {
+        List<ApiSource> result = new ArrayList<>();
+        for (int id = 1; id <= API_COUNT; id++) {
+            result.add(ApiSource.builder()
+                    .id((long) id)
+                    .apiPath("/api/module" + (id % 20) + "/resource" + (id / 20))
+                    .apiMethod(METHODS[id % METHODS.length])
+                    .module("module" + (id % 20))
+                    .build());
+        }
+        result.add(ApiSource.builder().id((long) API_COUNT + 1).apiPath("/api/users/:id").apiMethod("GET").build());
+        return result;
+    }
+
+    private static UserApiPermissionView view(long userId, int apiSourceId) {
+        return new UserApiPermissionView() {
+            public Long getUserId() { return userId; }
+            public Long getApiSourceId() { return (long) apiSourceId; }
+            public String getApiPath() { return "unused"; }
+            public String getApiMethod() { return "GET"; }
+            public String getModule() { return null; }
+        };
+    }
+}
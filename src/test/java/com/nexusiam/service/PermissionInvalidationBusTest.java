@@ -0,0 +1,150 @@
+package com.nexusiam.service;
+
+import com.nexusiam.application.service.authorization.ApiSourceIndex;
+import com.nexusiam.application.service.authorization.PermissionCacheService;
+import com.nexusiam.application.service.authorization.PermissionInvalidationBus;
+import com.nexusiam.infrastructure.config.security.PermissionConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PermissionInvalidationBus Tests")
+class PermissionInvalidationBusTest {
+
+    @Mock
+    private PermissionCacheService cacheA;
+
+    @Mock
+    private PermissionCacheService cacheB;
+
+    @Mock
+    private ApiSourceIndex apiSourceIndex;
+
+    private BroadcastTestCluster cluster;
+    private PermissionInvalidationBus replicaA;
+    private PermissionInvalidationBus replicaB;
+
+    @BeforeEach
+    void setUp() {
+        cluster = new BroadcastTestCluster();
+        replicaA = replica(cacheA);
+        replicaB = replica(cacheB);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cluster.close();
+    }
+
+    @Test
+    @DisplayName("Should invalidate a user's permissions on every replica")
+    void shouldInvalidateUserOnAllReplicas() {
+        replicaA.publishUserChanged(7L);
+
+        verify(cacheA, times(1)).invalidateUser(7L);
+        verify(cacheB, times(1)).invalidateUser(7L);
+        assertThat(replicaB.getUserVersion(7L)).isEqualTo(replicaA.getUserVersion(7L)).isPositive();
+    }
+
+    @Test
+    @DisplayName("Should keep versions monotonic across replicas")
+    void shouldKeepVersionsMonotonic() {
+        replicaA.publishUserChanged(1L);
+        long first = replicaA.getUserVersion(1L);
+        replicaB.publishUserChanged(1L);
+
+        assertThat(replicaB.getUserVersion(1L)).isGreaterThan(first);
+        assertThat(replicaA.getUserVersion(1L)).isEqualTo(replicaB.getUserVersion(1L));
+    }
+
+    @Test
+    @DisplayName("Should refresh the API source index and re-base cached grants on API source changes")
+    void shouldApplyApiSourceChanges() {
+        replicaA.publishApiSourceChanged(42L);
+
+        verify(apiSourceIndex, times(2)).refresh();
+        verify(cacheA, times(1)).applyApiSourceChange(eq(42L), any());
+        verify(cacheB, times(1)).applyApiSourceChange(eq(42L), any());
+        verify(cacheB, never()).clearCache();
+    }
+
+    @Test
+    @DisplayName("Should clear the local cache when invalidations from another replica were missed")
+    void shouldClearCacheOnSequenceGap() {
+        cluster.publishRaw("v2|foreign|1|100|permission|USER|5");
+        verify(cacheB, never()).clearCache();
+
+        cluster.publishRaw("v2|foreign|3|101|permission|USER|6");
+
+        verify(cacheB, times(1)).clearCache();
+        verify(cacheB, times(1)).invalidateUser(6L);
+        assertThat(replicaB.getStats()).containsEntry("gaps", 1L);
+    }
+
+    @Test
+    @DisplayName("Should treat a token's permission stamp as current until the user or catalog changes")
+    void shouldTrackTokenPermissionVersion() {
+        long version = replicaA.getUserVersion(3L);
+        long asOf = replicaA.issueVersion();
+        assertThat(replicaB.isTokenVersionCurrent(3L, version, asOf)).isTrue();
+
+        replicaA.publishUserChanged(3L);
+        assertThat(replicaB.isTokenVersionCurrent(3L, version, asOf)).isFalse();
+
+        long refreshedVersion = replicaA.getUserVersion(3L);
+        long refreshedAsOf = replicaA.issueVersion();
+        assertThat(replicaB.isTokenVersionCurrent(3L, refreshedVersion, refreshedAsOf)).isTrue();
+
+        replicaA.publishApiSourceChanged(42L);
+        assertThat(replicaB.isTokenVersionCurrent(3L, refreshedVersion, refreshedAsOf)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should not trust tokens stamped before this replica was subscribed")
+    void shouldRejectTokensOlderThanSubscription() {
+        long asOf = replicaA.issueVersion();
+        PermissionInvalidationBus late = replica(cacheB);
+
+        assertThat(late.isTokenVersionCurrent(3L, 0L, asOf)).isFalse();
+        assertThat(late.isTokenVersionCurrent(3L, 0L, late.issueVersion())).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should forget user versions once every token stamped before them has expired")
+    void shouldPurgeExpiredUserVersions() {
+        long expired = (System.currentTimeMillis() - (15 * 60 + 1) * 1000L) * 1000;
+        replicaB.onMessage(expired, "USER|9");
+        replicaA.publishUserChanged(7L);
+        long recent = replicaB.getUserVersion(7L);
+
+        replicaB.purgeUserVersions();
+
+        assertThat(replicaB.getUserVersion(9L)).isZero();
+        assertThat(replicaB.getUserVersion(7L)).isEqualTo(recent).isPositive();
+        assertThat(replicaB.getStats()).containsEntry("trackedUserVersions", 1);
+        assertThat(replicaB.isTokenVersionCurrent(9L, 0L, replicaB.issueVersion())).isTrue();
+    }
+
+    private PermissionInvalidationBus replica(PermissionCacheService cacheService) {
+        PermissionConfig config = new PermissionConfig();
+        config.setTokenVersionSkewMs(0);
+
+        PermissionInvalidationBus bus = new PermissionInvalidationBus(cacheService, apiSourceIndex, config,
+                cluster.join(), new SimpleMeterRegistry());
+        bus.start();
+        return bus;
+    }
+}
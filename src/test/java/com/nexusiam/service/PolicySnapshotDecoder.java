@@ -0,0 +1,105 @@
+package com.nexusiam.service;
+
+import com.nexusiam.application.service.authorization.PolicySnapshotCodec;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+final class PolicySnapshotDecoder {
+
+    private PolicySnapshotDecoder() {
+    }
+
+    static Decoded decode(byte[] payload) {
+        try (DataInputStream in = new DataInputStream(new GZIPInputStream(new ByteArrayInputStream(payload)))) {
+            if (in.readInt() != PolicySnapshotCodec.MAGIC) {
+                throw new IllegalArgumentException("Not a policy snapshot");
+            }
+            int format = in.readUnsignedByte();
+            if (format != PolicySnapshotCodec.FORMAT_VERSION) {
+                throw new IllegalArgumentException("Unsupported policy snapshot format " + format);
+            }
+
+            int kind = in.readUnsignedByte();
+            long version = in.readLong();
+            long baseVersion = in.readLong();
+
+            int sourceCount = in.readInt();
+            Map<Long, PolicySnapshotCodec.Source> sources = new LinkedHashMap<>(sourceCount * 2);
+            for (int i = 0; i < sourceCount; i++) {
+                long id = in.readLong();
+                String method = in.readUTF();
+                String path = in.readUTF();
+                String module = in.readUTF();
+                sources.put(id, new PolicySnapshotCodec.Source(method, path, module.isEmpty() ? null : module));
+            }
+
+            int removedCount = in.readInt();
+            List<Long> removed = new ArrayList<>(removedCount);
+            for (int i = 0; i < removedCount; i++) {
+                removed.add(in.readLong());
+            }
+
+            int userCount = in.readInt();
+            Map<Long, long[]> grants = new LinkedHashMap<>(userCount * 2);
+            for (int i = 0; i < userCount; i++) {
+                long userId = in.readLong();
+                long[] ids = new long[(int) readVarLong(in)];
+                long previous = 0;
+                for (int j = 0; j < ids.length; j++) {
+                    previous += readVarLong(in);
+                    ids[j] = previous;
+                }
+                grants.put(userId, ids);
+            }
+
+            return new Decoded(kind, version, baseVersion, sources, removed, grants);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Malformed policy snapshot: " + e.getMessage(), e);
+        }
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Varint too long");
+    }
+
+    static final class Decoded {
+        private final int kind;
+        private final long version;
+        private final long baseVersion;
+        private final Map<Long, PolicySnapshotCodec.Source> sources;
+        private final List<Long> removedSources;
+        private final Map<Long, long[]> grants;
+
+        Decoded(int kind, long version, long baseVersion, Map<Long, PolicySnapshotCodec.Source> sources,
+                List<Long> removedSources, Map<Long, long[]> grants) {
+            this.kind = kind;
+            this.version = version;
+            this.baseVersion = baseVersion;
+            this.sources = sources;
+            this.removedSources = removedSources;
+            this.grants = grants;
+        }
+
+        boolean isDelta() { return kind == PolicySnapshotCodec.KIND_DELTA; }
+        long getVersion() { return version; }
+        long getBaseVersion() { return baseVersion; }
+        Map<Long, PolicySnapshotCodec.Source> getSources() { return sources; }
+        List<Long> getRemovedSources() { return removedSources; }
+        Map<Long, long[]> getGrants() { return grants; }
+    }
+}
@@ -0,0 +1,174 @@
+package com.nexusiam.service;
+
+import com.nexusiam.application.service.authorization.PermissionInvalidationBus;
+import com.nexusiam.application.service.authorization.PolicySnapshotService;
+import com.nexusiam.application.service.authorization.UserPermissionLoader;
+import com.nexusiam.core.domain.entity.ApiSource;
+import com.nexusiam.core.domain.repository.ApiSourceRepository;
+import com.nexusiam.core.domain.repository.UserApiMappingRepository;
+import com.nexusiam.core.domain.repository.UserApiPermissionView;
+import com.nexusiam.infrastructure.config.security.PermissionConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PolicySnapshotService Tests")
+class PolicySnapshotServiceTest {
+
+    @Mock
+    private UserApiMappingRepository mappingRepository;
+
+    @Mock
+    private ApiSourceRepository apiSourceRepository;
+
+    @Mock
+    private PermissionInvalidationBus invalidationBus;
+
+    private PolicySnapshotService snapshotService;
+
+    @BeforeEach
+    void setUp() {
+        snapshotService = replica();
+
+        when(apiSourceRepository.findAll()).thenReturn(List.of(source(1L, "/api/orders"), source(2L, "/api/users")));
+        when(mappingRepository.findAllEffectivePermissions()).thenReturn(List.of(view(7L, 1L, "/api/orders")));
+    }
+
+    @Test
+    @DisplayName("Should export a full snapshot, then only the changed users as a delta")
+    void shouldExportFullThenDelta() {
+        PolicySnapshotService.Export full = snapshotService.export(null);
+        PolicySnapshotDecoder.Decoded decodedFull = PolicySnapshotDecoder.decode(full.getBody());
+
+        assertThat(decodedFull.isDelta()).isFalse();
+        assertThat(decodedFull.getSources()).containsOnlyKeys(1L, 2L);
+        assertThat(decodedFull.getGrants().get(7L)).containsExactly(1L);
+
+        when(mappingRepository.findEffectivePermissionsForUsers(anyCollection()))
+                .thenReturn(List.of(view(8L, 2L, "/api/users")));
+        snapshotService.onUserChanged(8L);
+        snapshotService.refresh();
+
+        PolicySnapshotService.Export delta = snapshotService.export(full.getTag());
+        PolicySnapshotDecoder.Decoded decodedDelta = PolicySnapshotDecoder.decode(delta.getBody());
+
+        assertThat(delta.getBaseTag()).isEqualTo(full.getTag());
+        assertThat(decodedDelta.isDelta()).isTrue();
+        assertThat(decodedDelta.getSources()).isEmpty();
+        assertThat(decodedDelta.getGrants()).containsOnlyKeys(8L);
+        assertThat(decodedDelta.getGrants().get(8L)).containsExactly(2L);
+        verify(apiSourceRepository, times(1)).findAll();
+        verify(mappingRepository, times(1)).findAllEffectivePermissions();
+    }
+
+    @Test
+    @DisplayName("Should report not modified when the caller already holds the current version")
+    void shouldReportNotModified() {
+        String tag = snapshotService.getCurrentTag();
+
+        assertThat(snapshotService.export("\"" + tag + "\"").isNotModified()).isTrue();
+        assertThat(snapshotService.export("unknown-1").isNotModified()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should issue the same tag on every replica holding the same policy")
+    void shouldAgreeOnTagsAcrossReplicas() {
+        PolicySnapshotService other = replica();
+        PolicySnapshotService.Export full = snapshotService.export(null);
+
+        assertThat(other.getCurrentTag()).isEqualTo(full.getTag());
+        assertThat(other.export(full.getTag()).isNotModified()).isTrue();
+
+        when(mappingRepository.findEffectivePermissionsForUsers(anyCollection()))
+                .thenReturn(List.of(view(7L, 2L, "/api/users")));
+        snapshotService.onUserChanged(7L);
+        other.onUserChanged(7L);
+        snapshotService.refresh();
+        other.refresh();
+
+        PolicySnapshotService.Export delta = other.export(full.getTag());
+        assertThat(delta.isDelta()).isTrue();
+        assertThat(delta.getTag()).isEqualTo(snapshotService.getCurrentTag()).isNotEqualTo(full.getTag());
+    }
+
+    @Test
+    @DisplayName("Should keep serving the last snapshot until the background rebuild completes")
+    void shouldServePreviousSnapshotDuringRebuild() {
+        String tag = snapshotService.getCurrentTag();
+
+        when(mappingRepository.findAllEffectivePermissions()).thenReturn(List.of(view(7L, 2L, "/api/users")));
+        snapshotService.onAllChanged();
+
+        assertThat(snapshotService.getCurrentTag()).isEqualTo(tag);
+        assertThat(snapshotService.export(tag).isNotModified()).isTrue();
+        verify(mappingRepository, times(1)).findAllEffectivePermissions();
+
+        snapshotService.refresh();
+
+        assertThat(snapshotService.getCurrentTag()).isNotEqualTo(tag);
+        verify(mappingRepository, times(2)).findAllEffectivePermissions();
+    }
+
+    @Test
+    @DisplayName("Should reload every holder of a changed API source in one batched query")
+    @SuppressWarnings("unchecked")
+    void shouldBatchReloadForApiSourceChange() {
+        when(mappingRepository.findAllEffectivePermissions()).thenReturn(List.of(
+                view(7L, 1L, "/api/orders"), view(8L, 1L, "/api/orders"), view(9L, 2L, "/api/users")));
+        PolicySnapshotService.Export full = snapshotService.export(null);
+
+        when(apiSourceRepository.findAllById(anyCollection())).thenReturn(List.of(source(1L, "/api/v2/orders")));
+        when(mappingRepository.findEffectivePermissionsForUsers(anyCollection()))
+                .thenReturn(List.of(view(7L, 1L, "/api/v2/orders"), view(8L, 1L, "/api/v2/orders")));
+        snapshotService.onApiSourceChanged(1L);
+        snapshotService.refresh();
+
+        ArgumentCaptor<Collection<Long>> users = ArgumentCaptor.forClass(Collection.class);
+        verify(mappingRepository, times(1)).findEffectivePermissionsForUsers(users.capture());
+        assertThat(users.getValue()).containsExactlyInAnyOrder(7L, 8L);
+        verify(mappingRepository, never()).findEffectivePermissions(anyLong());
+
+        PolicySnapshotDecoder.Decoded delta = PolicySnapshotDecoder.decode(snapshotService.export(full.getTag()).getBody());
+        assertThat(delta.getSources()).containsOnlyKeys(1L);
+        assertThat(delta.getGrants()).containsOnlyKeys(7L, 8L);
+    }
+
+    private PolicySnapshotService replica() {
+        PermissionConfig config = new PermissionConfig();
+        PolicySnapshotService service = new PolicySnapshotService(mappingRepository, apiSourceRepository,
+                new UserPermissionLoader(mappingRepository, config), invalidationBus, config, new SimpleMeterRegistry());
+        service.init();
+        return service;
+    }
+
+    private static ApiSource source(Long id, String path) {
+        return ApiSource.builder().id(id).apiPath(path).apiMethod("GET").module("orders").build();
+    }
+
+    private static UserApiPermissionView view(long userId, long apiSourceId, String path) {
+        return new UserApiPermissionView() {
+            public Long getUserId() { return userId; }
+            public Long getApiSourceId() { return apiSourceId; }
+            public String getApiPath() { return path; }
+            public String getApiMethod() { return "GET"; }
+            public String getModule() { return "orders"; }
+        };
+    }
+}
@@ -0,0 +1,95 @@
+package com.nexusiam.service;
+
+import com.nexusiam.application.service.token.RevocationEpochService;
+import com.nexusiam.infrastructure.config.security.RevocationEpochConfig;
+import com.nexusiam.infrastructure.redis.RedisAvailability;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RevocationEpochService Tests")
+class RevocationEpochServiceTest {
+
+    @Mock
+    private RedisAvailability redisAvailability;
+
+    @Mock
+    private ObjectProvider<Object> unusedProvider;
+
+    private BroadcastTestCluster cluster;
+    private RevocationEpochService replicaA;
+    private RevocationEpochService replicaB;
+
+    @BeforeEach
+    void setUp() {
+        cluster = new BroadcastTestCluster();
+        replicaA = replica();
+        replicaB = replica();
+    }
+
+    @AfterEach
+    void tearDown() {
+        cluster.close();
+    }
+
+    @Test
+    @DisplayName("Should reject tokens issued before a subject's cutoff on every replica")
+    void shouldRevokeSubjectEverywhere() {
+        Date before = new Date(System.currentTimeMillis() - 60_000);
+        assertThat(replicaB.isRevoked("P1", "G1", "ADMIN", before)).isFalse();
+
+        replicaA.revoke(RevocationEpochService.Scope.SUBJECT, "P1");
+
+        assertThat(replicaA.isRevoked("P1", "G1", "ADMIN", before)).isTrue();
+        assertThat(replicaB.isRevoked("P1", "G1", "ADMIN", before)).isTrue();
+        assertThat(replicaB.isRevoked("P2", "G1", "ADMIN", before)).isFalse();
+        assertThat(replicaB.isRevoked("P1", "G1", "ADMIN", new Date(System.currentTimeMillis() + 1000))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should revoke every member of a group or role with a single cutoff")
+    void shouldRevokeGroupsAndRoles() {
+        Date before = new Date(System.currentTimeMillis() - 60_000);
+
+        replicaA.revoke(RevocationEpochService.Scope.GROUP, "G1");
+        replicaA.revoke(RevocationEpochService.Scope.ROLE, "auditor");
+
+        assertThat(replicaB.isRevoked("P1", "G1", "USER", before)).isTrue();
+        assertThat(replicaB.isRevoked("P2", "G2", "AUDITOR", before)).isTrue();
+        assertThat(replicaB.isRevoked("P3", "G2", "USER", before)).isFalse();
+        assertThat(replicaB.isRevoked("P4", null, "USER", null)).isFalse();
+        assertThat(replicaB.isRevoked("P4", "G1", "USER", null)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should accept a token issued right after the revocation despite whole-second iat")
+    void shouldAcceptTokenIssuedInRevocationSecond() {
+        Date previousSecond = new Date((System.currentTimeMillis() / 1000 - 1) * 1000);
+
+        replicaA.revoke(RevocationEpochService.Scope.SUBJECT, "P1");
+        Date reissued = new Date(System.currentTimeMillis() / 1000 * 1000);
+
+        assertThat(replicaB.isRevoked("P1", null, null, previousSecond)).isTrue();
+        assertThat(replicaB.isRevoked("P1", null, null, reissued)).isFalse();
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private RevocationEpochService replica() {
+        ObjectProvider provider = unusedProvider;
+        RevocationEpochService service = new RevocationEpochService(new RevocationEpochConfig(), redisAvailability,
+                cluster.join(), new SimpleMeterRegistry(), provider);
+        service.start();
+        return service;
+    }
+}
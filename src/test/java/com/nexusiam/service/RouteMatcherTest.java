@@ -0,0 +1,109 @@
+package com.nexusiam.service;
+
+import com.nexusiam.infrastructure.config.security.PermissionConfig;
+import com.nexusiam.infrastructure.security.matcher.RouteMatcher;
+import com.nexusiam.infrastructure.security.matcher.RouteMatcherCache;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("RouteMatcher Tests")
+class RouteMatcherTest {
+
+    @Test
+    @DisplayName("Should prefer a literal segment but fall back to a path parameter")
+    void shouldBacktrackFromLiteralToParam() {
+        RouteMatcher matcher = RouteMatcher.compile(List.of("GET:/api/users/me", "DELETE:/api/users/:id"));
+
+        assertThat(matcher.matches("GET", "/api/users/me")).isTrue();
+        assertThat(matcher.matches("DELETE", "/api/users/me")).isTrue();
+        assertThat(matcher.matches("DELETE", "/api/users/42")).isTrue();
+        assertThat(matcher.matches("GET", "/api/users/42")).isFalse();
+        assertThat(matcher.matches("DELETE", "/api/users/42/roles")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should resolve literal and parameter routes to their own ids")
+    void shouldMatchGrantedIds() {
+        RouteMatcher matcher = RouteMatcher.builder()
+                .add("GET", "/api/users/me", 1)
+                .add("GET", "/api/users/:id", 2)
+                .build();
+
+        assertThat(matcher.matches("GET", "/api/users/me", id -> id == 1)).isTrue();
+        assertThat(matcher.matches("GET", "/api/users/me", id -> id == 2)).isTrue();
+        assertThat(matcher.matches("GET", "/api/users/42", id -> id == 1)).isFalse();
+        assertThat(matcher.matches("GET", "/api/users/42", id -> id == 2)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should treat a trailing /* as a prefix on whole segments")
+    void shouldMatchPrefixes() {
+        RouteMatcher matcher = RouteMatcher.compile(List.of("GET:/api/admin/*"));
+
+        assertThat(matcher.matches("GET", "/api/admin")).isTrue();
+        assertThat(matcher.matches("GET", "/api/admin/users/42")).isTrue();
+        assertThat(matcher.matches("GET", "/api/administrator")).isFalse();
+        assertThat(matcher.matches("GET", "/api")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should reject a matching path requested with another method")
+    void shouldRejectMethodMismatch() {
+        RouteMatcher matcher = RouteMatcher.compile(List.of("POST:/api/orders"));
+
+        assertThat(matcher.matches("post", "/api/orders")).isTrue();
+        assertThat(matcher.matches("GET", "/api/orders")).isFalse();
+        assertThat(matcher.matchesAnyMethod("/api/orders")).isTrue();
+        assertThat(matcher.matches(null, "/api/orders")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should ignore trailing slashes on both patterns and requests")
+    void shouldIgnoreTrailingSlashes() {
+        RouteMatcher matcher = RouteMatcher.compile(List.of("GET:/api/items/", "GET:/api/users/:id"));
+
+        assertThat(matcher.matches("GET", "/api/items")).isTrue();
+        assertThat(matcher.matches("GET", "/api/items/")).isTrue();
+        assertThat(matcher.matches("GET", "/api/users/42//")).isTrue();
+        assertThat(matcher.matches("GET", "/api/users/")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should ignore malformed compact permissions")
+    void shouldIgnoreMalformedPermissions() {
+        RouteMatcher matcher = RouteMatcher.compile(List.of("/api/orders", ":/api/orders"));
+
+        assertThat(matcher.isEmpty()).isTrue();
+        assertThat(matcher.matches("GET", "/api/orders")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should compile each permission set once and stay within the configured bound")
+    void shouldShareAndBoundCompiledMatchers() {
+        PermissionConfig config = new PermissionConfig();
+        config.setRouteMatcherCacheMaxSize(10);
+        RouteMatcherCache cache = new RouteMatcherCache(config);
+        AtomicInteger compilations = new AtomicInteger();
+
+        RouteMatcher first = cache.get("set-a", () -> {
+            compilations.incrementAndGet();
+            return List.of("GET:/api/users/:id");
+        });
+        RouteMatcher second = cache.get("set-a", () -> {
+            compilations.incrementAndGet();
+            return List.of("GET:/api/users/:id");
+        });
+        assertThat(second).isSameAs(first);
+        assertThat(compilations).hasValue(1);
+
+        for (int i = 0; i < 50; i++) {
+            cache.get("set-" + i, () -> List.of("GET:/api/orders"));
+        }
+        assertThat(cache.size()).isLessThanOrEqualTo(10);
+    }
+}
@@ -0,0 +1,107 @@
+package com.nexusiam.service;
+
+import com.nexusiam.application.service.session.SessionStateCache;
+import com.nexusiam.core.domain.repository.SSOSessionStateView;
+import com.nexusiam.core.domain.repository.SSOUserSessionRepository;
+import com.nexusiam.infrastructure.config.security.SessionStateConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SessionStateCache Tests")
+class SessionStateCacheTest {
+
+    @Mock
+    private SSOUserSessionRepository repositoryA;
+
+    @Mock
+    private SSOUserSessionRepository repositoryB;
+
+    private BroadcastTestCluster cluster;
+    private SessionStateCache replicaA;
+    private SessionStateCache replicaB;
+
+    @BeforeEach
+    void setUp() {
+        cluster = new BroadcastTestCluster();
+        replicaA = replica(repositoryA);
+        replicaB = replica(repositoryB);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cluster.close();
+    }
+
+    @Test
+    @DisplayName("Should answer repeated validations without touching the database")
+    void shouldServeSteadyStateFromCache() {
+        when(repositoryA.findStateByProfileId("P1")).thenReturn(Optional.of(state(true, "ACTIVE")));
+        when(repositoryA.findStateByProfileId("P2")).thenReturn(Optional.empty());
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(replicaA.isSessionValid("P1")).isTrue();
+            assertThat(replicaA.isSessionValid("P2")).isTrue();
+        }
+
+        verify(repositoryA, times(1)).findStateByProfileId("P1");
+        verify(repositoryA, times(1)).findStateByProfileId("P2");
+    }
+
+    @Test
+    @DisplayName("Should apply session state changes on every replica")
+    void shouldPropagateStateChanges() {
+        when(repositoryB.findStateByProfileId("P1")).thenReturn(Optional.of(state(true, "ACTIVE")));
+        assertThat(replicaB.isSessionValid("P1")).isTrue();
+
+        replicaA.sessionUpdated("P1", false, "INVALIDATED");
+        assertThat(replicaA.isSessionValid("P1")).isFalse();
+        assertThat(replicaB.isSessionValid("P1")).isFalse();
+
+        replicaA.sessionUpdated("P1", true, "ACTIVE");
+        assertThat(replicaB.isSessionValid("P1")).isTrue();
+        verify(repositoryB, times(1)).findStateByProfileId("P1");
+    }
+
+    @Test
+    @DisplayName("Should reload a session's state after a version bump without a known state")
+    void shouldReloadAfterChange() {
+        when(repositoryB.findStateByProfileId("P1"))
+                .thenReturn(Optional.of(state(true, "ACTIVE")))
+                .thenReturn(Optional.of(state(false, "INVALIDATED")));
+        assertThat(replicaB.isSessionValid("P1")).isTrue();
+
+        replicaA.sessionChanged("P1");
+
+        assertThat(replicaB.isSessionValid("P1")).isFalse();
+        assertThat(replicaB.isSessionValid("P1")).isFalse();
+        verify(repositoryB, times(2)).findStateByProfileId("P1");
+    }
+
+    private SessionStateCache replica(SSOUserSessionRepository repository) {
+        SessionStateCache cache = new SessionStateCache(repository, new SessionStateConfig(), cluster.join(),
+                new SimpleMeterRegistry());
+        cache.start();
+        return cache;
+    }
+
+    private static SSOSessionStateView state(boolean active, String tokenStatus) {
+        return new SSOSessionStateView() {
+            public Boolean getIsActive() { return active; }
+            public String getTokenStatus() { return tokenStatus; }
+        };
+    }
+}
@@ -0,0 +1,190 @@
+package com.nexusiam.service;
+
+import com.nexusiam.application.service.token.SigningKeyRegistry;
+import com.nexusiam.infrastructure.config.oauth.ExchangeTokenConfig;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.ECDSAVerifier;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.OctetKeyPair;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.util.Base64URL;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Signature;
+import java.security.interfaces.EdECPrivateKey;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("SigningKeyRegistry Tests")
+class SigningKeyRegistryTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path keysFile;
+    private ExchangeTokenConfig config;
+    private ECKey first;
+    private ECKey second;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        keysFile = tempDir.resolve("signing-keys.json");
+        config = new ExchangeTokenConfig();
+        config.setSigningKeysPath(keysFile.toString());
+        config.setSigningAlgorithm("ES256");
+        first = new ECKeyGenerator(Curve.P_256).keyID("k1").generate();
+        second = new ECKeyGenerator(Curve.P_256).keyID("k2").generate();
+    }
+
+    @Test
+    @DisplayName("Should sign with the new key after rotation and keep verifying the retired key")
+    void shouldRotateSigningKey() throws Exception {
+        SigningKeyRegistry registry = registry(first);
+        SignedJWT before = registry.sign(claims());
+
+        writeKeys(second, first.toPublicJWK());
+        registry.reload();
+        SignedJWT after = registry.sign(claims());
+
+        assertThat(before.getHeader().getKeyID()).isEqualTo("k1");
+        assertThat(after.getHeader().getKeyID()).isEqualTo("k2");
+        assertThat(verifies(registry, before)).isTrue();
+        assertThat(verifies(registry, after)).isTrue();
+        assertThat(registry.getPublicJWKSet().getKeys()).extracting(JWK::getKeyID).containsExactly("k2", "k1");
+        assertThat(registry.getPublicJWKSet().getKeys()).noneMatch(JWK::isPrivate);
+    }
+
+    @Test
+    @DisplayName("Should drop a key removed from the file once its in-memory grace expires")
+    void shouldExpireInMemoryGrace() throws Exception {
+        SigningKeyRegistry registry = registry(first);
+        SignedJWT token = registry.sign(claims());
+
+        writeKeys(second);
+        registry.reload();
+        assertThat(verifies(registry, token)).isTrue();
+
+        config.setRetiredKeyGraceSeconds(0);
+        Thread.sleep(5);
+        registry.reloadIfChanged();
+        assertThat(registry.getVerifier("k1", JWSAlgorithm.ES256)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should accept a retired key kept in the file after a restart until its exp")
+    void shouldPersistGraceInKeysFile() throws Exception {
+        SignedJWT token = registry(first).sign(claims());
+
+        writeKeys(second, retired(first, Instant.now().plus(1, ChronoUnit.HOURS)));
+        assertThat(verifies(registry(), token)).isTrue();
+
+        writeKeys(second, retired(first, Instant.now().minus(1, ChronoUnit.MINUTES)));
+        SigningKeyRegistry restarted = registry();
+        assertThat(restarted.getVerifier("k1", JWSAlgorithm.ES256)).isNull();
+        assertThat(restarted.getPublicJWKSet().getKeys()).extracting(JWK::getKeyID).containsExactly("k2");
+    }
+
+    @Test
+    @DisplayName("Should only return a verifier for the key ID and algorithm it was configured with")
+    void shouldPinKeyIdAndAlgorithm() throws Exception {
+        SigningKeyRegistry registry = registry(first);
+
+        assertThat(registry.getVerifier("k1", JWSAlgorithm.ES256)).isNotNull();
+        assertThat(registry.getVerifier("k1", JWSAlgorithm.RS256)).isNull();
+        assertThat(registry.getVerifier("k1", JWSAlgorithm.ES384)).isNull();
+        assertThat(registry.getVerifier("unknown", JWSAlgorithm.ES256)).isNull();
+        assertThat(registry.getVerifier(null, JWSAlgorithm.ES256)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should sign ES256 tokens that a standard ECDSA verifier accepts")
+    void shouldRoundTripEs256() throws Exception {
+        SigningKeyRegistry registry = registry(first);
+        SignedJWT token = registry.sign(claims());
+
+        assertThat(token.getHeader().getAlgorithm()).isEqualTo(JWSAlgorithm.ES256);
+        assertThat(verifies(registry, token)).isTrue();
+        assertThat(SignedJWT.parse(token.serialize()).verify(new ECDSAVerifier(first.toPublicJWK()))).isTrue();
+        assertThat(verifies(registry, tampered(token))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should sign EdDSA tokens with an Ed25519 key and verify them against the JDK provider")
+    void shouldRoundTripEdDsa() throws Exception {
+        KeyPair pair = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+        config.setSigningAlgorithm("EdDSA");
+        SigningKeyRegistry registry = registry(first, ed25519("ed1", pair));
+        SignedJWT token = registry.sign(claims());
+
+        assertThat(token.getHeader().getAlgorithm()).isEqualTo(JWSAlgorithm.EdDSA);
+        assertThat(token.getHeader().getKeyID()).isEqualTo("ed1");
+        assertThat(verifies(registry, token)).isTrue();
+        assertThat(verifies(registry, tampered(token))).isFalse();
+
+        Signature jdk = Signature.getInstance("Ed25519");
+        jdk.initVerify(pair.getPublic());
+        jdk.update(token.getSigningInput());
+        assertThat(jdk.verify(token.getSignature().decode())).isTrue();
+        assertThat(registry.getPublicJWKSet().getKeys()).extracting(JWK::getKeyID).containsExactly("k1", "ed1");
+        assertThat(registry.getPublicJWKSet().getKeys()).noneMatch(JWK::isPrivate);
+    }
+
+    private SigningKeyRegistry registry(JWK... keys) throws Exception {
+        if (keys.length > 0) {
+            writeKeys(keys);
+        }
+        SigningKeyRegistry registry = new SigningKeyRegistry(config);
+        registry.init();
+        return registry;
+    }
+
+    private void writeKeys(JWK... keys) throws Exception {
+        Files.writeString(keysFile, new JWKSet(List.of(keys)).toString(false));
+    }
+
+    private static JWK retired(ECKey key, Instant expiresAt) {
+        return new ECKey.Builder(key.toPublicJWK()).expirationTime(Date.from(expiresAt)).build();
+    }
+
+    private static OctetKeyPair ed25519(String keyId, KeyPair pair) {
+        byte[] encoded = pair.getPublic().getEncoded();
+        byte[] x = Arrays.copyOfRange(encoded, encoded.length - 32, encoded.length);
+        byte[] d = ((EdECPrivateKey) pair.getPrivate()).getBytes().orElseThrow();
+        return new OctetKeyPair.Builder(Curve.Ed25519, Base64URL.encode(x)).d(Base64URL.encode(d)).keyID(keyId).build();
+    }
+
+    private static SignedJWT tampered(SignedJWT token) throws Exception {
+        return new SignedJWT(token.getHeader().toBase64URL(), Base64URL.encode("{\"sub\":\"user-2\"}"),
+                token.getSignature());
+    }
+
+    private static boolean verifies(SigningKeyRegistry registry, SignedJWT token) throws Exception {
+        JWSVerifier verifier = registry.getVerifier(token.getHeader().getKeyID(), token.getHeader().getAlgorithm());
+        return verifier != null && SignedJWT.parse(token.serialize()).verify(verifier);
+    }
+
+    private static JWTClaimsSet claims() {
+        return new JWTClaimsSet.Builder()
+                .subject("user-1")
+                .expirationTime(new Date(System.currentTimeMillis() + 60_000))
+                .build();
+    }
+}
@@ -0,0 +1,74 @@
+package com.nexusiam.service;
+
+import com.nexusiam.infrastructure.security.filter.TokenDispatcher;
+import com.nexusiam.infrastructure.security.filter.TokenDispatcher.Route;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("TokenDispatcher Tests")
+class TokenDispatcherTest {
+
+    private final TokenDispatcher dispatcher = new TokenDispatcher();
+
+    @Test
+    @DisplayName("Should route HMAC tokens internally and asymmetric tokens to SSO")
+    void shouldRouteByAlgorithmFamily() {
+        assertThat(dispatcher.dispatch(token("{\"alg\":\"HS256\",\"typ\":\"JWT\"}"))).isEqualTo(Route.INTERNAL);
+        assertThat(dispatcher.dispatch(token("{\"alg\":\"HS512\"}"))).isEqualTo(Route.INTERNAL);
+        assertThat(dispatcher.dispatch(token("{\"kid\":\"k1\",\"alg\":\"RS256\"}"))).isEqualTo(Route.CUSTOM_SSO);
+        assertThat(dispatcher.dispatch(token("{\"alg\":\"PS384\"}"))).isEqualTo(Route.CUSTOM_SSO);
+        assertThat(dispatcher.dispatch(token("{\"alg\":\"ES256\",\"kid\":\"k2\"}"))).isEqualTo(Route.CUSTOM_SSO);
+        assertThat(dispatcher.dispatch(token("{\"alg\":\"EdDSA\"}"))).isEqualTo(Route.CUSTOM_SSO);
+    }
+
+    @Test
+    @DisplayName("Should read alg as a JSON member rather than by text search")
+    void shouldParseHeaderAsJson() {
+        assertThat(dispatcher.dispatch(token("{\"typ\":\"\\\"alg\\\"\",\"alg\" : \"RS256\"}")))
+                .isEqualTo(Route.CUSTOM_SSO);
+        assertThat(dispatcher.dispatch(token("{\"x\":{\"alg\":\"HS256\"},\"alg\":\"ES256\"}")))
+                .isEqualTo(Route.CUSTOM_SSO);
+        assertThat(dispatcher.dispatch(token("{\"alg\":\"HS\\u0032\\u0035\\u0036\"}"))).isEqualTo(Route.INTERNAL);
+    }
+
+    @Test
+    @DisplayName("Should reject unsigned and unknown algorithms")
+    void shouldRejectNoneAndUnknownAlgorithms() {
+        assertThat(dispatcher.dispatch(token("{\"alg\":\"none\"}"))).isEqualTo(Route.REJECTED);
+        assertThat(dispatcher.dispatch(token("{\"alg\":\"XS256\"}"))).isEqualTo(Route.REJECTED);
+        assertThat(dispatcher.dispatch(token("{\"typ\":\"JWT\"}"))).isEqualTo(Route.REJECTED);
+        assertThat(dispatcher.dispatch(token("{\"alg\":256}"))).isEqualTo(Route.REJECTED);
+    }
+
+    @Test
+    @DisplayName("Should reject malformed and oversize tokens before parsing the header")
+    void shouldRejectMalformedTokens() {
+        String valid = token("{\"alg\":\"HS256\"}");
+        String header = valid.substring(0, valid.indexOf('.'));
+
+        assertThat(dispatcher.dispatch(null)).isEqualTo(Route.REJECTED);
+        assertThat(dispatcher.dispatch("")).isEqualTo(Route.REJECTED);
+        assertThat(dispatcher.dispatch(header)).isEqualTo(Route.REJECTED);
+        assertThat(dispatcher.dispatch(header + ".e30.")).isEqualTo(Route.REJECTED);
+        assertThat(dispatcher.dispatch(valid + ".extra")).isEqualTo(Route.REJECTED);
+        assertThat(dispatcher.dispatch(header + ".e30=.c2ln")).isEqualTo(Route.REJECTED);
+        assertThat(dispatcher.dispatch(encode("{\"alg\":\"HS256\"") + ".e30.c2ln")).isEqualTo(Route.REJECTED);
+        assertThat(dispatcher.dispatch(encode("not json") + ".e30.c2ln")).isEqualTo(Route.REJECTED);
+        assertThat(dispatcher.dispatch(token("{\"alg\":\"HS256\",\"pad\":\"" + "x".repeat(1024) + "\"}")))
+                .isEqualTo(Route.REJECTED);
+        assertThat(dispatcher.dispatch(header + "." + "a".repeat(16 * 1024) + ".c2ln")).isEqualTo(Route.REJECTED);
+    }
+
+    private static String token(String headerJson) {
+        return encode(headerJson) + ".e30.c2ln";
+    }
+
+    private static String encode(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,163 @@
+package com.nexusiam.service;
+
+import com.nexusiam.application.service.token.TokenRevocationService;
+import com.nexusiam.infrastructure.config.security.TokenRevocationConfig;
+import com.nexusiam.infrastructure.messaging.ClusterBroadcaster;
+import com.nexusiam.infrastructure.redis.RedisAvailability;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.PlainJWT;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TokenRevocationService Tests")
+class TokenRevocationServiceTest {
+
+    @Mock
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @Mock
+    private RedisAvailability redisAvailability;
+
+    @Mock
+    private ClusterBroadcaster broadcaster;
+
+    @Mock
+    private Cursor<String> cursor;
+
+    private TokenRevocationConfig config;
+    private TokenRevocationService service;
+
+    @BeforeEach
+    void setUp() {
+        config = new TokenRevocationConfig();
+        config.setFilterEnabled(false);
+        service = new TokenRevocationService(redisTemplate, redisAvailability, config, broadcaster,
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("Should key revocations by jti and fall back to a fixed-size token digest")
+    void shouldDeriveRevocationId() {
+        String token = token("jti-1", 3600);
+
+        assertThat(TokenRevocationService.revocationId(token, "jti-1")).isEqualTo("jti-1");
+
+        String digest = TokenRevocationService.revocationId(token, null);
+        assertThat(digest).hasSize(22).doesNotContain("=", "+", "/");
+        assertThat(TokenRevocationService.revocationId(token, " ")).isEqualTo(digest);
+        assertThat(TokenRevocationService.revocationId(token + "x", null)).isNotEqualTo(digest);
+    }
+
+    @Test
+    @DisplayName("Should keep a revocation only for the token's remaining lifetime")
+    void shouldExpireWithToken() {
+        String token = token("jti-1", 600);
+        when(redisAvailability.isAvailable()).thenReturn(true);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+
+        assertThat(service.revoke(token)).isTrue();
+
+        ArgumentCaptor<Long> ttl = ArgumentCaptor.forClass(Long.class);
+        verify(valueOperations).set(eq("revoked:jti-1"), eq("1"), ttl.capture(), eq(TimeUnit.SECONDS));
+        assertThat(ttl.getValue()).isBetween(595L, 600L);
+        verify(valueOperations).set(eq("invalidated:" + token), eq("true"), eq(ttl.getValue()), eq(TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Should clamp migrated entries to the shorter of the legacy key TTL and the token lifetime")
+    void shouldClampMigratedTtl() {
+        String shortKey = "invalidated:" + token("jti-short", 3600);
+        String longKey = "invalidated:" + token("jti-long", 600);
+        scan(shortKey, longKey);
+        when(redisTemplate.getExpire(shortKey, TimeUnit.SECONDS)).thenReturn(120L);
+        when(redisTemplate.getExpire(longKey, TimeUnit.SECONDS)).thenReturn(86400L);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(anyString(), eq("1"), anyLong(), eq(TimeUnit.SECONDS))).thenReturn(true);
+
+        service.migrateLegacyEntries();
+
+        verify(valueOperations).setIfAbsent("revoked:jti-short", "1", 120L, TimeUnit.SECONDS);
+        ArgumentCaptor<Long> ttl = ArgumentCaptor.forClass(Long.class);
+        verify(valueOperations).setIfAbsent(eq("revoked:jti-long"), eq("1"), ttl.capture(), eq(TimeUnit.SECONDS));
+        assertThat(ttl.getValue()).isBetween(595L, 600L);
+    }
+
+    @Test
+    @DisplayName("Should skip expired tokens and leave legacy keys for nodes that still read them")
+    void shouldKeepLegacyKeys() {
+        String expiredKey = "invalidated:" + token("jti-expired", -60);
+        scan(expiredKey);
+        when(redisTemplate.getExpire(expiredKey, TimeUnit.SECONDS)).thenReturn(300L);
+
+        service.migrateLegacyEntries();
+
+        verify(valueOperations, never()).setIfAbsent(anyString(), anyString(), anyLong(), any(TimeUnit.class));
+        verify(redisTemplate, never()).delete(anyString());
+    }
+
+    @Test
+    @DisplayName("Should check Redis for every token once a revocation broadcast fails")
+    void shouldDisableFilterWhenBroadcastFails() {
+        config.setFilterEnabled(true);
+        when(broadcaster.isActive()).thenReturn(true);
+        scan("revoked:jti-known");
+        service.start();
+
+        assertThat(service.isRevoked("jti-other")).isFalse();
+        verify(redisTemplate, never()).hasKey(anyString());
+
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        assertThat(service.revoke(token("jti-new", 600))).isTrue();
+
+        when(redisTemplate.hasKey("revoked:jti-other")).thenReturn(false);
+        assertThat(service.isRevoked("jti-other")).isFalse();
+        verify(redisTemplate).hasKey("revoked:jti-other");
+    }
+
+    private void scan(String... keys) {
+        when(redisAvailability.isAvailable()).thenReturn(true);
+        when(redisTemplate.scan(any(ScanOptions.class))).thenReturn(cursor);
+        Boolean[] more = new Boolean[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            more[i] = i < keys.length - 1;
+        }
+        when(cursor.hasNext()).thenReturn(true, more);
+        String[] rest = new String[keys.length - 1];
+        System.arraycopy(keys, 1, rest, 0, rest.length);
+        when(cursor.next()).thenReturn(keys[0], rest);
+    }
+
+    private static String token(String jti, long expiresInSeconds) {
+        return new PlainJWT(new JWTClaimsSet.Builder()
+                .jwtID(jti)
+                .subject("user")
+                .expirationTime(new Date(System.currentTimeMillis() + expiresInSeconds * 1000))
+                .build()).serialize();
+    }
+}
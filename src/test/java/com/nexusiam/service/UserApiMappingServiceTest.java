@@ -0,0 +1,141 @@
+package com.nexusiam.service;
+
+import com.nexusiam.application.dto.request.BulkPermissionCheckRequest;
+import com.nexusiam.application.dto.request.PermissionCheckRequest;
+import com.nexusiam.application.dto.response.BulkPermissionCheckResponse;
+import com.nexusiam.application.service.authorization.PermissionCacheService;
+import com.nexusiam.application.service.authorization.PermissionInvalidationBus;
+import com.nexusiam.application.service.authorization.UserApiMappingService;
+import com.nexusiam.core.domain.repository.ApiSourceRepository;
+import com.nexusiam.core.domain.repository.InternalUserRepository;
+import com.nexusiam.core.domain.repository.UserApiMappingRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UserApiMappingService Permission Check Tests")
+class UserApiMappingServiceTest {
+
+    @Mock
+    private UserApiMappingRepository mappingRepository;
+
+    @Mock
+    private InternalUserRepository userRepository;
+
+    @Mock
+    private ApiSourceRepository apiSourceRepository;
+
+    @Mock
+    private PermissionInvalidationBus invalidationBus;
+
+    @Mock
+    private PermissionCacheService permissionCacheService;
+
+    @InjectMocks
+    private UserApiMappingService mappingService;
+
+    @Test
+    @DisplayName("Should answer single checks from the same cached evaluation as bulk checks")
+    @SuppressWarnings("unchecked")
+    void shouldCheckSinglePermissionThroughCache() {
+        when(userRepository.existsById(7L)).thenReturn(true);
+        when(permissionCacheService.checkAll(any(), any())).thenReturn(Map.of(7L, bits(0)));
+
+        boolean allowed = mappingService.checkPermission(PermissionCheckRequest.builder()
+                .userId(7L).apiPath("/api/users/42/").httpMethod("get").build()).getHasPermission();
+
+        assertThat(allowed).isTrue();
+        ArgumentCaptor<List<PermissionCacheService.Action>> actions = ArgumentCaptor.forClass(List.class);
+        verify(permissionCacheService).checkAll(any(), actions.capture());
+        assertThat(actions.getValue()).hasSize(1);
+        assertThat(actions.getValue().get(0).getHttpMethod()).isEqualTo("GET");
+        assertThat(actions.getValue().get(0).getApiPath()).isEqualTo("/api/users/42");
+        verify(mappingRepository, never()).hasPermission(anyLong(), anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("Should merge userId into userIds and return one decision string per user")
+    @SuppressWarnings("unchecked")
+    void shouldCheckPermissionsInBulk() {
+        when(permissionCacheService.checkAll(any(), any())).thenReturn(Map.of(1L, bits(0, 2), 2L, bits()));
+
+        BulkPermissionCheckResponse response = mappingService.checkPermissions(BulkPermissionCheckRequest.builder()
+                .userId(1L)
+                .userIds(List.of(1L, 2L))
+                .actions(List.of(action("GET", "/api/a"), action("post", "/api/b/"), action("DELETE", "/api/c")))
+                .build());
+
+        assertThat(response.getTotalActions()).isEqualTo(3);
+        assertThat(response.getDecisions()).containsEntry(1L, "101").containsEntry(2L, "000");
+        assertThat(response.getAllowedCounts()).containsEntry(1L, 2).containsEntry(2L, 0);
+
+        ArgumentCaptor<Collection<Long>> userIds = ArgumentCaptor.forClass(Collection.class);
+        ArgumentCaptor<List<PermissionCacheService.Action>> actions = ArgumentCaptor.forClass(List.class);
+        verify(permissionCacheService).checkAll(userIds.capture(), actions.capture());
+        assertThat(userIds.getValue()).containsExactly(1L, 2L);
+        assertThat(actions.getValue()).extracting(PermissionCacheService.Action::getApiPath)
+                .containsExactly("/api/a", "/api/b", "/api/c");
+    }
+
+    @Test
+    @DisplayName("Should reject more than 100 distinct users once userId is merged in")
+    void shouldRejectTooManyCombinedUsers() {
+        BulkPermissionCheckRequest request = BulkPermissionCheckRequest.builder()
+                .userId(0L)
+                .userIds(LongStream.rangeClosed(1, 100).boxed().collect(Collectors.toList()))
+                .actions(List.of(action("GET", "/api/a")))
+                .build();
+
+        assertThat(request.isWithinUserLimit()).isFalse();
+        assertThatThrownBy(() -> mappingService.checkPermissions(request))
+                .hasMessageContaining("At most 100 users");
+        verifyNoInteractions(permissionCacheService);
+    }
+
+    @Test
+    @DisplayName("Should accept 100 users when userId repeats one of userIds")
+    void shouldCountDuplicateUserOnce() {
+        BulkPermissionCheckRequest request = BulkPermissionCheckRequest.builder()
+                .userId(1L)
+                .userIds(LongStream.rangeClosed(1, 100).boxed().collect(Collectors.toList()))
+                .actions(List.of(action("GET", "/api/a")))
+                .build();
+
+        assertThat(request.isWithinUserLimit()).isTrue();
+        assertThat(request.distinctUserIds()).hasSize(100);
+    }
+
+    private static BulkPermissionCheckRequest.ActionEntry action(String method, String path) {
+        return BulkPermissionCheckRequest.ActionEntry.builder().httpMethod(method).apiPath(path).build();
+    }
+
+    private static BitSet bits(int... indexes) {
+        BitSet bits = new BitSet();
+        for (int index : indexes) {
+            bits.set(index);
+        }
+        return bits;
+    }
+}
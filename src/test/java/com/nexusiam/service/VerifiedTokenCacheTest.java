@@ -0,0 +1,81 @@
+package com.nexusiam.service;
+
+import com.nexusiam.application.service.token.VerifiedTokenCache;
+import com.nexusiam.infrastructure.config.oauth.ExchangeTokenConfig;
+import com.nimbusds.jwt.JWTClaimsSet;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("VerifiedTokenCache Tests")
+class VerifiedTokenCacheTest {
+
+    private ExchangeTokenConfig tokenConfig;
+    private SimpleMeterRegistry meterRegistry;
+    private VerifiedTokenCache cache;
+
+    @BeforeEach
+    void setUp() {
+        tokenConfig = new ExchangeTokenConfig();
+        tokenConfig.setVerifiedCacheMaxSize(10);
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new VerifiedTokenCache(tokenConfig, meterRegistry);
+        cache.registerMetrics();
+    }
+
+    @Test
+    @DisplayName("Should return cached claims for a previously verified token")
+    void shouldReturnCachedClaims() {
+        JWTClaimsSet claims = claimsExpiringIn(60_000);
+
+        assertThat(cache.get("token-a")).isNull();
+        cache.put("token-a", claims);
+
+        assertThat(cache.get("token-a")).isSameAs(claims);
+        assertThat(meterRegistry.get("iam.token.verified.cache.hits").functionCounter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("iam.token.verified.cache.misses").functionCounter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should not cache or serve expired tokens")
+    void shouldNotServeExpiredTokens() {
+        cache.put("expired", claimsExpiringIn(-1_000));
+
+        assertThat(cache.get("expired")).isNull();
+        assertThat(meterRegistry.get("iam.token.verified.cache.size").gauge().value()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should stay within the configured maximum size")
+    void shouldStayBounded() {
+        for (int i = 0; i < 50; i++) {
+            cache.put("token-" + i, claimsExpiringIn(60_000));
+        }
+
+        assertThat(meterRegistry.get("iam.token.verified.cache.size").gauge().value())
+                .isLessThanOrEqualTo(tokenConfig.getVerifiedCacheMaxSize());
+        assertThat(meterRegistry.get("iam.token.verified.cache.evictions").functionCounter().count())
+                .isGreaterThan(0.0);
+    }
+
+    @Test
+    @DisplayName("Should drop an entry on explicit invalidation")
+    void shouldInvalidateEntry() {
+        cache.put("token-b", claimsExpiringIn(60_000));
+        cache.invalidate("token-b");
+
+        assertThat(cache.get("token-b")).isNull();
+    }
+
+    private JWTClaimsSet claimsExpiringIn(long millis) {
+        return new JWTClaimsSet.Builder()
+                .subject("profile-1")
+                .expirationTime(new Date(System.currentTimeMillis() + millis))
+                .build();
+    }
+}